@@ -0,0 +1,15 @@
+package com.ifri.bookmyhall.configs;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injecte l'{@link UtilisateurPrincipal} de la requête courante dans un
+ * paramètre de méthode de controller, sans accès à la base s'il est à jour.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+}
@@ -0,0 +1,69 @@
+package com.ifri.bookmyhall.configs;
+
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import com.ifri.bookmyhall.repositories.SalleRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+/**
+ * Expose en métriques les statistiques des régions du cache de second niveau
+ * (hibernate.cache.*, étiquetées par région). Les régions de requêtes sont
+ * créées au premier usage : leurs compteurs restent à 0 jusque-là.
+ */
+public class HibernateCacheMetrics implements MeterBinder {
+
+    private static final String[] REGIONS_ENTITES = { "salles", "utilisateurs" };
+    private static final String[] REGIONS_REQUETES = { SalleRepository.REGION_COMPTAGE };
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : REGIONS_ENTITES)
+            lier(registry, region, "entity", s -> s.getDomainDataRegionStatistics(region), statistiques);
+        for (String region : REGIONS_REQUETES)
+            lier(registry, region, "query", s -> s.getQueryRegionStatistics(region), statistiques);
+
+        FunctionCounter.builder("hibernate.cache.query.executions", statistiques, Statistics::getQueryExecutionCount)
+                .description("Requêtes exécutées en base").register(registry);
+    }
+
+    private static void lier(MeterRegistry registry, String region, String type,
+            Function<Statistics, CacheRegionStatistics> lecture, Statistics statistiques) {
+        compteur(registry, "hibernate.cache.hits", region, type, statistiques, lecture,
+                CacheRegionStatistics::getHitCount);
+        compteur(registry, "hibernate.cache.misses", region, type, statistiques, lecture,
+                CacheRegionStatistics::getMissCount);
+        compteur(registry, "hibernate.cache.puts", region, type, statistiques, lecture,
+                CacheRegionStatistics::getPutCount);
+        Gauge.builder("hibernate.cache.size", statistiques,
+                s -> valeur(lecture.apply(s), CacheRegionStatistics::getElementCountInMemory))
+                .tag("region", region).tag("type", type).register(registry);
+    }
+
+    private static void compteur(MeterRegistry registry, String nom, String region, String type,
+            Statistics statistiques, Function<Statistics, CacheRegionStatistics> lecture,
+            ToDoubleFunction<CacheRegionStatistics> mesure) {
+        FunctionCounter.builder(nom, statistiques, s -> valeur(lecture.apply(s), mesure))
+                .tag("region", region).tag("type", type).register(registry);
+    }
+
+    private static double valeur(CacheRegionStatistics region, ToDoubleFunction<CacheRegionStatistics> mesure) {
+        return region == null ? 0 : Math.max(0, mesure.applyAsDouble(region));
+    }
+}
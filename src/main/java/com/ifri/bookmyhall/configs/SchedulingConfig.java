@@ -0,0 +1,10 @@
+package com.ifri.bookmyhall.configs;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+/** Active les tâches planifiées (rechargement des index et caches mémoire). */
+public class SchedulingConfig {
+}
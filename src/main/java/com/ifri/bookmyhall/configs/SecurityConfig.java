@@ -37,7 +37,8 @@ public class SecurityConfig {
                                 "/js/**",
                                 "/images/**", "/error", "/access-denied")
                         .permitAll()
-                        .requestMatchers("/admin/**").hasAuthority("ADMIN")
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/admin/**", "/actuator/**").hasAuthority("ADMIN")
                         .requestMatchers("/user/**").hasAnyAuthority("USER", "ADMIN")
                         .anyRequest().authenticated())
                 .formLogin(form -> form
@@ -0,0 +1,87 @@
+package com.ifri.bookmyhall.configs;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.session.SessionAuthenticationException;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import com.ifri.bookmyhall.services.VersionsUtilisateurs;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+/**
+ * Résout les paramètres {@link CurrentUser}. Le principal de session est
+ * servi tel quel s'il est à jour ; sinon il est rechargé une fois, remplacé
+ * dans le contexte de sécurité (droits compris) et la session mise à jour.
+ * Le résultat est gardé en attribut de requête. Un compte supprimé ou
+ * désactivé est déconnecté.
+ */
+public class UtilisateurCourantResolver implements HandlerMethodArgumentResolver {
+
+    private static final String ATTRIBUT_REQUETE = UtilisateurCourantResolver.class.getName();
+
+    private final VersionsUtilisateurs versions;
+    private final SecurityContextRepository securityContextRepository = new HttpSessionSecurityContextRepository();
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && UtilisateurPrincipal.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+            NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        if (request.getAttribute(ATTRIBUT_REQUETE) instanceof UtilisateurPrincipal principal)
+            return principal;
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof UtilisateurPrincipal principal))
+            return null;
+
+        if (!versions.estAJour(principal))
+            principal = actualiser(principal, auth, request, webRequest.getNativeResponse(HttpServletResponse.class));
+        request.setAttribute(ATTRIBUT_REQUETE, principal);
+        return principal;
+    }
+
+    private UtilisateurPrincipal actualiser(UtilisateurPrincipal ancien, Authentication auth,
+            HttpServletRequest request, HttpServletResponse response) {
+        UtilisateurPrincipal principal = versions.recharger(ancien.getId()).orElse(null);
+        if (principal == null) {
+            log.info("Session de {} fermée : compte supprimé ou désactivé", ancien.getUsername());
+            SecurityContextHolder.clearContext();
+            HttpSession session = request.getSession(false);
+            if (session != null)
+                session.invalidate();
+            throw new SessionAuthenticationException("Compte supprimé ou désactivé");
+        }
+
+        UsernamePasswordAuthenticationToken nouvelle = UsernamePasswordAuthenticationToken.authenticated(principal,
+                null, principal.getAuthorities());
+        nouvelle.setDetails(auth.getDetails());
+        SecurityContext contexte = SecurityContextHolder.createEmptyContext();
+        contexte.setAuthentication(nouvelle);
+        SecurityContextHolder.setContext(contexte);
+        securityContextRepository.saveContext(contexte, request, response);
+        log.debug("Principal de {} rechargé (version {})", principal.getUsername(), principal.getVersion());
+        return principal;
+    }
+}
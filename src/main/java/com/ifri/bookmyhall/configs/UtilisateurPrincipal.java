@@ -0,0 +1,67 @@
+package com.ifri.bookmyhall.configs;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.ifri.bookmyhall.models.Role;
+import com.ifri.bookmyhall.models.Utilisateur;
+
+import lombok.Getter;
+
+@Getter
+/**
+ * Utilisateur authentifié, gardé dans la session : identifiant et champs
+ * d'affichage chargés à la connexion, avec le numéro de version de
+ * l'utilisateur à ce moment (voir {@code VersionsUtilisateurs}).
+ */
+public class UtilisateurPrincipal implements UserDetails, CredentialsContainer {
+
+    private final Long id;
+    private final String username;
+    private String password;
+    private final String nom;
+    private final String prenom;
+    private final String email;
+    private final String telephone;
+    private final Role role;
+    private final boolean actif;
+    private final long version;
+
+    public UtilisateurPrincipal(Utilisateur utilisateur, long version) {
+        this.id = utilisateur.getId();
+        this.username = utilisateur.getUsername();
+        this.password = utilisateur.getPassword();
+        this.nom = utilisateur.getNom();
+        this.prenom = utilisateur.getPrenom();
+        this.email = utilisateur.getEmail();
+        this.telephone = utilisateur.getTelephone();
+        this.role = utilisateur.getRole();
+        this.actif = Boolean.TRUE.equals(utilisateur.getActif());
+        this.version = version;
+    }
+
+    public String getNomComplet() {
+        return prenom + " " + nom;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.name()));
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return actif;
+    }
+
+    /** Le mot de passe n'est utile qu'à l'authentification. */
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.ifri.bookmyhall.configs;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import lombok.RequiredArgsConstructor;
+
+@Configuration
+@RequiredArgsConstructor
+/** Configuration Spring MVC : résolution de l'utilisateur courant. */
+public class WebConfig implements WebMvcConfigurer {
+
+    private final UtilisateurCourantResolver utilisateurCourantResolver;
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(utilisateurCourantResolver);
+    }
+}
@@ -19,13 +19,21 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.ifri.bookmyhall.configs.CurrentUser;
+import com.ifri.bookmyhall.configs.UtilisateurPrincipal;
+import com.ifri.bookmyhall.dto.PageCurseur;
 import com.ifri.bookmyhall.dto.ReservationDTO;
 import com.ifri.bookmyhall.dto.SalleDTO;
+import com.ifri.bookmyhall.dto.StatistiquesDTO;
 import com.ifri.bookmyhall.dto.UtilisateurDTO;
+import com.ifri.bookmyhall.exceptions.ConflitModificationException;
 import com.ifri.bookmyhall.models.Reservation.StatutReservation;
 import com.ifri.bookmyhall.models.Role;
+import com.ifri.bookmyhall.services.CatalogueSalles;
+import com.ifri.bookmyhall.services.CompteursEstimes;
 import com.ifri.bookmyhall.services.ReservationService;
 import com.ifri.bookmyhall.services.SalleService;
+import com.ifri.bookmyhall.services.StatistiquesTableauBord;
 import com.ifri.bookmyhall.services.UtilisateurService;
 
 import jakarta.validation.Valid;
@@ -43,21 +51,30 @@ public class AdminController {
     private final UtilisateurService utilisateurService;
     private final SalleService salleService;
     private final ReservationService reservationService;
-
-    /** Affiche le tableau de bord avec les statistiques globales. */
+    private final CompteursEstimes compteursEstimes;
+    private final StatistiquesTableauBord statistiques;
+    private final CatalogueSalles catalogueSalles;
+
+    /**
+     * Affiche le tableau de bord : les statistiques globales sont servies depuis
+     * la mémoire, seule la liste des dernières réservations est lue en base.
+     */
     @GetMapping("/dashboard")
     public String dashboard(Model model) {
         try {
-            model.addAttribute("totalUtilisateurs",
-                    utilisateurService.getAllUtilisateurs(PageRequest.of(0, 1)).getTotalElements());
-            model.addAttribute("totalSalles", salleService.getAllSalles(PageRequest.of(0, 1)).getTotalElements());
-            model.addAttribute("totalReservations",
-                    reservationService.getAllReservations(PageRequest.of(0, 5)).getTotalElements());
-            model.addAttribute("sallesDisponibles", salleService.countSallesDisponibles());
-
-            Page<ReservationDTO> dernierePage = reservationService.getAllReservations(
+            StatistiquesDTO stats = statistiques.instantane();
+            model.addAttribute("totalUtilisateurs", stats.utilisateurs());
+            model.addAttribute("totalSalles", stats.salles());
+            model.addAttribute("totalReservations", stats.reservations());
+            model.addAttribute("sallesDisponibles", stats.sallesDisponibles());
+            model.addAttribute("reservationsParStatut", stats.reservationsParStatut());
+
+            Page<ReservationDTO> dernierePage = reservationService.getReservationsSansComptage(null,
                     PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "id")));
             model.addAttribute("dernieresReservations", dernierePage.getContent());
+            model.addAttribute("cacheSalles", catalogueSalles.statistiquesSalles());
+            model.addAttribute("cachePagesSalles", catalogueSalles.statistiquesPages());
+            model.addAttribute("cacheRecherchesSalles", catalogueSalles.statistiquesRecherches());
 
         } catch (Exception e) {
             log.error("Erreur chargement dashboard", e);
@@ -149,20 +166,29 @@ public class AdminController {
         return "redirect:/admin/users";
     }
 
-    /** Liste les utilisateurs avec pagination. */
+    /**
+     * Liste les utilisateurs avec pagination par numéro de page, ou par curseur
+     * lorsque le paramètre {@code apres} est présent (vide pour la première page).
+     */
     @GetMapping("/users")
     public String listUsers(@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size,
-            Model model) {
+            @RequestParam(required = false) String apres, Model model) {
         try {
-            Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
-            Page<UtilisateurDTO> usersPage = utilisateurService.getAllUtilisateurs(pageable);
-
-            model.addAttribute("users", usersPage.getContent());
-            model.addAttribute("usersPage", usersPage);
-            model.addAttribute("currentPage", page);
-            model.addAttribute("totalPages", usersPage.getTotalPages());
-            model.addAttribute("totalAdmins", utilisateurService.countByRole(Role.ADMIN));
-            model.addAttribute("totalUsers", utilisateurService.countByRole(Role.USER));
+            if (apres != null) {
+                PageCurseur<UtilisateurDTO> usersCurseur = utilisateurService.getUtilisateursApres(apres, size);
+                model.addAttribute("users", usersCurseur.contenu());
+                model.addAttribute("pageCurseur", usersCurseur);
+            } else {
+                Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
+                Page<UtilisateurDTO> usersPage = utilisateurService.getAllUtilisateursSansComptage(pageable);
+
+                model.addAttribute("users", usersPage.getContent());
+                model.addAttribute("usersPage", usersPage);
+                model.addAttribute("currentPage", page);
+                model.addAttribute("totalPages", usersPage.getTotalPages());
+            }
+            model.addAttribute("totalAdmins", compteursEstimes.utilisateurs(Role.ADMIN));
+            model.addAttribute("totalUsers", compteursEstimes.utilisateurs(Role.USER));
         } catch (Exception e) {
             log.error("Erreur listing utilisateurs", e);
             model.addAttribute("errorMessage", "Erreur lors du chargement");
@@ -220,7 +246,7 @@ public class AdminController {
             Model model) {
         try {
             Pageable pageable = PageRequest.of(page, size, Sort.by("nom").ascending());
-            Page<SalleDTO> sallesPage = salleService.getAllSalles(pageable);
+            Page<SalleDTO> sallesPage = salleService.getAllSallesSansComptage(pageable);
             model.addAttribute("salles", sallesPage.getContent());
             model.addAttribute("sallesPage", sallesPage);
             model.addAttribute("currentPage", page);
@@ -288,6 +314,10 @@ public class AdminController {
             log.info("Salle mise à jour : {}", id);
             redirectAttributes.addFlashAttribute("successMessage", "Salle mise à jour");
             return "redirect:/admin/salles";
+        } catch (ConflitModificationException e) {
+            log.warn("Conflit de modification sur la salle {}", id);
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+            return "redirect:/admin/salles/" + id + "/edit";
         } catch (Exception e) {
             log.error("Erreur mise à jour salle {}", id, e);
             model.addAttribute("errorMessage", e.getMessage());
@@ -325,21 +355,31 @@ public class AdminController {
         return "redirect:/admin/salles";
     }
 
-    /** Liste les réservations avec filtrage par statut. */
+    /**
+     * Liste les réservations avec filtrage par statut, paginées par numéro de
+     * page ou par curseur lorsque le paramètre {@code apres} est présent.
+     */
     @GetMapping("/reservations")
     public String listReservations(@RequestParam(required = false) String statut,
-            @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size, Model model) {
+            @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String apres, Model model) {
         try {
-            Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
-            Page<ReservationDTO> reservationsPage = (statut != null && !statut.isEmpty())
-                    ? reservationService.getReservationsByStatut(statut, pageable)
-                    : reservationService.getAllReservations(pageable);
-
-            model.addAttribute("reservations", reservationsPage.getContent());
-            model.addAttribute("reservationsPage", reservationsPage);
+            if (apres != null) {
+                PageCurseur<ReservationDTO> reservationsCurseur = reservationService.getReservationsApres(statut,
+                        apres, size);
+                model.addAttribute("reservations", reservationsCurseur.contenu());
+                model.addAttribute("pageCurseur", reservationsCurseur);
+            } else {
+                Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
+                Page<ReservationDTO> reservationsPage = reservationService.getReservationsSansComptage(statut,
+                        pageable);
+
+                model.addAttribute("reservations", reservationsPage.getContent());
+                model.addAttribute("reservationsPage", reservationsPage);
+                model.addAttribute("currentPage", page);
+                model.addAttribute("totalPages", reservationsPage.getTotalPages());
+            }
             model.addAttribute("filtreStatut", statut);
-            model.addAttribute("currentPage", page);
-            model.addAttribute("totalPages", reservationsPage.getTotalPages());
 
             if (statut != null && !statut.isEmpty()) {
                 try {
@@ -369,12 +409,10 @@ public class AdminController {
 
     /** Affiche les détails d'une réservation pour l'admin. */
     @GetMapping("/reservations/{id}")
-    public String detailsReservation(@PathVariable Long id, Model model) {
+    public String detailsReservation(@PathVariable Long id, @CurrentUser UtilisateurPrincipal admin, Model model) {
         try {
             model.addAttribute("reservation", reservationService.getReservationById(id));
-            model.addAttribute("currentUser", utilisateurService.getUtilisateurByUsername(
-                    org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication()
-                            .getName()));
+            model.addAttribute("currentUser", admin);
         } catch (Exception e) {
             log.error("Erreur chargement réservation {} pour admin", id, e);
             return "redirect:/admin/reservations";
@@ -0,0 +1,57 @@
+package com.ifri.bookmyhall.controllers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ifri.bookmyhall.dto.PeriodeOccupationDTO;
+import com.ifri.bookmyhall.services.AnalyticsService;
+import com.ifri.bookmyhall.services.AnalyticsService.Granularite;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/admin/analytics")
+@PreAuthorize("hasAuthority('ADMIN')")
+@RequiredArgsConstructor
+@Slf4j
+/** API JSON des séries d'occupation et de chiffre d'affaires des salles. */
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    /**
+     * Série d'occupation par jour, semaine ou mois ; par défaut les douze
+     * derniers mois, toutes salles confondues.
+     */
+    @GetMapping("/occupation")
+    public ResponseEntity<List<PeriodeOccupationDTO>> occupation(
+            @RequestParam(defaultValue = "MOIS") Granularite granularite,
+            @RequestParam(required = false) Long salleId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate debut,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fin) {
+        LocalDate finSerie = fin != null ? fin : LocalDate.now();
+        LocalDate debutSerie = debut != null ? debut : finSerie.minusYears(1).plusDays(1);
+        try {
+            return ResponseEntity.ok(analyticsService.serie(granularite, salleId, debutSerie, finSerie));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /** Reconstruit les agrégats depuis les réservations ; renvoie le nombre de tranches. */
+    @PostMapping("/reconstruction")
+    public ResponseEntity<Integer> reconstruire() {
+        log.info("Reconstruction des agrégats d'occupation demandée");
+        return ResponseEntity.ok(analyticsService.reconstruire());
+    }
+}
@@ -4,6 +4,7 @@ import java.net.URISyntaxException;
 
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -18,6 +19,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 import com.ifri.bookmyhall.dto.UtilisateurDTO;
+import com.ifri.bookmyhall.services.SalleService;
 import com.ifri.bookmyhall.services.UtilisateurService;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -33,6 +35,13 @@ import lombok.extern.slf4j.Slf4j;
 public class AuthController {
 
     private final UtilisateurService utilisateurService;
+    private final SalleService salleService;
+
+    /** Nombre de salles mises en avant sur la page d'accueil. */
+    private static final int SALLES_POPULAIRES = 3;
+
+    /** Fenêtre de la tendance affichée sur la page d'accueil, en jours. */
+    private static final int FENETRE_TENDANCE = 30;
 
     /** Vérifie si l'utilisateur courant est authentifié. */
     private boolean isAuthenticated() {
@@ -73,9 +82,12 @@ public class AuthController {
 
     /** Gère l'accès à la page d'accueil ou redirige si authentifié. */
     @GetMapping("/")
-    public String home(HttpServletRequest request) {
+    public String home(HttpServletRequest request, Model model) {
         if (isAuthenticated())
             return getBackUrl(request);
+        model.addAttribute("sallesPopulaires", salleService.getSallesPopulaires(SALLES_POPULAIRES, null));
+        model.addAttribute("sallesTendance", salleService.getSallesPopulaires(SALLES_POPULAIRES, FENETRE_TENDANCE));
+        model.addAttribute("fenetreTendance", FENETRE_TENDANCE);
         return "landing";
     }
 
@@ -147,6 +159,13 @@ public class AuthController {
         return "error/404";
     }
 
+    /** Renvoie vers la connexion une session dont le compte a été supprimé ou désactivé. */
+    @ExceptionHandler(AuthenticationException.class)
+    public String handleAuthentication(AuthenticationException ex) {
+        log.warn("Session fermée : {}", ex.getMessage());
+        return "redirect:/login";
+    }
+
     /** Gère les exceptions non interceptées globalement. */
     @ExceptionHandler(Exception.class)
     public String handleGeneralException(Exception ex, HttpServletRequest request) {
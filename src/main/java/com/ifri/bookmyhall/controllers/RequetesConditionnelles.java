@@ -0,0 +1,50 @@
+package com.ifri.bookmyhall.controllers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.ui.Model;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.ifri.bookmyhall.configs.UtilisateurPrincipal;
+import com.ifri.bookmyhall.services.VersionCatalogue;
+import com.ifri.bookmyhall.services.VersionCatalogue.Version;
+
+/**
+ * Validateurs des pages de salles. L'ETag (faible) combine la version du
+ * catalogue, les paramètres de la requête et l'utilisateur connecté, dont
+ * dépend l'en-tête de page ; Last-Modified est la date de la version. Les
+ * pages portant un message flash ne sont jamais validées.
+ */
+final class RequetesConditionnelles {
+
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private RequetesConditionnelles() {
+    }
+
+    /** Vrai si la copie du client est à jour : la réponse 304 est alors prête. */
+    static boolean nonModifiee(ServletWebRequest requete, Model model, VersionCatalogue versions,
+            Version version) {
+        if (model.containsAttribute("successMessage") || model.containsAttribute("errorMessage"))
+            return false;
+
+        StringBuilder cle = new StringBuilder(versions.demarrage()).append(':').append(version.numero());
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof UtilisateurPrincipal principal)
+            cle.append(':').append(principal.getId()).append('.').append(principal.getVersion());
+        for (Map.Entry<String, String[]> parametre : new TreeMap<>(requete.getParameterMap()).entrySet())
+            cle.append('&').append(parametre.getKey()).append('=').append(String.join(",", parametre.getValue()));
+
+        String etag = "W/\"" + DigestUtils.md5DigestAsHex(cle.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+        if (requete.getResponse() != null)
+            requete.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        return requete.checkNotModified(etag, version.modifieLe().toEpochMilli());
+    }
+}
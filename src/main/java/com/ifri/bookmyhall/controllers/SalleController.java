@@ -1,10 +1,14 @@
 package com.ifri.bookmyhall.controllers;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -14,9 +18,15 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import com.ifri.bookmyhall.dto.DisponibiliteDTO;
 import com.ifri.bookmyhall.dto.SalleDTO;
+import com.ifri.bookmyhall.exceptions.ResourceNotFoundException;
+import com.ifri.bookmyhall.services.DisponibiliteService;
 import com.ifri.bookmyhall.services.SalleService;
+import com.ifri.bookmyhall.services.VersionCatalogue;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,27 +39,43 @@ import lombok.extern.slf4j.Slf4j;
 public class SalleController {
 
     private final SalleService salleService;
+    private final DisponibiliteService disponibiliteService;
+    private final VersionCatalogue versionCatalogue;
 
-    /** Affiche la liste des salles avec filtrage et pagination. */
+    /**
+     * Affiche la liste des salles avec filtrage et pagination ; répond 304 si la
+     * copie du client est à jour.
+     */
     @GetMapping
     public String listSalles(
             @RequestParam(required = false) String localisation,
             @RequestParam(required = false) Integer capaciteMin,
             @RequestParam(required = false) BigDecimal prixMax,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDebut,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFin,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime heureDebut,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime heureFin,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "9") int size,
-            Model model) {
+            ServletWebRequest requete, Model model) {
 
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
             return "redirect:/user/salles";
         }
+        if (RequetesConditionnelles.nonModifiee(requete, model, versionCatalogue,
+                dateDebut != null ? versionCatalogue.disponibilites() : versionCatalogue.catalogue()))
+            return null;
 
         try {
             Pageable pageable = PageRequest.of(page, size);
             Page<SalleDTO> sallesPage;
 
-            if (localisation != null || capaciteMin != null || prixMax != null) {
+            if (dateDebut != null) {
+                sallesPage = salleService.searchSallesLibres(localisation, capaciteMin, prixMax,
+                        dateDebut, dateFin, heureDebut, heureFin, null, pageable);
+                model.addAttribute("hasFilters", true);
+            } else if (localisation != null || capaciteMin != null || prixMax != null) {
                 sallesPage = salleService.searchSalles(localisation, capaciteMin, prixMax, pageable);
                 model.addAttribute("hasFilters", true);
             } else {
@@ -64,7 +90,13 @@ public class SalleController {
             model.addAttribute("localisation", localisation);
             model.addAttribute("capaciteMin", capaciteMin);
             model.addAttribute("prixMax", prixMax);
+            model.addAttribute("dateDebut", dateDebut);
+            model.addAttribute("dateFin", dateFin);
+            model.addAttribute("heureDebut", heureDebut);
+            model.addAttribute("heureFin", heureFin);
 
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("errorMessage", e.getMessage());
         } catch (Exception e) {
             log.error("Erreur chargement salles", e);
             model.addAttribute("errorMessage", "Erreur lors du chargement");
@@ -72,13 +104,15 @@ public class SalleController {
         return "salles/list";
     }
 
-    /** Affiche les détails d'une salle spécifique. */
+    /** Affiche les détails d'une salle spécifique, ou 304 s'ils n'ont pas changé. */
     @GetMapping("/{id}")
-    public String detailsSalle(@PathVariable Long id, Model model) {
+    public String detailsSalle(@PathVariable Long id, ServletWebRequest requete, Model model) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
             return "redirect:/user/salles/" + id;
         }
+        if (RequetesConditionnelles.nonModifiee(requete, model, versionCatalogue, versionCatalogue.salle(id)))
+            return null;
         try {
             model.addAttribute("salle", salleService.getSalleById(id));
         } catch (Exception e) {
@@ -89,6 +123,24 @@ public class SalleController {
         return "salles/details";
     }
 
+    /** Retourne le calendrier des créneaux libres/occupés d'une salle (un mois par défaut). */
+    @GetMapping("/{id}/availability")
+    @ResponseBody
+    public ResponseEntity<DisponibiliteDTO> disponibilites(@PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate debut = from != null ? from : LocalDate.now();
+        LocalDate fin = to != null ? to : debut.plusMonths(1).minusDays(1);
+        try {
+            return ResponseEntity.ok(disponibiliteService.getDisponibilites(id, debut, fin));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            log.warn("Période de disponibilité invalide pour la salle {} : {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /** Redirige vers le formulaire de réservation pour une salle. */
     @GetMapping("/{id}/reserver")
     public String reserverSalle(@PathVariable Long id) {
@@ -2,12 +2,16 @@ package com.ifri.bookmyhall.controllers;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -17,15 +21,26 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.ifri.bookmyhall.configs.CurrentUser;
+import com.ifri.bookmyhall.configs.UtilisateurPrincipal;
+import com.ifri.bookmyhall.dto.CreneauRetenuDTO;
+import com.ifri.bookmyhall.dto.PageCurseur;
 import com.ifri.bookmyhall.dto.ReservationDTO;
+import com.ifri.bookmyhall.dto.ReservationSerieDTO;
+import com.ifri.bookmyhall.dto.ResumeUtilisateurDTO;
+import com.ifri.bookmyhall.dto.ResultatSerieDTO;
 import com.ifri.bookmyhall.dto.SalleDTO;
-import com.ifri.bookmyhall.dto.UtilisateurDTO;
+import com.ifri.bookmyhall.exceptions.ResourceNotFoundException;
 import com.ifri.bookmyhall.models.Reservation.StatutReservation;
+import com.ifri.bookmyhall.services.IdempotencyStore;
 import com.ifri.bookmyhall.services.ReservationService;
 import com.ifri.bookmyhall.services.SalleService;
-import com.ifri.bookmyhall.services.UtilisateurService;
+import com.ifri.bookmyhall.services.SlotHoldService;
+import com.ifri.bookmyhall.services.VersionCatalogue;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -38,39 +53,28 @@ import lombok.extern.slf4j.Slf4j;
 /** Controller pour l'espace utilisateur (dashboard, profil). */
 public class UserController {
 
-    private final UtilisateurService utilisateurService;
     private final ReservationService reservationService;
     private final SalleService salleService;
-
-    /** Récupère le nom d'utilisateur de la session courante. */
-    private String getCurrentUsername() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        return auth.getName();
-    }
+    private final IdempotencyStore idempotencyStore;
+    private final VersionCatalogue versionCatalogue;
 
     /**
-     * Affiche le tableau de bord de l'utilisateur avec ses réservations récentes.
+     * Affiche le tableau de bord de l'utilisateur : nombres par statut, prochaine
+     * réservation et réservations récentes, servis par le résumé en cache.
      */
     @GetMapping("/dashboard")
-    public String dashboard(Model model) {
-        String username = getCurrentUsername();
+    public String dashboard(@CurrentUser UtilisateurPrincipal utilisateur, Model model) {
+        String username = utilisateur.getUsername();
         try {
-            UtilisateurDTO user = utilisateurService.getUtilisateurByUsername(username);
-            model.addAttribute("user", user);
-
-            Page<ReservationDTO> reservationsPage = reservationService.getReservationsByUtilisateur(user.getId(),
-                    PageRequest.of(0, 5));
-            model.addAttribute("reservations", reservationsPage.getContent());
-
-            Page<ReservationDTO> reservationsFuturesPage = reservationService
-                    .getFutureReservationsByUtilisateur(user.getId(), PageRequest.of(0, 5));
-            model.addAttribute("reservationsFutures", reservationsFuturesPage.getContent());
-
-            model.addAttribute("totalReservations", reservationsPage.getTotalElements());
-            model.addAttribute("reservationsEnCours", reservationsPage.getContent().stream()
-                    .filter(r -> r.getStatut() != null && r.getStatut() != StatutReservation.CANCELLED
-                            && r.getStatut() != StatutReservation.COMPLETED)
-                    .count());
+            ResumeUtilisateurDTO resume = reservationService.getResumeUtilisateur(utilisateur.getId());
+            model.addAttribute("prenom", utilisateur.getPrenom());
+            model.addAttribute("nom", utilisateur.getNom());
+            model.addAttribute("username", username);
+            model.addAttribute("prochaineReservation", resume.prochaine());
+            model.addAttribute("reservationsRecentes", resume.recentes());
+            model.addAttribute("reservationsParStatut", resume.parStatut());
+            model.addAttribute("totalReservations", resume.total());
+            model.addAttribute("reservationsEnCours", resume.enCours());
 
         } catch (Exception e) {
             log.error("Erreur dashboard utilisateur {}", username, e);
@@ -81,13 +85,8 @@ public class UserController {
 
     /** Affiche le profil de l'utilisateur. */
     @GetMapping("/profile")
-    public String profile(Model model) {
-        String username = getCurrentUsername();
-        try {
-            model.addAttribute("user", utilisateurService.getUtilisateurByUsername(username));
-        } catch (Exception e) {
-            log.error("Erreur profil utilisateur {}", username, e);
-        }
+    public String profile(@CurrentUser UtilisateurPrincipal utilisateur, Model model) {
+        model.addAttribute("user", utilisateur);
         return "user/profile";
     }
 
@@ -99,18 +98,24 @@ public class UserController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String statut,
-            Model model) {
-        String username = getCurrentUsername();
+            @RequestParam(required = false) String apres,
+            @CurrentUser UtilisateurPrincipal user, Model model) {
+        String username = user.getUsername();
         try {
-            UtilisateurDTO user = utilisateurService.getUtilisateurByUsername(username);
-            Page<ReservationDTO> resPage = reservationService.getReservationsByUtilisateur(user.getId(), statut,
-                    PageRequest.of(page, size));
-
             model.addAttribute("user", user);
-            model.addAttribute("reservations", resPage.getContent());
-            model.addAttribute("reservationsPage", resPage);
-            model.addAttribute("currentPage", page);
-            model.addAttribute("totalPages", resPage.getTotalPages());
+            if (apres != null) {
+                PageCurseur<ReservationDTO> resCurseur = reservationService.getReservationsByUtilisateurApres(
+                        user.getId(), statut, apres, size);
+                model.addAttribute("reservations", resCurseur.contenu());
+                model.addAttribute("pageCurseur", resCurseur);
+            } else {
+                Page<ReservationDTO> resPage = reservationService.getReservationsByUtilisateur(user.getId(), statut,
+                        PageRequest.of(page, size));
+                model.addAttribute("reservations", resPage.getContent());
+                model.addAttribute("reservationsPage", resPage);
+                model.addAttribute("currentPage", page);
+                model.addAttribute("totalPages", resPage.getTotalPages());
+            }
             model.addAttribute("filtreStatut", statut != null ? statut : "all");
 
             if (statut != null && !statut.isEmpty()) {
@@ -127,22 +132,35 @@ public class UserController {
     }
 
     /**
-     * Liste les salles pour l'utilisateur connecté.
+     * Liste les salles pour l'utilisateur connecté ; répond 304 si la copie du
+     * client est à jour.
      */
     @GetMapping("/salles")
     public String listSalles(
             @RequestParam(required = false) String localisation,
             @RequestParam(required = false) Integer capaciteMin,
             @RequestParam(required = false) BigDecimal prixMax,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDebut,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFin,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime heureDebut,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime heureFin,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "9") int size,
-            Model model) {
+            ServletWebRequest requete, @CurrentUser UtilisateurPrincipal user, Model model) {
+
+        if (RequetesConditionnelles.nonModifiee(requete, model, versionCatalogue,
+                dateDebut != null ? versionCatalogue.disponibilites() : versionCatalogue.catalogue()))
+            return null;
 
         try {
             Pageable pageable = PageRequest.of(page, size);
             Page<SalleDTO> sallesPage;
 
-            if (localisation != null || capaciteMin != null || prixMax != null) {
+            if (dateDebut != null) {
+                sallesPage = salleService.searchSallesLibres(localisation, capaciteMin, prixMax,
+                        dateDebut, dateFin, heureDebut, heureFin, user.getUsername(), pageable);
+                model.addAttribute("hasFilters", true);
+            } else if (localisation != null || capaciteMin != null || prixMax != null) {
                 sallesPage = salleService.searchSalles(localisation, capaciteMin, prixMax, pageable);
                 model.addAttribute("hasFilters", true);
             } else {
@@ -157,7 +175,13 @@ public class UserController {
             model.addAttribute("localisation", localisation);
             model.addAttribute("capaciteMin", capaciteMin);
             model.addAttribute("prixMax", prixMax);
+            model.addAttribute("dateDebut", dateDebut);
+            model.addAttribute("dateFin", dateFin);
+            model.addAttribute("heureDebut", heureDebut);
+            model.addAttribute("heureFin", heureFin);
 
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("errorMessage", e.getMessage());
         } catch (Exception e) {
             log.error("Erreur chargement salles pour utilisateur", e);
             model.addAttribute("errorMessage", "Erreur lors du chargement");
@@ -166,10 +190,13 @@ public class UserController {
     }
 
     /**
-     * Affiche les détails d'une salle pour l'utilisateur connecté.
+     * Affiche les détails d'une salle pour l'utilisateur connecté, ou 304 s'ils
+     * n'ont pas changé.
      */
     @GetMapping("/salles/{id}")
-    public String detailsSalle(@PathVariable Long id, Model model) {
+    public String detailsSalle(@PathVariable Long id, ServletWebRequest requete, Model model) {
+        if (RequetesConditionnelles.nonModifiee(requete, model, versionCatalogue, versionCatalogue.salle(id)))
+            return null;
         try {
             model.addAttribute("salle", salleService.getSalleById(id));
         } catch (Exception e) {
@@ -182,7 +209,8 @@ public class UserController {
 
     /** Affiche le formulaire de nouvelle réservation pour l'utilisateur. */
     @GetMapping("/reservations/new")
-    public String showReservationForm(@RequestParam Long salleId, Model model) {
+    public String showReservationForm(@RequestParam Long salleId, @CurrentUser UtilisateurPrincipal user,
+            Model model) {
         try {
             SalleDTO salle = salleService.getSalleById(salleId);
             if (!salle.getDisponible()) {
@@ -190,12 +218,12 @@ public class UserController {
                 return "redirect:/user/salles/" + salleId;
             }
 
-            UtilisateurDTO user = utilisateurService.getUtilisateurByUsername(getCurrentUsername());
             model.addAttribute("reservationDTO", ReservationDTO.builder()
                     .salleId(salleId).utilisateurId(user.getId())
                     .dateDebut(LocalDate.now().plusDays(1)).build());
             model.addAttribute("salle", salle);
             model.addAttribute("user", user);
+            model.addAttribute("idempotencyKey", UUID.randomUUID().toString());
 
         } catch (Exception e) {
             log.error("Erreur chargement formulaire réservation pour utilisateur", e);
@@ -204,15 +232,70 @@ public class UserController {
         return "user/reservation-form";
     }
 
+    /** Retient le créneau saisi dans le formulaire le temps de finaliser la réservation. */
+    @PostMapping("/reservations/hold")
+    @ResponseBody
+    public ResponseEntity<CreneauRetenuDTO> retenirCreneau(@CurrentUser UtilisateurPrincipal utilisateur,
+            @RequestParam Long salleId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDebut,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFin,
+            @RequestParam @DateTimeFormat(pattern = "HH:mm") LocalTime heureDebut,
+            @RequestParam @DateTimeFormat(pattern = "HH:mm") LocalTime heureFin) {
+        try {
+            SlotHoldService.Retenue retenue = reservationService.retenirCreneau(utilisateur.getUsername(), salleId,
+                    dateDebut, dateFin, heureDebut, heureFin);
+            return ResponseEntity.ok(new CreneauRetenuDTO(salleId, dateDebut, dateFin, heureDebut, heureFin,
+                    retenue.expireA()));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /** Traite la soumission d'une série de réservations (récurrence hebdomadaire ou liste de dates). */
+    @PostMapping("/reservations/serie")
+    public String createReservationsSerie(@Valid @ModelAttribute ReservationSerieDTO serie,
+            BindingResult result, @CurrentUser UtilisateurPrincipal user, RedirectAttributes redirectAttributes) {
+
+        if (result.hasErrors()) {
+            redirectAttributes.addFlashAttribute("errorMessage", result.getAllErrors().get(0).getDefaultMessage());
+            return "redirect:/user/reservations/new?salleId=" + serie.getSalleId();
+        }
+
+        try {
+            serie.setUtilisateurId(user.getId());
+            ResultatSerieDTO resultat = reservationService.createReservationsSerie(serie);
+            if (!resultat.getCreees().isEmpty())
+                redirectAttributes.addFlashAttribute("successMessage",
+                        resultat.getCreees().size() + " réservation(s) créée(s) avec succès !");
+            if (!resultat.isComplet())
+                redirectAttributes.addFlashAttribute("errorMessage", "Occurrence(s) refusée(s) : "
+                        + resultat.getRefusees().entrySet().stream()
+                                .map(e -> e.getKey() + " (" + e.getValue() + ")")
+                                .collect(Collectors.joining(", ")));
+            if (resultat.getCreees().isEmpty())
+                return "redirect:/user/reservations/new?salleId=" + serie.getSalleId();
+            return "redirect:/user/reservations";
+        } catch (Exception e) {
+            log.error("Erreur création série de réservations utilisateur", e);
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+            return "redirect:/user/reservations/new?salleId=" + serie.getSalleId();
+        }
+    }
+
     /** Traite la soumission d'une nouvelle réservation par l'utilisateur. */
     @PostMapping("/reservations/create")
     public String createReservation(@Valid @ModelAttribute("reservationDTO") ReservationDTO dto,
-            BindingResult result, Model model, RedirectAttributes redirectAttributes) {
+            BindingResult result, @RequestParam(required = false) String idempotencyKey,
+            @CurrentUser UtilisateurPrincipal user, Model model, RedirectAttributes redirectAttributes) {
 
         if (result.hasErrors()) {
             try {
                 model.addAttribute("salle", salleService.getSalleById(dto.getSalleId()));
-                model.addAttribute("user", utilisateurService.getUtilisateurByUsername(getCurrentUsername()));
+                model.addAttribute("user", user);
             } catch (Exception e) {
             }
             return "user/reservation-form";
@@ -222,23 +305,25 @@ public class UserController {
             model.addAttribute("errorMessage", "Plage horaire invalide");
             try {
                 model.addAttribute("salle", salleService.getSalleById(dto.getSalleId()));
-                model.addAttribute("user", utilisateurService.getUtilisateurByUsername(getCurrentUsername()));
+                model.addAttribute("user", user);
             } catch (Exception e) {
             }
             return "user/reservation-form";
         }
 
         try {
-            ReservationDTO created = reservationService.createReservation(dto);
-            log.info("Réservation utilisateur créée : {}", created.getId());
+            dto.setUtilisateurId(user.getId());
+            Long reservationId = idempotencyStore.executer(user.getUsername(), idempotencyKey,
+                    () -> reservationService.createReservation(dto).getId());
+            log.info("Réservation utilisateur créée : {}", reservationId);
             redirectAttributes.addFlashAttribute("successMessage", "Réservation créée avec succès !");
-            return "redirect:/user/reservations/" + created.getId();
+            return "redirect:/user/reservations/" + reservationId;
         } catch (Exception e) {
             log.error("Erreur création réservation utilisateur", e);
             model.addAttribute("errorMessage", e.getMessage());
             try {
                 model.addAttribute("salle", salleService.getSalleById(dto.getSalleId()));
-                model.addAttribute("user", utilisateurService.getUtilisateurByUsername(getCurrentUsername()));
+                model.addAttribute("user", user);
             } catch (Exception ex) {
             }
             return "user/reservation-form";
@@ -247,11 +332,10 @@ public class UserController {
 
     /** Affiche les détails d'une réservation pour l'utilisateur. */
     @GetMapping("/reservations/{id}")
-    public String detailsReservation(@PathVariable Long id, Model model) {
-        String username = getCurrentUsername();
+    public String detailsReservation(@PathVariable Long id, @CurrentUser UtilisateurPrincipal user, Model model) {
+        String username = user.getUsername();
         try {
             ReservationDTO res = reservationService.getReservationById(id);
-            UtilisateurDTO user = utilisateurService.getUtilisateurByUsername(username);
 
             if (!res.getUtilisateurId().equals(user.getId())) {
                 log.warn("Tentative d'accès non autorisé à la réservation {} par {}", id, username);
@@ -268,11 +352,11 @@ public class UserController {
 
     /** Permet à l'utilisateur d'annuler une de ses réservations. */
     @PostMapping("/reservations/{id}/annuler")
-    public String annulerReservation(@PathVariable Long id, RedirectAttributes redirectAttributes) {
-        String username = getCurrentUsername();
+    public String annulerReservation(@PathVariable Long id, @CurrentUser UtilisateurPrincipal user,
+            RedirectAttributes redirectAttributes) {
+        String username = user.getUsername();
         try {
             ReservationDTO res = reservationService.getReservationById(id);
-            UtilisateurDTO user = utilisateurService.getUtilisateurByUsername(username);
 
             if (!res.getUtilisateurId().equals(user.getId())) {
                 redirectAttributes.addFlashAttribute("errorMessage", "Action non autorisée");
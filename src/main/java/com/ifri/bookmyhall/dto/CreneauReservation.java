@@ -0,0 +1,25 @@
+package com.ifri.bookmyhall.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/** Créneau occupé par une réservation active (projection légère, sans entité). */
+public record CreneauReservation(
+        Long id,
+        Long salleId,
+        LocalDate dateDebut,
+        LocalDate dateFin,
+        LocalTime heureDebut,
+        LocalTime heureFin) {
+
+    /** Retourne la date de fin effective (date de début pour une réservation d'un jour). */
+    public LocalDate dateFinEffective() {
+        return dateFin != null ? dateFin : dateDebut;
+    }
+
+    /** Vérifie le chevauchement avec un créneau (mêmes règles que la requête SQL). */
+    public boolean chevauche(LocalDate debut, LocalDate fin, LocalTime hDebut, LocalTime hFin) {
+        return !dateDebut.isAfter(fin) && !dateFinEffective().isBefore(debut)
+                && heureDebut.isBefore(hFin) && heureFin.isAfter(hDebut);
+    }
+}
@@ -0,0 +1,15 @@
+package com.ifri.bookmyhall.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/** Créneau retenu pendant la saisie d'une réservation, jusqu'à {@code expireA}. */
+public record CreneauRetenuDTO(
+        Long salleId,
+        LocalDate dateDebut,
+        LocalDate dateFin,
+        LocalTime heureDebut,
+        LocalTime heureFin,
+        LocalDateTime expireA) {
+}
@@ -0,0 +1,22 @@
+package com.ifri.bookmyhall.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Calendrier de disponibilité d'une salle. Chaque jour est découpé en
+ * créneaux de {@code minutesParCreneau} minutes ; {@code occupation} est le
+ * bitset des créneaux occupés en hexadécimal (bit 0 = premier créneau du jour,
+ * quatre créneaux par caractère).
+ */
+public record DisponibiliteDTO(
+        Long salleId,
+        LocalDate debut,
+        LocalDate fin,
+        int minutesParCreneau,
+        List<Jour> jours) {
+
+    /** Occupation d'une journée. */
+    public record Jour(LocalDate date, String occupation, int creneauxLibres) {
+    }
+}
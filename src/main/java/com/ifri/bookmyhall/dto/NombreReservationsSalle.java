@@ -0,0 +1,5 @@
+package com.ifri.bookmyhall.dto;
+
+/** Nombre de réservations d'une salle (comptage groupé, sans charger les réservations). */
+public record NombreReservationsSalle(Long salleId, long nombre) {
+}
@@ -0,0 +1,7 @@
+package com.ifri.bookmyhall.dto;
+
+import java.time.LocalDate;
+
+/** Nombre de réservations d'une salle créées un jour donné (comptage groupé). */
+public record NombreReservationsSalleJour(Long salleId, LocalDate jour, long nombre) {
+}
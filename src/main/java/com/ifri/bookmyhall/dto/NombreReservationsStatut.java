@@ -0,0 +1,7 @@
+package com.ifri.bookmyhall.dto;
+
+import com.ifri.bookmyhall.models.Reservation.StatutReservation;
+
+/** Nombre de réservations d'un statut (comptage groupé). */
+public record NombreReservationsStatut(StatutReservation statut, long nombre) {
+}
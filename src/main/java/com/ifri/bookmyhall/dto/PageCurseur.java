@@ -0,0 +1,45 @@
+package com.ifri.bookmyhall.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page d'une liste parcourue par curseur (pagination par clé) : {@code suivant}
+ * est le curseur opaque de la page suivante, {@code null} sur la dernière page.
+ */
+public record PageCurseur<T>(List<T> contenu, String suivant) {
+
+    public static final int TAILLE_MAX = 100;
+
+    /** Borne la taille de page demandée entre 1 et {@link #TAILLE_MAX}. */
+    public static int taille(int demandee) {
+        return Math.clamp(demandee, 1, TAILLE_MAX);
+    }
+
+    /** Décode un curseur d'identifiant ; absent, il désigne le début de la liste. */
+    public static long idApres(String curseur) {
+        if (curseur == null || curseur.isBlank())
+            return Long.MAX_VALUE;
+        try {
+            return Long.parseLong(curseur);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Curseur invalide : " + curseur);
+        }
+    }
+
+    /**
+     * Construit une page à partir de {@code taille + 1} lignes lues : la ligne en
+     * trop indique qu'une page suivante existe et n'est pas retournée.
+     */
+    public static <T> PageCurseur<T> de(List<T> lignes, int taille, Function<T, String> curseur) {
+        if (lignes.size() <= taille)
+            return new PageCurseur<>(lignes, null);
+        List<T> contenu = lignes.subList(0, taille);
+        return new PageCurseur<>(contenu, curseur.apply(contenu.get(taille - 1)));
+    }
+
+    /** Indique s'il existe une page suivante. */
+    public boolean hasSuivant() {
+        return suivant != null;
+    }
+}
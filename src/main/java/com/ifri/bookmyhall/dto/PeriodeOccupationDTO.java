@@ -0,0 +1,13 @@
+package com.ifri.bookmyhall.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Point d'une série d'occupation : période commençant à {@code debut}, minutes
+ * réservées, réservations commencées, revenu et taux d'occupation (0 à 1) sur
+ * les heures d'ouverture.
+ */
+public record PeriodeOccupationDTO(LocalDate debut, long minutesReservees, long reservations, BigDecimal revenu,
+        double tauxOccupation) {
+}
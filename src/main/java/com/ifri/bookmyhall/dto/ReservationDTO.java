@@ -25,6 +25,9 @@ import lombok.NoArgsConstructor;
 /** DTO pour le transfert des données des réservations. */
 public class ReservationDTO {
 
+    /** Nombre maximal de jours couverts par une réservation (ou une retenue de créneau). */
+    public static final int DUREE_MAX_JOURS = 31;
+
     private Long id;
 
     @NotNull(message = "La date de début est obligatoire")
@@ -70,6 +73,8 @@ public class ReservationDTO {
 
     private Integer salleCapacite;
 
+    private Long version;
+
     /** Vérifie la validité du créneau horaire. */
     public boolean hasValidTimeRange() {
         return heureDebut != null && heureFin != null && heureFin.isAfter(heureDebut);
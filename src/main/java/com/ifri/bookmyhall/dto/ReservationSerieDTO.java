@@ -0,0 +1,95 @@
+package com.ifri.bookmyhall.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+/**
+ * DTO pour la création d'une série de réservations d'une journée sur le même
+ * créneau horaire : soit une récurrence (première date, intervalle, nombre
+ * d'occurrences), soit une liste explicite de dates.
+ */
+public class ReservationSerieDTO {
+
+    /** Nombre maximal d'occurrences acceptées dans une série. */
+    public static final int OCCURRENCES_MAX = 104;
+
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    private LocalDate dateDebut;
+
+    @Min(value = 1, message = "Au moins une occurrence")
+    @Max(value = OCCURRENCES_MAX, message = "Trop d'occurrences")
+    @Builder.Default
+    private Integer occurrences = 1;
+
+    @Min(value = 1, message = "L'intervalle doit être d'au moins un jour")
+    @Builder.Default
+    private Integer intervalleJours = 7;
+
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    @Size(max = OCCURRENCES_MAX, message = "Trop d'occurrences")
+    @Builder.Default
+    private List<LocalDate> dates = new ArrayList<>();
+
+    @NotNull(message = "L'heure de début est obligatoire")
+    @DateTimeFormat(pattern = "HH:mm")
+    private LocalTime heureDebut;
+
+    @NotNull(message = "L'heure de fin est obligatoire")
+    @DateTimeFormat(pattern = "HH:mm")
+    private LocalTime heureFin;
+
+    @NotBlank(message = "Le type d'événement est obligatoire")
+    @Size(max = 100, message = "Le type d'événement ne peut pas dépasser 100 caractères")
+    private String typeEvenement;
+
+    @Size(max = 500, message = "La description ne peut pas dépasser 500 caractères")
+    private String description;
+
+    @NotNull(message = "Le nombre de personnes est obligatoire")
+    @Min(value = 1, message = "Le nombre de personnes doit être au moins 1")
+    private Integer nombrePersonnes;
+
+    @NotNull(message = "L'utilisateur est obligatoire")
+    private Long utilisateurId;
+
+    @NotNull(message = "La salle est obligatoire")
+    private Long salleId;
+
+    /** Calcule les dates de la série, triées et sans doublon. */
+    public List<LocalDate> getDatesOccurrences() {
+        TreeSet<LocalDate> resultat = new TreeSet<>();
+        if (dates != null && !dates.isEmpty()) {
+            dates.stream().filter(d -> d != null).forEach(resultat::add);
+        } else if (dateDebut != null) {
+            int pas = intervalleJours != null ? intervalleJours : 7;
+            int total = occurrences != null ? occurrences : 1;
+            for (int i = 0; i < total; i++)
+                resultat.add(dateDebut.plusDays((long) i * pas));
+        }
+        return new ArrayList<>(resultat);
+    }
+
+    /** Vérifie la validité du créneau horaire. */
+    public boolean hasValidTimeRange() {
+        return heureDebut != null && heureFin != null && heureFin.isAfter(heureDebut);
+    }
+}
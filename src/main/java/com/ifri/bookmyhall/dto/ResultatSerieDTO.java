@@ -0,0 +1,31 @@
+package com.ifri.bookmyhall.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+/** Résultat de la création d'une série : occurrences créées et occurrences refusées avec leur motif. */
+public class ResultatSerieDTO {
+
+    @Builder.Default
+    private List<ReservationDTO> creees = new ArrayList<>();
+
+    @Builder.Default
+    private Map<LocalDate, String> refusees = new TreeMap<>();
+
+    /** Indique si toutes les occurrences ont été créées. */
+    public boolean isComplet() {
+        return refusees.isEmpty();
+    }
+}
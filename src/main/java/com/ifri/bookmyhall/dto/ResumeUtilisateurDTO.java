@@ -0,0 +1,30 @@
+package com.ifri.bookmyhall.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import com.ifri.bookmyhall.models.Reservation.StatutReservation;
+
+/**
+ * Résumé des réservations d'un utilisateur pour son tableau de bord : nombre
+ * par statut, prochaine réservation à venir (null si aucune) et réservations
+ * les plus récentes.
+ */
+public record ResumeUtilisateurDTO(
+        Long utilisateurId,
+        String prenom,
+        String nom,
+        Map<StatutReservation, Long> parStatut,
+        ReservationDTO prochaine,
+        List<ReservationDTO> recentes) {
+
+    /** Nombre total de réservations. */
+    public long total() {
+        return parStatut.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /** Réservations ni annulées ni terminées. */
+    public long enCours() {
+        return parStatut.get(StatutReservation.PENDING) + parStatut.get(StatutReservation.CONFIRMED);
+    }
+}
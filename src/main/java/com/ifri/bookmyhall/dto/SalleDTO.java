@@ -16,7 +16,7 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 /** DTO pour le transfert des données des salles. */
 public class SalleDTO {
 
@@ -51,6 +51,13 @@ public class SalleDTO {
 
     private Long nombreReservations;
 
+    private Long version;
+
+    /** Copie indépendante du DTO (champs immuables partagés). */
+    public SalleDTO copie() {
+        return toBuilder().build();
+    }
+
     /** Vérifie si la salle est réservable. */
     public boolean isReservable() {
         return disponible != null && disponible;
@@ -0,0 +1,16 @@
+package com.ifri.bookmyhall.dto;
+
+import java.util.Map;
+
+import com.ifri.bookmyhall.models.Reservation.StatutReservation;
+import com.ifri.bookmyhall.models.Role;
+
+/** Instantané des statistiques globales du tableau de bord d'administration. */
+public record StatistiquesDTO(
+        long utilisateurs,
+        Map<Role, Long> utilisateursParRole,
+        long salles,
+        long sallesDisponibles,
+        long reservations,
+        Map<StatutReservation, Long> reservationsParStatut) {
+}
@@ -46,6 +46,13 @@ public class UtilisateurDTO {
     private Boolean actif;
     private String nomComplet;
 
+    /** Construit le DTO d'une liste directement depuis une requête (sans mot de passe). */
+    public UtilisateurDTO(Long id, String nom, String prenom, String email, String username, String telephone,
+            Role role, Boolean actif) {
+        this(id, nom, prenom, email, username, null, null, telephone, role, actif, null);
+        this.nomComplet = generateNomComplet();
+    }
+
     /** Vérifie si le mot de passe et sa confirmation correspondent. */
     public boolean passwordsMatch() {
         return password != null && password.equals(confirmPassword);
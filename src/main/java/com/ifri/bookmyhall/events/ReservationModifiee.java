@@ -0,0 +1,67 @@
+package com.ifri.bookmyhall.events;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Objects;
+
+import com.ifri.bookmyhall.models.Reservation;
+import com.ifri.bookmyhall.models.Reservation.StatutReservation;
+
+/**
+ * Publié par le service des réservations à chaque écriture, avec l'état avant
+ * et après : {@code null} avant une création, après une suppression.
+ * {@code creeLe} est la date de création de la réservation.
+ */
+public record ReservationModifiee(Long reservationId, Long utilisateurId, Long salleId,
+        StatutReservation statutAvant, StatutReservation statutApres,
+        Creneau creneauAvant, Creneau creneauApres, LocalDateTime creeLe) {
+
+    /** Créneau et montant d'une réservation à un instant donné. */
+    public record Creneau(Long salleId, LocalDate dateDebut, LocalDate dateFin, LocalTime heureDebut,
+            LocalTime heureFin, BigDecimal montant) {
+
+        public static Creneau de(Reservation res) {
+            return new Creneau(res.getSalle().getId(), res.getDateDebut(),
+                    res.getDateFin() != null ? res.getDateFin() : res.getDateDebut(),
+                    res.getHeureDebut(), res.getHeureFin(), res.getMontantTotal());
+        }
+    }
+
+    /** Indique si l'écriture crée, supprime ou déplace la réservation (salle, dates ou heures). */
+    public boolean creneauModifie() {
+        return !Objects.equals(creneauAvant, creneauApres);
+    }
+
+    /** Salle de la réservation avant l'écriture (celle d'après pour une création). */
+    public Long salleAvant() {
+        return creneauAvant != null ? creneauAvant.salleId() : salleId;
+    }
+
+    public static ReservationModifiee creation(Reservation res) {
+        return new ReservationModifiee(res.getId(), res.getUtilisateur().getId(), res.getSalle().getId(),
+                null, res.getStatut(), null, Creneau.de(res), creeLe(res));
+    }
+
+    public static ReservationModifiee modification(Reservation res, StatutReservation statutAvant,
+            Creneau creneauAvant) {
+        return new ReservationModifiee(res.getId(), res.getUtilisateur().getId(), res.getSalle().getId(),
+                statutAvant, res.getStatut(), creneauAvant, Creneau.de(res), creeLe(res));
+    }
+
+    /** Changement de statut seul, créneau inchangé. */
+    public static ReservationModifiee transition(Reservation res, StatutReservation statutAvant) {
+        return modification(res, statutAvant, Creneau.de(res));
+    }
+
+    public static ReservationModifiee suppression(Reservation res) {
+        return new ReservationModifiee(res.getId(), res.getUtilisateur().getId(), res.getSalle().getId(),
+                res.getStatut(), null, Creneau.de(res), null, creeLe(res));
+    }
+
+    /** Date de création, renseignée au plus tard à l'écriture en base. */
+    private static LocalDateTime creeLe(Reservation res) {
+        return res.getCreatedAt() != null ? res.getCreatedAt() : LocalDateTime.now();
+    }
+}
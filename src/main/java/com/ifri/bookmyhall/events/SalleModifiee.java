@@ -0,0 +1,8 @@
+package com.ifri.bookmyhall.events;
+
+/**
+ * Publié par le service des salles à chaque écriture. La disponibilité avant
+ * est {@code null} pour une création, celle d'après pour une suppression.
+ */
+public record SalleModifiee(Long salleId, Boolean disponibleAvant, Boolean disponibleApres) {
+}
@@ -0,0 +1,10 @@
+package com.ifri.bookmyhall.events;
+
+import com.ifri.bookmyhall.models.Role;
+
+/**
+ * Publié par le service des utilisateurs à chaque écriture. Le rôle avant est
+ * {@code null} pour une création, le rôle après pour une suppression.
+ */
+public record UtilisateurModifie(Long utilisateurId, Role roleAvant, Role roleApres) {
+}
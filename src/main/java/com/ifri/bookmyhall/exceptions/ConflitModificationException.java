@@ -0,0 +1,13 @@
+package com.ifri.bookmyhall.exceptions;
+
+/** Modification refusée car l'élément a été modifié entre-temps (verrouillage optimiste). */
+public class ConflitModificationException extends RuntimeException {
+
+    public ConflitModificationException(String message) {
+        super(message);
+    }
+
+    public ConflitModificationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
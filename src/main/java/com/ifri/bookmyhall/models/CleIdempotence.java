@@ -0,0 +1,32 @@
+package com.ifri.bookmyhall.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+/** Clé d'idempotence d'une soumission de réservation, partagée entre les nœuds. */
+public class CleIdempotence {
+
+    @Id
+    @Column(length = 200)
+    private String cle;
+
+    /** Réservation créée ; null tant que la requête d'origine est en cours. */
+    private Long reservationId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
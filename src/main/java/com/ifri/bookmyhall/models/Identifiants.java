@@ -0,0 +1,15 @@
+package com.ifri.bookmyhall.models;
+
+/**
+ * Allocation des identifiants par blocs (séquences salle_seq, reservation_seq,
+ * utilisateur_seq, db/sequences.sql). Taille utilisée à la création des
+ * séquences ; ensuite l'incrément en base fait foi
+ * (increment_size_mismatch_strategy=FIX).
+ */
+final class Identifiants {
+
+    static final int TAILLE_BLOC = 50;
+
+    private Identifiants() {
+    }
+}
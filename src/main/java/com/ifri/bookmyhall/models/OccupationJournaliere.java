@@ -0,0 +1,56 @@
+package com.ifri.bookmyhall.models;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "occupations_journalieres", indexes = @Index(name = "idx_occupations_jour", columnList = "jour"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+/**
+ * Agrégat journalier d'une salle (réservations confirmées ou terminées) : base
+ * des séries d'occupation et de chiffre d'affaires par jour, semaine ou mois.
+ */
+public class OccupationJournaliere {
+
+    @EmbeddedId
+    private Cle id;
+
+    /** Minutes réservées ce jour-là. */
+    @Column(nullable = false)
+    private Long minutesReservees;
+
+    /** Réservations commençant ce jour-là. */
+    @Column(nullable = false)
+    private Integer reservations;
+
+    /** Part du montant des réservations imputée à ce jour. */
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenu;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cle implements Serializable {
+
+        @Column(name = "salle_id")
+        private Long salleId;
+
+        private LocalDate jour;
+    }
+}
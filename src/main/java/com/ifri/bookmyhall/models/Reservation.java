@@ -14,12 +14,16 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -33,7 +37,8 @@ import lombok.NoArgsConstructor;
 import lombok.ToString;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = @Index(name = "idx_reservations_utilisateur_date",
+        columnList = "utilisateur_id, date_debut DESC, heure_debut DESC, id DESC"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -42,7 +47,9 @@ import lombok.ToString;
 public class Reservation {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_seq")
+    @SequenceGenerator(name = "reservation_seq", sequenceName = "reservation_seq",
+            allocationSize = Identifiants.TAILLE_BLOC)
     private Long id;
 
     @NotNull(message = "La date de début est obligatoire")
@@ -102,6 +109,10 @@ public class Reservation {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    /** Version pour le verrouillage optimiste (modifications concurrentes). */
+    @Version
+    private Long version;
+
     /** Énumération des statuts possibles d'une réservation. */
     public enum StatutReservation {
         PENDING("En attente"),
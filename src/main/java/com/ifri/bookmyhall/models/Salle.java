@@ -5,17 +5,23 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -31,6 +37,8 @@ import lombok.ToString;
 
 @Entity
 @Table(name = "salles")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "salles")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -39,7 +47,9 @@ import lombok.ToString;
 public class Salle {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "salle_seq")
+    @SequenceGenerator(name = "salle_seq", sequenceName = "salle_seq",
+            allocationSize = Identifiants.TAILLE_BLOC)
     private Long id;
 
     @NotBlank(message = "Le nom de la salle est obligatoire")
@@ -84,6 +94,10 @@ public class Salle {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    /** Version pour le verrouillage optimiste (modifications concurrentes). */
+    @Version
+    private Long version;
+
     @OneToMany(mappedBy = "salle", cascade = { CascadeType.PERSIST, CascadeType.MERGE }, fetch = FetchType.LAZY)
     @Builder.Default
     @ToString.Exclude
@@ -4,9 +4,12 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -14,8 +17,10 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -30,6 +35,8 @@ import lombok.ToString;
 
 @Entity
 @Table(name = "utilisateurs")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "utilisateurs")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -38,7 +45,9 @@ import lombok.ToString;
 public class Utilisateur {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "utilisateur_seq")
+    @SequenceGenerator(name = "utilisateur_seq", sequenceName = "utilisateur_seq",
+            allocationSize = Identifiants.TAILLE_BLOC)
     private Long id;
 
     @NotBlank(message = "Le nom est obligatoire")
@@ -0,0 +1,58 @@
+package com.ifri.bookmyhall.repositories;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ifri.bookmyhall.models.CleIdempotence;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+/** Repository des clés d'idempotence persistées (déploiements multi-nœuds). */
+public interface CleIdempotenceRepository extends JpaRepository<CleIdempotence, String> {
+
+    /** Réserve la clé ; retourne 0 si elle existe déjà. */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "idempotency_keys"))
+    @Query(value = "INSERT INTO idempotency_keys (cle, created_at) VALUES (:cle, now()) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int reserver(@Param("cle") String cle);
+
+    /**
+     * Reprend une clé restée sans résultat depuis avant {@code bail} (requête
+     * interrompue sur un autre nœud) ; retourne 0 si elle est encore en cours
+     * ou déjà traitée.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE CleIdempotence c SET c.createdAt = :maintenant " +
+            "WHERE c.cle = :cle AND c.reservationId IS NULL AND c.createdAt < :bail")
+    int reprendre(@Param("cle") String cle, @Param("maintenant") LocalDateTime maintenant,
+            @Param("bail") LocalDateTime bail);
+
+    /** Enregistre la réservation créée pour une clé réservée. */
+    @Modifying
+    @Transactional
+    @Query("UPDATE CleIdempotence c SET c.reservationId = :reservationId WHERE c.cle = :cle")
+    int enregistrerResultat(@Param("cle") String cle, @Param("reservationId") Long reservationId);
+
+    /** Libère une clé dont la requête a échoué. */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CleIdempotence c WHERE c.cle = :cle AND c.reservationId IS NULL")
+    int liberer(@Param("cle") String cle);
+
+    /** Supprime les clés plus anciennes que la limite. */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CleIdempotence c WHERE c.createdAt < :limite")
+    int purger(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,125 @@
+package com.ifri.bookmyhall.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ifri.bookmyhall.models.OccupationJournaliere;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+/**
+ * Repository des agrégats journaliers d'occupation. Les mises à jour sont des
+ * ajouts signés (ON CONFLICT DO UPDATE) : appliquer puis retirer un créneau
+ * laisse l'agrégat inchangé. Les requêtes natives d'écriture déclarent la seule
+ * table modifiée, pour ne pas vider tout le cache de second niveau.
+ */
+public interface OccupationJournaliereRepository
+        extends JpaRepository<OccupationJournaliere, OccupationJournaliere.Cle> {
+
+    /** Statuts de réservation comptés dans les agrégats. */
+    String STATUTS_COMPTES = "('CONFIRMED', 'COMPLETED')";
+
+    /** Cumul des ajouts d'un créneau sur une ligne existante. */
+    String AJOUT_EN_CONFLIT = "ON CONFLICT (salle_id, jour) DO UPDATE SET " +
+            "minutes_reservees = occupations_journalieres.minutes_reservees + EXCLUDED.minutes_reservees, " +
+            "reservations = occupations_journalieres.reservations + EXCLUDED.reservations, " +
+            "revenu = occupations_journalieres.revenu + EXCLUDED.revenu";
+
+    /**
+     * Ajoute (signe 1) ou retire (signe -1) un créneau sur chacun de ses jours ;
+     * le montant est réparti également entre les jours.
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "occupations_journalieres"))
+    @Query(value = "INSERT INTO occupations_journalieres (salle_id, jour, minutes_reservees, reservations, revenu) " +
+            "SELECT :salleId, CAST(d AS date), :signe * :minutes, " +
+            "CASE WHEN CAST(d AS date) = :dateDebut THEN :signe ELSE 0 END, " +
+            ":signe * COALESCE(CAST(:montant AS numeric), 0) / (CAST(:dateFin AS date) - CAST(:dateDebut AS date) + 1) " +
+            "FROM generate_series(CAST(:dateDebut AS date), CAST(:dateFin AS date), interval '1 day') d " +
+            AJOUT_EN_CONFLIT, nativeQuery = true)
+    int appliquer(@Param("salleId") Long salleId,
+            @Param("dateDebut") LocalDate dateDebut,
+            @Param("dateFin") LocalDate dateFin,
+            @Param("minutes") long minutes,
+            @Param("montant") BigDecimal montant,
+            @Param("signe") int signe);
+
+    /** Supprime les agrégats d'une salle sur une période (avant reconstruction). */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "occupations_journalieres"))
+    @Query(value = "DELETE FROM occupations_journalieres WHERE salle_id = :salleId AND jour BETWEEN :debut AND :fin",
+            nativeQuery = true)
+    int supprimer(@Param("salleId") Long salleId, @Param("debut") LocalDate debut, @Param("fin") LocalDate fin);
+
+    /** Supprime tous les agrégats d'une salle supprimée. */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "occupations_journalieres"))
+    @Query(value = "DELETE FROM occupations_journalieres WHERE salle_id = :salleId", nativeQuery = true)
+    int supprimerSalle(@Param("salleId") Long salleId);
+
+    /** Recalcule depuis les réservations les agrégats d'une salle sur une période. */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "occupations_journalieres"))
+    @Query(value = "INSERT INTO occupations_journalieres (salle_id, jour, minutes_reservees, reservations, revenu) " +
+            "SELECT r.salle_id, CAST(d AS date), " +
+            "SUM(CAST(EXTRACT(EPOCH FROM (r.heure_fin - r.heure_debut)) / 60 AS bigint)), " +
+            "SUM(CASE WHEN CAST(d AS date) = r.date_debut THEN 1 ELSE 0 END), " +
+            "SUM(COALESCE(r.montant_total, 0) / (COALESCE(r.date_fin, r.date_debut) - r.date_debut + 1)) " +
+            "FROM reservations r CROSS JOIN LATERAL generate_series(" +
+            "GREATEST(r.date_debut, CAST(:debut AS date)), " +
+            "LEAST(COALESCE(r.date_fin, r.date_debut), CAST(:fin AS date)), interval '1 day') d " +
+            "WHERE r.salle_id = :salleId AND r.statut IN " + STATUTS_COMPTES + " " +
+            "AND r.date_debut <= :fin AND COALESCE(r.date_fin, r.date_debut) >= :debut " +
+            "GROUP BY r.salle_id, CAST(d AS date) " +
+            AJOUT_EN_CONFLIT, nativeQuery = true)
+    int reconstruire(@Param("salleId") Long salleId, @Param("debut") LocalDate debut, @Param("fin") LocalDate fin);
+
+    /** Série agrégée par période (day, week ou month), toutes salles ou une seule. */
+    @Query(value = "SELECT to_char(date_trunc(CAST(:unite AS text), CAST(o.jour AS timestamp)), 'YYYY-MM-DD') AS periode, " +
+            "SUM(o.minutes_reservees) AS minutes, SUM(o.reservations) AS reservations, SUM(o.revenu) AS revenu " +
+            "FROM occupations_journalieres o " +
+            "WHERE (CAST(:salleId AS bigint) IS NULL OR o.salle_id = CAST(:salleId AS bigint)) " +
+            "AND o.jour BETWEEN :debut AND :fin " +
+            "GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<PeriodeAgregee> serie(@Param("unite") String unite,
+            @Param("salleId") Long salleId,
+            @Param("debut") LocalDate debut,
+            @Param("fin") LocalDate fin);
+
+    /** Bornes des dates des réservations comptées, pour la reconstruction. */
+    @Query(value = "SELECT MIN(date_debut) AS debut, MAX(COALESCE(date_fin, date_debut)) AS fin " +
+            "FROM reservations WHERE statut IN " + STATUTS_COMPTES, nativeQuery = true)
+    Bornes bornesReservations();
+
+    /** Première et dernière date réservée. */
+    interface Bornes {
+        LocalDate getDebut();
+
+        LocalDate getFin();
+    }
+
+    /** Ligne d'une série agrégée. */
+    interface PeriodeAgregee {
+        String getPeriode();
+
+        Long getMinutes();
+
+        Long getReservations();
+
+        BigDecimal getRevenu();
+    }
+}
@@ -1,61 +1,139 @@
 package com.ifri.bookmyhall.repositories;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.ifri.bookmyhall.dto.CreneauReservation;
+import com.ifri.bookmyhall.dto.NombreReservationsSalle;
+import com.ifri.bookmyhall.dto.NombreReservationsSalleJour;
+import com.ifri.bookmyhall.dto.NombreReservationsStatut;
+import com.ifri.bookmyhall.dto.ReservationDTO;
 import com.ifri.bookmyhall.models.Reservation;
 import com.ifri.bookmyhall.models.Reservation.StatutReservation;
-import com.ifri.bookmyhall.models.Salle;
 import com.ifri.bookmyhall.models.Utilisateur;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-/** Repository pour l'accès aux données des réservations. */
+/**
+ * Repository pour l'accès aux données des réservations. Les listes sont
+ * projetées directement en {@link ReservationDTO} (utilisateur et salle joints,
+ * aucune entité gérée) ; le comptage des pages reste une requête séparée sans
+ * jointure.
+ */
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
 
+       /**
+        * Projection commune des listes : l'ordre des colonnes suit celui des champs
+        * de {@link ReservationDTO} (constructeur complet).
+        */
+       String SELECT_RESERVATION_DTO = "SELECT new com.ifri.bookmyhall.dto.ReservationDTO(r.id, r.dateDebut, " +
+                     "r.dateFin, r.heureDebut, r.heureFin, r.typeEvenement, r.description, r.nombrePersonnes, " +
+                     "r.montantTotal, r.statut, u.id, CONCAT(u.prenom, ' ', u.nom), s.id, s.nom, s.capacite, " +
+                     "r.version) FROM Reservation r JOIN r.utilisateur u JOIN r.salle s ";
+
+       /** Liste toutes les réservations avec pagination. */
+       @Query(value = SELECT_RESERVATION_DTO,
+                     countQuery = "SELECT COUNT(r) FROM Reservation r")
+       Page<ReservationDTO> findAllDTO(Pageable pageable);
+
+       /** Lit une tranche de réservations, sans comptage. */
+       @Query(SELECT_RESERVATION_DTO)
+       Slice<ReservationDTO> findSliceDTO(Pageable pageable);
+
+       /** Lit une tranche de réservations d'un statut, sans comptage. */
+       @Query(SELECT_RESERVATION_DTO + "WHERE r.statut = :statut")
+       Slice<ReservationDTO> findSliceDTOByStatut(@Param("statut") StatutReservation statut, Pageable pageable);
+
+       /**
+        * Liste les réservations d'identifiant inférieur au curseur, par identifiant
+        * décroissant (pagination par clé, sans OFFSET ni comptage).
+        */
+       @Query(SELECT_RESERVATION_DTO + "WHERE r.id < :apresId AND (:statut IS NULL OR r.statut = :statut) " +
+                     "ORDER BY r.id DESC")
+       List<ReservationDTO> findDTOApres(@Param("apresId") Long apresId,
+                     @Param("statut") StatutReservation statut, Limit limit);
+
+       /** Récupère une réservation avec son utilisateur et sa salle. */
+       @EntityGraph(attributePaths = { "utilisateur", "salle" })
+       Optional<Reservation> findWithDetailsById(Long id);
+
        /** Récupère toutes les réservations d'un utilisateur. */
        List<Reservation> findByUtilisateur(Utilisateur utilisateur);
 
-       /** Récupère toutes les réservations pour une salle. */
-       List<Reservation> findBySalle(Salle salle);
+       /** Liste toutes les réservations d'une salle. */
+       @Query(SELECT_RESERVATION_DTO + "WHERE s.id = :salleId")
+       List<ReservationDTO> findDTOBySalleId(@Param("salleId") Long salleId);
 
-       /** Récupère les réservations par statut avec pagination. */
-       Page<Reservation> findByStatut(StatutReservation statut, Pageable pageable);
+       /** Liste les réservations par statut avec pagination. */
+       @Query(value = SELECT_RESERVATION_DTO + "WHERE r.statut = :statut",
+                     countQuery = "SELECT COUNT(r) FROM Reservation r WHERE r.statut = :statut")
+       Page<ReservationDTO> findDTOByStatut(@Param("statut") StatutReservation statut, Pageable pageable);
 
        /** Liste les réservations d'un utilisateur triées par date décroissante. */
-       @Query("SELECT r FROM Reservation r WHERE r.utilisateur.id = :utilisateurId " +
-                     "ORDER BY r.dateDebut DESC, r.heureDebut DESC")
-       Page<Reservation> findByUtilisateurIdOrderByDateDesc(@Param("utilisateurId") Long utilisateurId,
+       @Query(value = SELECT_RESERVATION_DTO + "WHERE u.id = :utilisateurId " +
+                     "ORDER BY r.dateDebut DESC, r.heureDebut DESC",
+                     countQuery = "SELECT COUNT(r) FROM Reservation r WHERE r.utilisateur.id = :utilisateurId")
+       Page<ReservationDTO> findByUtilisateurIdOrderByDateDesc(@Param("utilisateurId") Long utilisateurId,
                      Pageable pageable);
 
        /** Liste les réservations d'un utilisateur filtrées par statut. */
-       @Query("SELECT r FROM Reservation r WHERE r.utilisateur.id = :utilisateurId AND r.statut = :statut " +
-                     "ORDER BY r.dateDebut DESC, r.heureDebut DESC")
-       Page<Reservation> findByUtilisateurIdAndStatut(@Param("utilisateurId") Long utilisateurId,
+       @Query(value = SELECT_RESERVATION_DTO + "WHERE u.id = :utilisateurId AND r.statut = :statut " +
+                     "ORDER BY r.dateDebut DESC, r.heureDebut DESC",
+                     countQuery = "SELECT COUNT(r) FROM Reservation r " +
+                                   "WHERE r.utilisateur.id = :utilisateurId AND r.statut = :statut")
+       Page<ReservationDTO> findByUtilisateurIdAndStatut(@Param("utilisateurId") Long utilisateurId,
                      @Param("statut") StatutReservation statut,
                      Pageable pageable);
 
-       /** Récupère les réservations d'une salle pour une date donnée. */
-       @Query("SELECT r FROM Reservation r WHERE r.salle.id = :salleId " +
+       /**
+        * Liste les réservations d'un utilisateur situées après le curseur
+        * (date, heure, id) dans l'ordre décroissant, servie par l'index
+        * idx_reservations_utilisateur_date.
+        */
+       @Query(SELECT_RESERVATION_DTO + "WHERE u.id = :utilisateurId AND (:statut IS NULL OR r.statut = :statut) " +
+                     "AND (r.dateDebut, r.heureDebut, r.id) < (:dateDebut, :heureDebut, :apresId) " +
+                     "ORDER BY r.dateDebut DESC, r.heureDebut DESC, r.id DESC")
+       List<ReservationDTO> findByUtilisateurIdApres(@Param("utilisateurId") Long utilisateurId,
+                     @Param("statut") StatutReservation statut,
+                     @Param("dateDebut") LocalDate dateDebut,
+                     @Param("heureDebut") LocalTime heureDebut,
+                     @Param("apresId") Long apresId,
+                     Limit limit);
+
+       /** Liste les réservations d'une salle pour une date donnée. */
+       @Query(SELECT_RESERVATION_DTO + "WHERE s.id = :salleId " +
                      "AND ((r.dateFin IS NULL AND r.dateDebut = :date) OR " +
                      "(r.dateFin IS NOT NULL AND r.dateDebut <= :date AND r.dateFin >= :date)) " +
                      "ORDER BY r.heureDebut ASC")
-       List<Reservation> findBySalleIdAndDate(@Param("salleId") Long salleId, @Param("date") LocalDate date);
+       List<ReservationDTO> findBySalleIdAndDate(@Param("salleId") Long salleId, @Param("date") LocalDate date);
 
-       /** Vérifie s'il existe une réservation concurrente sur un créneau. */
-       @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Reservation r " +
-                     "WHERE r.salle.id = :salleId " +
-                     "AND r.statut NOT IN ('CANCELLED') " +
-                     "AND ((r.dateFin IS NULL AND r.dateDebut >= :dateDebut AND r.dateDebut <= :dateFin) OR " +
-                     "(r.dateFin IS NOT NULL AND r.dateDebut <= :dateFin AND r.dateFin >= :dateDebut)) " +
-                     "AND ((r.heureDebut < :heureFin AND r.heureFin > :heureDebut))")
+       /**
+        * Vérifie s'il existe une réservation concurrente sur un créneau (index GiST
+        * de la contrainte d'exclusion sur les plages jours/heures).
+        */
+       @Query(value = "SELECT EXISTS (SELECT 1 FROM reservations r " +
+                     "WHERE r.salle_id = :salleId " +
+                     "AND r.statut <> 'CANCELLED' " +
+                     "AND r.jours && daterange(:dateDebut, :dateFin, '[]') " +
+                     "AND r.heures && timerange(:heureDebut, :heureFin, '[)'))", nativeQuery = true)
        boolean existsConflictingReservation(
                      @Param("salleId") Long salleId,
                      @Param("dateDebut") LocalDate dateDebut,
@@ -64,13 +142,12 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
                      @Param("heureFin") LocalTime heureFin);
 
        /** Vérifie les conflits de créneaux en excluant une réservation spécifique. */
-       @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Reservation r " +
-                     "WHERE r.id != :reservationId " +
-                     "AND r.salle.id = :salleId " +
-                     "AND r.statut NOT IN ('CANCELLED') " +
-                     "AND ((r.dateFin IS NULL AND r.dateDebut >= :dateDebut AND r.dateDebut <= :dateFin) OR " +
-                     "(r.dateFin IS NOT NULL AND r.dateDebut <= :dateFin AND r.dateFin >= :dateDebut)) " +
-                     "AND ((r.heureDebut < :heureFin AND r.heureFin > :heureDebut))")
+       @Query(value = "SELECT EXISTS (SELECT 1 FROM reservations r " +
+                     "WHERE r.id <> :reservationId " +
+                     "AND r.salle_id = :salleId " +
+                     "AND r.statut <> 'CANCELLED' " +
+                     "AND r.jours && daterange(:dateDebut, :dateFin, '[]') " +
+                     "AND r.heures && timerange(:heureDebut, :heureFin, '[)'))", nativeQuery = true)
        boolean existsConflictingReservationExcludingId(
                      @Param("reservationId") Long reservationId,
                      @Param("salleId") Long salleId,
@@ -79,22 +156,26 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
                      @Param("heureDebut") LocalTime heureDebut,
                      @Param("heureFin") LocalTime heureFin);
 
-       /** Récupère les réservations futures d'un utilisateur. */
-       @Query("SELECT r FROM Reservation r WHERE r.utilisateur.id = :utilisateurId " +
+       /** Liste les réservations futures d'un utilisateur. */
+       @Query(value = SELECT_RESERVATION_DTO + "WHERE u.id = :utilisateurId " +
                      "AND ((r.dateFin IS NULL AND r.dateDebut >= :dateActuelle) OR " +
                      "(r.dateFin IS NOT NULL AND r.dateFin >= :dateActuelle)) " +
-                     "ORDER BY r.dateDebut ASC, r.heureDebut ASC")
-       Page<Reservation> findFutureReservationsByUtilisateur(
+                     "ORDER BY r.dateDebut ASC, r.heureDebut ASC",
+                     countQuery = "SELECT COUNT(r) FROM Reservation r WHERE r.utilisateur.id = :utilisateurId " +
+                                   "AND COALESCE(r.dateFin, r.dateDebut) >= :dateActuelle")
+       Page<ReservationDTO> findFutureReservationsByUtilisateur(
                      @Param("utilisateurId") Long utilisateurId,
                      @Param("dateActuelle") LocalDate dateActuelle,
                      Pageable pageable);
 
-       /** Récupère l'historique des réservations d'un utilisateur. */
-       @Query("SELECT r FROM Reservation r WHERE r.utilisateur.id = :utilisateurId " +
+       /** Liste l'historique des réservations d'un utilisateur. */
+       @Query(value = SELECT_RESERVATION_DTO + "WHERE u.id = :utilisateurId " +
                      "AND ((r.dateFin IS NULL AND r.dateDebut < :dateActuelle) OR " +
                      "(r.dateFin IS NOT NULL AND r.dateFin < :dateActuelle)) " +
-                     "ORDER BY r.dateDebut DESC, r.heureDebut DESC")
-       Page<Reservation> findPastReservationsByUtilisateur(
+                     "ORDER BY r.dateDebut DESC, r.heureDebut DESC",
+                     countQuery = "SELECT COUNT(r) FROM Reservation r WHERE r.utilisateur.id = :utilisateurId " +
+                                   "AND COALESCE(r.dateFin, r.dateDebut) < :dateActuelle")
+       Page<ReservationDTO> findPastReservationsByUtilisateur(
                      @Param("utilisateurId") Long utilisateurId,
                      @Param("dateActuelle") LocalDate dateActuelle,
                      Pageable pageable);
@@ -108,9 +189,141 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
                      @Param("dateDebut") LocalDate dateDebut,
                      @Param("dateFin") LocalDate dateFin);
 
+       /** Parcourt les créneaux actifs se terminant à partir d'une date (préchargement de l'index). */
+       @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+       @Query("SELECT new com.ifri.bookmyhall.dto.CreneauReservation(r.id, r.salle.id, r.dateDebut, r.dateFin, " +
+                     "r.heureDebut, r.heureFin) FROM Reservation r " +
+                     "WHERE r.statut NOT IN ('CANCELLED') " +
+                     "AND COALESCE(r.dateFin, r.dateDebut) >= :depuis")
+       Stream<CreneauReservation> streamCreneauxActifsDepuis(@Param("depuis") LocalDate depuis);
+
+       /** Récupère en une requête les créneaux actifs d'une salle recoupant une plage de dates. */
+       @Query("SELECT new com.ifri.bookmyhall.dto.CreneauReservation(r.id, r.salle.id, r.dateDebut, r.dateFin, " +
+                     "r.heureDebut, r.heureFin) FROM Reservation r " +
+                     "WHERE r.salle.id = :salleId " +
+                     "AND r.statut <> 'CANCELLED' " +
+                     "AND r.dateDebut <= :dateFin AND COALESCE(r.dateFin, r.dateDebut) >= :dateDebut")
+       List<CreneauReservation> findCreneauxActifsBySalleBetween(
+                     @Param("salleId") Long salleId,
+                     @Param("dateDebut") LocalDate dateDebut,
+                     @Param("dateFin") LocalDate dateFin);
+
+       /** Pose un verrou consultatif Postgres sur une salle, libéré à la fin de la transaction. */
+       @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:salleId)", nativeQuery = true)
+       Integer verrouillerSalle(@Param("salleId") Long salleId);
+
        /** Compte le nombre total de réservations pour un utilisateur. */
        long countByUtilisateurId(Long utilisateurId);
 
        /** Compte le nombre total de réservations pour une salle. */
        long countBySalleId(Long salleId);
+
+       /** Vérifie si une salle a au moins une réservation. */
+       boolean existsBySalleId(Long salleId);
+
+       /** Compte les réservations par statut (statuts sans réservation absents). */
+       @Query("SELECT new com.ifri.bookmyhall.dto.NombreReservationsStatut(r.statut, COUNT(r)) " +
+                     "FROM Reservation r GROUP BY r.statut")
+       List<NombreReservationsStatut> countGroupByStatut();
+
+       /** Compte en une requête les réservations de plusieurs salles (salles sans réservation absentes). */
+       @Query("SELECT new com.ifri.bookmyhall.dto.NombreReservationsSalle(r.salle.id, COUNT(r)) " +
+                     "FROM Reservation r WHERE r.salle.id IN :salleIds GROUP BY r.salle.id")
+       List<NombreReservationsSalle> countBySalleIds(@Param("salleIds") Collection<Long> salleIds);
+
+       /** Compte les réservations non annulées de chaque salle (salles sans réservation absentes). */
+       @Query("SELECT new com.ifri.bookmyhall.dto.NombreReservationsSalle(r.salle.id, COUNT(r)) " +
+                     "FROM Reservation r WHERE r.statut <> 'CANCELLED' " +
+                     "GROUP BY r.salle.id")
+       List<NombreReservationsSalle> countActivesGroupBySalle();
+
+       /** Compte les réservations non annulées créées depuis une date, par salle et par jour de création. */
+       @Query("SELECT new com.ifri.bookmyhall.dto.NombreReservationsSalleJour(r.salle.id, CAST(r.createdAt AS LocalDate), COUNT(r)) " +
+                     "FROM Reservation r WHERE r.statut <> 'CANCELLED' " +
+                     "AND r.createdAt >= :depuis GROUP BY r.salle.id, CAST(r.createdAt AS LocalDate)")
+       List<NombreReservationsSalleJour> countActivesGroupBySalleEtJour(@Param("depuis") LocalDateTime depuis);
+
+       /** Colonnes d'une réservation du résumé utilisateur. */
+       String COLONNES_RESUME = "r.id, r.date_debut, r.date_fin, r.heure_debut, r.heure_fin, r.type_evenement, " +
+                     "r.statut, r.nombre_personnes, r.montant_total, r.salle_id, s.nom AS salle_nom, s.capacite ";
+
+       /**
+        * Résumé d'un utilisateur en une requête : une ligne par réservation
+        * retenue (prochaine à venir, puis les plus récentes), chacune portant les
+        * nombres par statut ; une seule ligne sans réservation si aucune.
+        */
+       @Query(value = "SELECT u.id AS \"utilisateurId\", u.prenom AS \"prenom\", u.nom AS \"nom\", " +
+                     "c.en_attente AS \"enAttente\", c.confirmees AS \"confirmees\", " +
+                     "c.annulees AS \"annulees\", c.terminees AS \"terminees\", v.rubrique AS \"rubrique\", " +
+                     "v.id AS \"id\", v.date_debut AS \"dateDebut\", v.date_fin AS \"dateFin\", " +
+                     "v.heure_debut AS \"heureDebut\", v.heure_fin AS \"heureFin\", " +
+                     "v.type_evenement AS \"typeEvenement\", v.statut AS \"statut\", " +
+                     "v.nombre_personnes AS \"nombrePersonnes\", v.montant_total AS \"montantTotal\", " +
+                     "v.salle_id AS \"salleId\", v.salle_nom AS \"salleNom\", v.capacite AS \"salleCapacite\" " +
+                     "FROM utilisateurs u " +
+                     "CROSS JOIN LATERAL (SELECT " +
+                     "COUNT(*) FILTER (WHERE r.statut = 'PENDING') AS en_attente, " +
+                     "COUNT(*) FILTER (WHERE r.statut = 'CONFIRMED') AS confirmees, " +
+                     "COUNT(*) FILTER (WHERE r.statut = 'CANCELLED') AS annulees, " +
+                     "COUNT(*) FILTER (WHERE r.statut = 'COMPLETED') AS terminees " +
+                     "FROM reservations r WHERE r.utilisateur_id = u.id) c " +
+                     "LEFT JOIN LATERAL (" +
+                     "(SELECT 'PROCHAINE' AS rubrique, " + COLONNES_RESUME +
+                     "FROM reservations r JOIN salles s ON s.id = r.salle_id " +
+                     "WHERE r.utilisateur_id = u.id AND r.statut IN ('PENDING', 'CONFIRMED') " +
+                     "AND COALESCE(r.date_fin, r.date_debut) >= :aujourdhui " +
+                     "ORDER BY r.date_debut, r.heure_debut, r.id LIMIT 1) " +
+                     "UNION ALL " +
+                     "(SELECT 'RECENTE' AS rubrique, " + COLONNES_RESUME +
+                     "FROM reservations r JOIN salles s ON s.id = r.salle_id " +
+                     "WHERE r.utilisateur_id = u.id " +
+                     "ORDER BY r.date_debut DESC, r.heure_debut DESC, r.id DESC LIMIT :recentes)" +
+                     ") v ON true " +
+                     "WHERE u.id = :utilisateurId", nativeQuery = true)
+       List<LigneResume> findResumeUtilisateur(@Param("utilisateurId") Long utilisateurId,
+                     @Param("aujourdhui") LocalDate aujourdhui,
+                     @Param("recentes") int recentes);
+
+       /** Ligne du résumé utilisateur (colonnes de réservation nulles si aucune). */
+       interface LigneResume {
+              Long getUtilisateurId();
+
+              String getPrenom();
+
+              String getNom();
+
+              Long getEnAttente();
+
+              Long getConfirmees();
+
+              Long getAnnulees();
+
+              Long getTerminees();
+
+              String getRubrique();
+
+              Long getId();
+
+              LocalDate getDateDebut();
+
+              LocalDate getDateFin();
+
+              LocalTime getHeureDebut();
+
+              LocalTime getHeureFin();
+
+              String getTypeEvenement();
+
+              String getStatut();
+
+              Integer getNombrePersonnes();
+
+              BigDecimal getMontantTotal();
+
+              Long getSalleId();
+
+              String getSalleNom();
+
+              Integer getSalleCapacite();
+       }
 }
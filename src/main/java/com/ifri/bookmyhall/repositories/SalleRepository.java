@@ -1,34 +1,62 @@
 package com.ifri.bookmyhall.repositories;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.ifri.bookmyhall.dto.SalleDTO;
 import com.ifri.bookmyhall.models.Salle;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-/** Repository pour l'accès aux données des salles. */
+/**
+ * Repository pour l'accès aux données des salles. Les listes sont projetées
+ * directement en {@link SalleDTO}, nombre de réservations compris.
+ */
 public interface SalleRepository extends JpaRepository<Salle, Long> {
 
+        /**
+         * Projection commune des listes : l'ordre des colonnes suit celui des champs
+         * de {@link SalleDTO} (constructeur complet).
+         */
+        String SELECT_SALLE_DTO = "SELECT new com.ifri.bookmyhall.dto.SalleDTO(s.id, s.nom, s.capacite, " +
+                        "s.localisation, s.description, s.prixParJour, s.imageFileName, s.equipements, s.disponible, " +
+                        "(SELECT COUNT(r) FROM Reservation r WHERE r.salle = s), s.version) FROM Salle s ";
+
+        /** Région du cache de requêtes Hibernate (configurée dans hibernate-cache.conf). */
+        String REGION_COMPTAGE = "salles-comptage";
+
         /** Récupère une salle par son nom. */
         Optional<Salle> findByNom(String nom);
 
         /** Vérifie si une salle avec ce nom existe. */
         boolean existsByNom(String nom);
 
-        /** Récupère les salles par disponibilité avec pagination. */
-        Page<Salle> findByDisponible(Boolean disponible, Pageable pageable);
+        /** Liste toutes les salles avec pagination. */
+        @Query(value = SELECT_SALLE_DTO, countQuery = "SELECT COUNT(s) FROM Salle s")
+        Page<SalleDTO> findAllDTO(Pageable pageable);
+
+        /** Lit une tranche de salles, sans comptage. */
+        @Query(SELECT_SALLE_DTO)
+        Slice<SalleDTO> findSliceDTO(Pageable pageable);
 
-        /** Recherche des salles par localisation. */
-        @Query("SELECT s FROM Salle s WHERE LOWER(s.localisation) LIKE LOWER(CONCAT('%', :localisation, '%'))")
-        List<Salle> findByLocalisationContainingIgnoreCase(@Param("localisation") String localisation);
+        /** Liste les salles par disponibilité avec pagination. */
+        @Query(value = SELECT_SALLE_DTO + "WHERE s.disponible = :disponible",
+                        countQuery = "SELECT COUNT(s) FROM Salle s WHERE s.disponible = :disponible")
+        Page<SalleDTO> findDTOByDisponible(@Param("disponible") Boolean disponible, Pageable pageable);
 
         /** Recherche des salles par capacité minimale. */
         @Query("SELECT s FROM Salle s WHERE s.capacite >= :capaciteMin ORDER BY s.capacite ASC")
@@ -38,31 +66,95 @@ public interface SalleRepository extends JpaRepository<Salle, Long> {
         @Query("SELECT s FROM Salle s WHERE s.prixParJour BETWEEN :prixMin AND :prixMax ORDER BY s.prixParJour ASC")
         List<Salle> findByPrixBetween(@Param("prixMin") BigDecimal prixMin, @Param("prixMax") BigDecimal prixMax);
 
-        /** Recherche multicritère de salles avec pagination. */
-        @Query("SELECT s FROM Salle s WHERE " +
-                        "(:localisation IS NULL OR LOWER(s.localisation) LIKE LOWER(CONCAT('%', :localisation, '%'))) AND "
-                        +
-                        "(:capaciteMin IS NULL OR s.capacite >= :capaciteMin) AND " +
-                        "(:prixMax IS NULL OR s.prixParJour <= :prixMax) AND " +
-                        "s.disponible = :disponible " +
-                        "ORDER BY s.prixParJour ASC")
-        Page<Salle> searchSalles(
-                        @Param("localisation") String localisation,
+        /**
+         * Recherche multicritère de salles avec pagination, réduite aux identifiants :
+         * les fiches sont servies par le catalogue en mémoire. Avec un texte, les
+         * salles sont classées par pertinence, puis par prix.
+         */
+        @Query(value = "SELECT s.id FROM salles s" + TEXTE_SOURCES + "WHERE s.disponible = :disponible AND " +
+                        SALLES_CRITERES + "ORDER BY " + TEXTE_PERTINENCE + "s.prix_par_jour ASC, s.id ASC",
+                        countQuery = "SELECT COUNT(*) FROM salles s" + TEXTE_SOURCES +
+                                        "WHERE s.disponible = :disponible AND " + SALLES_CRITERES,
+                        nativeQuery = true)
+        Page<Long> searchSalleIds(
+                        @Param("texte") String texte,
                         @Param("capaciteMin") Integer capaciteMin,
                         @Param("prixMax") BigDecimal prixMax,
                         @Param("disponible") Boolean disponible,
                         Pageable pageable);
 
-        /** Compte le nombre de salles disponibles. */
+        /**
+         * Recherche multicritère limitée aux salles libres sur le créneau demandé :
+         * anti-jointure sur les réservations actives, servie par l'index GiST de la
+         * contrainte d'exclusion (salle_id, jours, heures). Les salles retenues en
+         * mémoire sur le créneau (SlotHoldService) sont exclues par identifiant.
+         */
+        @Query(value = "SELECT s.* FROM salles s" + TEXTE_SOURCES + "WHERE s.disponible = true AND " +
+                        SALLES_CRITERES + "AND " + SALLES_LIBRES + "ORDER BY " + TEXTE_PERTINENCE +
+                        "s.prix_par_jour ASC, s.id ASC",
+                        countQuery = "SELECT COUNT(*) FROM salles s" + TEXTE_SOURCES +
+                                        "WHERE s.disponible = true AND " + SALLES_CRITERES + "AND " + SALLES_LIBRES,
+                        nativeQuery = true)
+        Page<Salle> searchSallesLibres(
+                        @Param("texte") String texte,
+                        @Param("capaciteMin") Integer capaciteMin,
+                        @Param("prixMax") BigDecimal prixMax,
+                        @Param("dateDebut") LocalDate dateDebut,
+                        @Param("dateFin") LocalDate dateFin,
+                        @Param("heureDebut") LocalTime heureDebut,
+                        @Param("heureFin") LocalTime heureFin,
+                        @Param("sallesRetenues") Long[] sallesRetenues,
+                        Pageable pageable);
+
+        /**
+         * Texte recherché, normalisé comme les colonnes de recherche (db/salles-recherche.sql),
+         * sa requête plein texte et son motif de sous-chaîne (jokers LIKE échappés).
+         * Un texte nul ne filtre rien.
+         */
+        String TEXTE_SOURCES = ", LATERAL (SELECT sans_accents(CAST(:texte AS text)) AS motif) m" +
+                        ", LATERAL (SELECT plainto_tsquery('simple', m.motif) AS requete, '%' || " +
+                        "replace(replace(replace(m.motif, '\\', '\\\\'), '%', '\\%'), '_', '\\_') || '%' AS contient) q ";
+
+        /**
+         * Correspondance par mots (index GIN plein texte), par sous-chaîne ou, pour un
+         * motif d'un seul mot, par mot approché (index GIN trigrammes) : sur plusieurs
+         * mots, la similarité d'un seul mot commun suffirait à retenir la salle.
+         */
+        String TEXTE_CRITERE = "(m.motif IS NULL OR s.recherche @@ q.requete OR s.texte_recherche LIKE q.contient " +
+                        "OR (position(' ' IN m.motif) = 0 AND m.motif <% s.texte_recherche)) ";
+
+        /** Pertinence : mots trouvés pondérés par champ, puis proximité du mot approché. */
+        String TEXTE_PERTINENCE = "COALESCE(ts_rank_cd(s.recherche, q.requete), 0) DESC, " +
+                        "COALESCE(word_similarity(m.motif, s.texte_recherche), 0) DESC, ";
+
+        /** Filtres communs aux recherches et à leurs comptages. */
+        String SALLES_CRITERES = TEXTE_CRITERE +
+                        "AND (CAST(:capaciteMin AS integer) IS NULL OR s.capacite >= CAST(:capaciteMin AS integer)) " +
+                        "AND (CAST(:prixMax AS numeric) IS NULL OR s.prix_par_jour <= CAST(:prixMax AS numeric)) ";
+
+        /**
+         * Salles sans réservation active ni retenue sur la période et la plage horaire demandées.
+         * Une heure de fin nulle laisse la plage ouverte jusqu'à minuit (LocalTime.MAX serait
+         * lié comme 00:00 et donnerait une plage vide).
+         */
+        String SALLES_LIBRES = "NOT EXISTS (SELECT 1 FROM reservations r WHERE r.salle_id = s.id " +
+                        "AND r.statut <> 'CANCELLED' " +
+                        "AND r.jours && daterange(:dateDebut, :dateFin, '[]') " +
+                        "AND r.heures && timerange(:heureDebut, CAST(:heureFin AS time), '[)')) " +
+                        "AND s.id <> ALL(:sallesRetenues) ";
+
+        /** Compte le nombre de salles disponibles (cache de requêtes). */
+        @QueryHints({
+                        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                        @QueryHint(name = "org.hibernate.cacheRegion", value = REGION_COMPTAGE) })
         @Query("SELECT COUNT(s) FROM Salle s WHERE s.disponible = true")
         long countSallesDisponibles();
 
-        /** Récupère les salles les plus réservées. */
-        @Query("SELECT s FROM Salle s LEFT JOIN s.reservations r " +
-                        "GROUP BY s.id ORDER BY COUNT(r) DESC")
-        List<Salle> findSallesPopulaires();
+        /** Identifiants de toutes les salles. */
+        @Query("SELECT s.id FROM Salle s")
+        List<Long> findAllIds();
 
-        /** Récupère les salles sans réservation. */
-        @Query("SELECT s FROM Salle s WHERE s.reservations IS EMPTY")
-        List<Salle> findSallesSansReservation();
+        /** Date de la dernière modification d'une salle. */
+        @Query("SELECT MAX(s.updatedAt) FROM Salle s")
+        Optional<LocalDateTime> findDerniereModification();
 }
@@ -3,13 +3,16 @@ package com.ifri.bookmyhall.repositories;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.ifri.bookmyhall.dto.UtilisateurDTO;
 import com.ifri.bookmyhall.models.Role;
 import com.ifri.bookmyhall.models.Utilisateur;
 
@@ -17,6 +20,22 @@ import com.ifri.bookmyhall.models.Utilisateur;
 /** Repository pour l'accès aux données des utilisateurs. */
 public interface UtilisateurRepository extends JpaRepository<Utilisateur, Long> {
 
+    /** Projection commune des listes, sans le mot de passe. */
+    String SELECT_UTILISATEUR_DTO = "SELECT new com.ifri.bookmyhall.dto.UtilisateurDTO(u.id, u.nom, u.prenom, " +
+            "u.email, u.username, u.telephone, u.role, u.actif) FROM Utilisateur u ";
+
+    /** Liste tous les utilisateurs avec pagination. */
+    @Query(value = SELECT_UTILISATEUR_DTO, countQuery = "SELECT COUNT(u) FROM Utilisateur u")
+    Page<UtilisateurDTO> findAllDTO(Pageable pageable);
+
+    /** Lit une tranche d'utilisateurs, sans comptage. */
+    @Query(SELECT_UTILISATEUR_DTO)
+    Slice<UtilisateurDTO> findSliceDTO(Pageable pageable);
+
+    /** Liste les utilisateurs d'identifiant inférieur au curseur, par identifiant décroissant. */
+    @Query(SELECT_UTILISATEUR_DTO + "WHERE u.id < :apresId ORDER BY u.id DESC")
+    List<UtilisateurDTO> findDTOApres(@Param("apresId") Long apresId, Limit limit);
+
     /** Récupère un utilisateur par son nom d'utilisateur. */
     Optional<Utilisateur> findByUsername(String username);
 
@@ -30,7 +49,9 @@ public interface UtilisateurRepository extends JpaRepository<Utilisateur, Long>
     boolean existsByEmail(String email);
 
     /** Liste les utilisateurs par rôle avec pagination. */
-    Page<Utilisateur> findByRole(Role role, Pageable pageable);
+    @Query(value = SELECT_UTILISATEUR_DTO + "WHERE u.role = :role",
+            countQuery = "SELECT COUNT(u) FROM Utilisateur u WHERE u.role = :role")
+    Page<UtilisateurDTO> findDTOByRole(@Param("role") Role role, Pageable pageable);
 
     /** Liste les utilisateurs selon leur statut actif/inactif. */
     List<Utilisateur> findByActif(Boolean actif);
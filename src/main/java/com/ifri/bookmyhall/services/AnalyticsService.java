@@ -0,0 +1,164 @@
+package com.ifri.bookmyhall.services;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ifri.bookmyhall.dto.PeriodeOccupationDTO;
+import com.ifri.bookmyhall.events.ReservationModifiee;
+import com.ifri.bookmyhall.events.ReservationModifiee.Creneau;
+import com.ifri.bookmyhall.events.SalleModifiee;
+import com.ifri.bookmyhall.models.Reservation.StatutReservation;
+import com.ifri.bookmyhall.models.Salle;
+import com.ifri.bookmyhall.repositories.OccupationJournaliereRepository;
+import com.ifri.bookmyhall.repositories.SalleRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+/**
+ * Occupation et chiffre d'affaires des salles, servis depuis les agrégats
+ * journaliers (occupations_journalieres). Les agrégats sont mis à jour dans la
+ * transaction de chaque écriture de réservation, et reconstruits par tranches
+ * (une salle, une année) au premier démarrage ou à la demande.
+ */
+public class AnalyticsService {
+
+    /** Statuts dont les créneaux sont comptés comme occupés et facturés. */
+    static final Set<StatutReservation> STATUTS_COMPTES = EnumSet.of(StatutReservation.CONFIRMED,
+            StatutReservation.COMPLETED);
+
+    /** Plus longue période interrogeable en une requête. */
+    static final long JOURS_MAX = 366L * 20;
+
+    private final OccupationJournaliereRepository occupationRepository;
+    private final SalleRepository salleRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.analytics.heures-ouverture:PT12H}")
+    private Duration heuresOuverture;
+
+    /** Granularité d'une série, avec l'unité date_trunc correspondante. */
+    public enum Granularite {
+        JOUR("day", ChronoUnit.DAYS),
+        SEMAINE("week", ChronoUnit.WEEKS),
+        MOIS("month", ChronoUnit.MONTHS);
+
+        private final String unite;
+        private final ChronoUnit pas;
+
+        Granularite(String unite, ChronoUnit pas) {
+            this.unite = unite;
+            this.pas = pas;
+        }
+    }
+
+    /**
+     * Série d'occupation entre deux dates incluses, pour une salle ou toutes. Le
+     * taux rapporte les minutes réservées aux heures d'ouverture des jours de la
+     * période compris dans l'intervalle demandé.
+     */
+    public List<PeriodeOccupationDTO> serie(Granularite granularite, Long salleId, LocalDate debut, LocalDate fin) {
+        if (debut.isAfter(fin))
+            throw new IllegalArgumentException("La date de début doit précéder la date de fin");
+        if (ChronoUnit.DAYS.between(debut, fin) > JOURS_MAX)
+            throw new IllegalArgumentException("Période trop longue");
+        long salles = salleId != null ? 1 : salleRepository.count();
+        long minutesOuverture = heuresOuverture.toMinutes();
+
+        return occupationRepository.serie(granularite.unite, salleId, debut, fin).stream().map(p -> {
+            LocalDate periode = LocalDate.parse(p.getPeriode());
+            LocalDate debutCompte = periode.isBefore(debut) ? debut : periode;
+            LocalDate finPeriode = periode.plus(1, granularite.pas).minusDays(1);
+            LocalDate finCompte = finPeriode.isAfter(fin) ? fin : finPeriode;
+            long capacite = salles * (ChronoUnit.DAYS.between(debutCompte, finCompte) + 1) * minutesOuverture;
+            long minutes = p.getMinutes() != null ? p.getMinutes() : 0;
+            return new PeriodeOccupationDTO(periode, minutes,
+                    p.getReservations() != null ? p.getReservations() : 0,
+                    p.getRevenu() != null ? p.getRevenu() : BigDecimal.ZERO,
+                    capacite > 0 ? (double) minutes / capacite : 0);
+        }).toList();
+    }
+
+    /**
+     * Reporte une écriture de réservation sur les agrégats, avant validation de
+     * la transaction qui l'a produite : l'ancien créneau est retiré s'il était
+     * compté, le nouveau ajouté s'il l'est.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void surReservation(ReservationModifiee e) {
+        if (e.creneauAvant() != null && STATUTS_COMPTES.contains(e.statutAvant()))
+            appliquer(e.creneauAvant(), -1);
+        if (e.creneauApres() != null && STATUTS_COMPTES.contains(e.statutApres()))
+            appliquer(e.creneauApres(), 1);
+    }
+
+    /**
+     * Supprime les agrégats d'une salle supprimée, dans la transaction de la
+     * suppression (la requête de suppression exige une transaction active).
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void surSalle(SalleModifiee e) {
+        if (e.disponibleAvant() != null && e.disponibleApres() == null)
+            occupationRepository.supprimerSalle(e.salleId());
+    }
+
+    /** Construit les agrégats au démarrage s'ils n'ont jamais été calculés. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (occupationRepository.count() == 0)
+            reconstruire();
+    }
+
+    /**
+     * Reconstruit tous les agrégats depuis les réservations, salle par salle et
+     * année par année, chaque tranche dans sa propre transaction. Une écriture
+     * validée pendant la reconstruction de sa tranche peut y être comptée deux
+     * fois : la reconstruction se lance hors période d'activité.
+     */
+    public int reconstruire() {
+        OccupationJournaliereRepository.Bornes bornes = occupationRepository.bornesReservations();
+        if (bornes == null || bornes.getDebut() == null)
+            return 0;
+        LocalDate premier = bornes.getDebut();
+        LocalDate dernier = bornes.getFin();
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int tranches = 0;
+        for (Salle salle : salleRepository.findAll()) {
+            for (int annee = premier.getYear(); annee <= dernier.getYear(); annee++) {
+                LocalDate debut = LocalDate.of(annee, 1, 1);
+                LocalDate fin = LocalDate.of(annee, 12, 31);
+                transaction.executeWithoutResult(status -> {
+                    occupationRepository.supprimer(salle.getId(), debut, fin);
+                    occupationRepository.reconstruire(salle.getId(), debut, fin);
+                });
+                tranches++;
+            }
+        }
+        log.info("Agrégats d'occupation reconstruits : {} tranches ({} à {})", tranches, premier, dernier);
+        return tranches;
+    }
+
+    private void appliquer(Creneau creneau, int signe) {
+        long minutes = Duration.between(creneau.heureDebut(), creneau.heureFin()).toMinutes();
+        occupationRepository.appliquer(creneau.salleId(), creneau.dateDebut(), creneau.dateFin(), minutes,
+                creneau.montant(), signe);
+    }
+}
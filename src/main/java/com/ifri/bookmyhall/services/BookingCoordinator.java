@@ -0,0 +1,84 @@
+package com.ifri.bookmyhall.services;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ifri.bookmyhall.repositories.ReservationRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+/**
+ * Sérialise les réservations d'une même salle entre la vérification des
+ * conflits et l'insertion. Un verrou par salle (local) est complété par un
+ * verrou consultatif Postgres pour les déploiements multi-nœuds ; les deux
+ * sont conservés jusqu'à la fin de la transaction.
+ */
+public class BookingCoordinator {
+
+    private final ReservationRepository reservationRepository;
+
+    private final ConcurrentHashMap<Long, ReentrantLock> verrous = new ConcurrentHashMap<>();
+
+    @Value("${app.booking.lock-timeout:PT5S}")
+    private Duration lockTimeout;
+
+    @Value("${app.booking.advisory-lock:true}")
+    private boolean advisoryLock;
+
+    /**
+     * Verrouille les salles jusqu'à la fin de la transaction courante, dans
+     * l'ordre croissant des identifiants pour éviter les interblocages.
+     */
+    public void verrouiller(Long... salleIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            throw new IllegalStateException("Transaction requise pour verrouiller une salle");
+
+        List<Long> ids = Stream.of(salleIds).filter(Objects::nonNull).distinct().sorted().toList();
+        for (Long salleId : ids) {
+            ReentrantLock verrou = verrous.computeIfAbsent(salleId, id -> new ReentrantLock());
+            if (verrou.isHeldByCurrentThread())
+                continue;
+            acquerir(verrou, salleId);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    verrou.unlock();
+                }
+            });
+            if (advisoryLock)
+                reservationRepository.verrouillerSalle(salleId);
+        }
+    }
+
+    /** Oublie le verrou d'une salle supprimée. */
+    public void oublier(Long salleId) {
+        verrous.remove(salleId);
+    }
+
+    /** Attend le verrou local d'une salle dans la limite du délai configuré. */
+    private void acquerir(ReentrantLock verrou, Long salleId) {
+        try {
+            if (!verrou.tryLock(lockTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Délai dépassé pour le verrou de la salle {}", salleId);
+                throw new IllegalStateException("Salle très sollicitée, veuillez réessayer");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Réservation interrompue", e);
+        }
+    }
+}
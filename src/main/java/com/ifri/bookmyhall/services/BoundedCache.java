@@ -0,0 +1,150 @@
+package com.ifri.bookmyhall.services;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cache mémoire borné : éviction LRU au-delà de la capacité et expiration des
+ * entrées après un délai fixe depuis leur écriture. Les expirations sont
+ * constatées à la lecture ; la capacité borne la mémoire dans tous les cas.
+ */
+public class BoundedCache<K, V> {
+
+    private final int capacite;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entree<V>> entrees;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public BoundedCache(int capacite, Duration ttl) {
+        if (capacite <= 0)
+            throw new IllegalArgumentException("Capacité invalide");
+        this.capacite = capacite;
+        this.ttlNanos = ttl.toNanos();
+        this.entrees = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /** Retourne la valeur associée à la clé, ou null si absente ou expirée. */
+    public synchronized V get(K cle) {
+        Entree<V> entree = lire(cle);
+        if (entree == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entree.valeur();
+    }
+
+    /** Retourne la valeur en cache ou la calcule et la stocke (null n'est pas mis en cache). */
+    public V getOrCompute(K cle, Function<? super K, ? extends V> calcul) {
+        V valeur = get(cle);
+        if (valeur != null)
+            return valeur;
+        valeur = calcul.apply(cle);
+        if (valeur != null)
+            put(cle, valeur);
+        return valeur;
+    }
+
+    /** Associe la valeur à la clé, en remplaçant une éventuelle valeur existante. */
+    public synchronized void put(K cle, V valeur) {
+        entrees.put(cle, new Entree<>(valeur, System.nanoTime() + ttlNanos));
+        evincer();
+    }
+
+    /**
+     * Associe la valeur à la clé si aucune valeur valide n'existe.
+     * Retourne la valeur existante, ou null si la nouvelle a été enregistrée.
+     */
+    public synchronized V putIfAbsent(K cle, V valeur) {
+        Entree<V> entree = lire(cle);
+        if (entree != null) {
+            hits++;
+            return entree.valeur();
+        }
+        misses++;
+        put(cle, valeur);
+        return null;
+    }
+
+    /** Retire la clé du cache. */
+    public synchronized void invalidate(K cle) {
+        entrees.remove(cle);
+    }
+
+    /** Retire la clé seulement si elle est associée à cette valeur. */
+    public synchronized void invalidate(K cle, V valeur) {
+        Entree<V> entree = entrees.get(cle);
+        if (entree != null && entree.valeur() == valeur)
+            entrees.remove(cle);
+    }
+
+    /** Vide le cache. */
+    public synchronized void clear() {
+        entrees.clear();
+    }
+
+    /** Retire les entrées expirées. */
+    public synchronized int purger() {
+        long maintenant = System.nanoTime();
+        int retirees = 0;
+        for (Iterator<Entree<V>> it = entrees.values().iterator(); it.hasNext();) {
+            if (it.next().expireeA(maintenant)) {
+                it.remove();
+                retirees++;
+            }
+        }
+        evictions += retirees;
+        return retirees;
+    }
+
+    /** Nombre d'entrées en cache (expirées comprises tant qu'elles n'ont pas été lues). */
+    public synchronized int size() {
+        return entrees.size();
+    }
+
+    /** Statistiques d'utilisation du cache. */
+    public synchronized Statistiques statistiques() {
+        return new Statistiques(hits, misses, evictions, entrees.size(), capacite);
+    }
+
+    private Entree<V> lire(K cle) {
+        Entree<V> entree = entrees.get(cle);
+        if (entree != null && entree.expireeA(System.nanoTime())) {
+            entrees.remove(cle);
+            evictions++;
+            return null;
+        }
+        return entree;
+    }
+
+    private void evincer() {
+        Iterator<Map.Entry<K, Entree<V>>> it = entrees.entrySet().iterator();
+        while (entrees.size() > capacite && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions++;
+        }
+    }
+
+    private record Entree<V>(V valeur, long expiration) {
+        boolean expireeA(long maintenant) {
+            return maintenant - expiration >= 0;
+        }
+    }
+
+    /** Compteurs d'un cache : succès, échecs, évictions (capacité ou expiration), taille. */
+    public record Statistiques(long hits, long misses, long evictions, int taille, int capacite) {
+
+        /** Taux de succès des lectures, entre 0 et 1. */
+        public double tauxSucces() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.ifri.bookmyhall.services;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ifri.bookmyhall.dto.SalleDTO;
+import com.ifri.bookmyhall.events.ReservationModifiee;
+import com.ifri.bookmyhall.events.SalleModifiee;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+/**
+ * Catalogue des salles en mémoire : fiches par identifiant et pages de la
+ * liste publique des salles disponibles. Les écritures des salles invalident
+ * la fiche et toutes les pages après validation ; la création, la
+ * suppression ou le déplacement d'une réservation invalide les fiches de ses
+ * salles avant et après (nombre de réservations affiché). Une lecture commencée avant une invalidation n'est
+ * pas mise en cache. Chaque lecture reçoit une copie des fiches en cache : les
+ * appelants peuvent la modifier (formulaires, mises à jour) sans l'altérer.
+ * <p>
+ * Les recherches par critères ne gardent que les identifiants de chaque page,
+ * sous la version du catalogue : une écriture de salle les écarte toutes. Les
+ * lectures concurrentes d'une même recherche absente attendent le premier
+ * calcul au lieu de le répéter.
+ */
+public class CatalogueSalles {
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+
+    private final VersionCatalogue versionCatalogue;
+
+    @Value("${app.salle-cache.capacity:500}")
+    private int capacite;
+
+    @Value("${app.salle-cache.pages-capacity:100}")
+    private int capacitePages;
+
+    @Value("${app.salle-cache.search-capacity:200}")
+    private int capaciteRecherches;
+
+    @Value("${app.salle-cache.ttl:PT10M}")
+    private Duration ttl;
+
+    private BoundedCache<Long, SalleDTO> salles;
+    private BoundedCache<Pageable, Page<SalleDTO>> pagesDisponibles;
+    private BoundedCache<Recherche, Page<Long>> recherches;
+
+    /** Calculs de recherche en cours, partagés par les lectures concurrentes. */
+    private final Map<Recherche, CompletableFuture<Page<Long>>> recherchesEnCours = new ConcurrentHashMap<>();
+
+    /** Incrémentée à chaque invalidation, pour écarter les lectures concurrentes. */
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    void initialiser() {
+        salles = new BoundedCache<>(capacite, ttl);
+        pagesDisponibles = new BoundedCache<>(capacitePages, ttl);
+        recherches = new BoundedCache<>(capaciteRecherches, ttl);
+    }
+
+    /** Fiche d'une salle, lue par {@code lecture} en cas d'absence. */
+    public SalleDTO salle(Long id, Function<Long, SalleDTO> lecture) {
+        SalleDTO fiche = lire(salles, id, lecture);
+        return fiche != null ? fiche.copie() : null;
+    }
+
+    /**
+     * Fiches de plusieurs salles, dans l'ordre des identifiants ; les absentes
+     * sont lues ensemble par {@code lecture}. Les salles introuvables sont omises.
+     */
+    public List<SalleDTO> salles(List<Long> ids, Function<List<Long>, List<SalleDTO>> lecture) {
+        Map<Long, SalleDTO> fiches = new HashMap<>();
+        List<Long> manquantes = new ArrayList<>();
+        for (Long id : ids) {
+            SalleDTO fiche = salles.get(id);
+            if (fiche != null)
+                fiches.put(id, fiche);
+            else
+                manquantes.add(id);
+        }
+        if (!manquantes.isEmpty()) {
+            long avant = generation.get();
+            List<SalleDTO> lues = lecture.apply(manquantes);
+            boolean aJour = generation.get() == avant;
+            for (SalleDTO fiche : lues) {
+                fiches.put(fiche.getId(), fiche);
+                if (aJour)
+                    salles.put(fiche.getId(), fiche);
+            }
+        }
+        List<SalleDTO> resultat = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            SalleDTO fiche = fiches.get(id);
+            if (fiche != null)
+                resultat.add(fiche.copie());
+        }
+        return resultat;
+    }
+
+    /**
+     * Identifiants d'une page de recherche par critères (critères normalisés par
+     * {@link #recherche}), calculés une seule fois par {@code lecture} même sous
+     * lectures concurrentes.
+     */
+    public Page<Long> idsRecherche(Recherche cle, Function<Recherche, Page<Long>> lecture) {
+        Page<Long> ids = recherches.get(cle);
+        if (ids != null)
+            return ids;
+
+        CompletableFuture<Page<Long>> calcul = new CompletableFuture<>();
+        CompletableFuture<Page<Long>> enCours = recherchesEnCours.putIfAbsent(cle, calcul);
+        if (enCours != null)
+            return attendre(enCours);
+        try {
+            ids = lecture.apply(cle);
+            recherches.put(cle, ids);
+            calcul.complete(ids);
+            return ids;
+        } catch (RuntimeException e) {
+            calcul.completeExceptionally(e);
+            throw e;
+        } finally {
+            recherchesEnCours.remove(cle, calcul);
+        }
+    }
+
+    /** Clé d'une recherche sous la version courante du catalogue. */
+    public Recherche recherche(String texte, Integer capaciteMin, BigDecimal prixMax, Pageable pageable) {
+        return new Recherche(versionCatalogue.catalogue().numero(), normaliserTexte(texte), capaciteMin,
+                prixMax != null ? prixMax.stripTrailingZeros() : null, pageable);
+    }
+
+    /**
+     * Texte recherché sans espaces de bord, accents ni majuscules (comme en base),
+     * ou null s'il est vide.
+     */
+    static String normaliserTexte(String texte) {
+        if (texte == null || texte.isBlank())
+            return null;
+        return ACCENTS.matcher(Normalizer.normalize(texte.strip(), Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    /** Page de la liste publique des salles disponibles. */
+    public Page<SalleDTO> pageDisponibles(Pageable pageable, Function<Pageable, Page<SalleDTO>> lecture) {
+        return lire(pagesDisponibles, pageable, lecture).map(SalleDTO::copie);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surSalle(SalleModifiee e) {
+        generation.incrementAndGet();
+        salles.invalidate(e.salleId());
+        pagesDisponibles.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surReservation(ReservationModifiee e) {
+        if (e.creneauModifie()) {
+            generation.incrementAndGet();
+            salles.invalidate(e.salleAvant());
+            salles.invalidate(e.salleId());
+        }
+    }
+
+    /** Statistiques du cache des fiches. */
+    public BoundedCache.Statistiques statistiquesSalles() {
+        return salles.statistiques();
+    }
+
+    /** Statistiques du cache des pages de la liste publique. */
+    public BoundedCache.Statistiques statistiquesPages() {
+        return pagesDisponibles.statistiques();
+    }
+
+    /** Statistiques du cache des recherches par critères. */
+    public BoundedCache.Statistiques statistiquesRecherches() {
+        return recherches.statistiques();
+    }
+
+    private <K, V> V lire(BoundedCache<K, V> cache, K cle, Function<K, V> lecture) {
+        V valeur = cache.get(cle);
+        if (valeur != null)
+            return valeur;
+        long avant = generation.get();
+        valeur = lecture.apply(cle);
+        if (valeur != null && generation.get() == avant)
+            cache.put(cle, valeur);
+        return valeur;
+    }
+
+    private static <V> V attendre(CompletableFuture<V> calcul) {
+        try {
+            return calcul.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw e;
+        }
+    }
+
+    /**
+     * Critères normalisés d'une recherche : texte sans espaces de bord, accents
+     * ni majuscules (la requête les ignore), prix sans zéros non significatifs.
+     */
+    public record Recherche(long version, String texte, Integer capaciteMin, BigDecimal prixMax,
+            Pageable pageable) {
+    }
+}
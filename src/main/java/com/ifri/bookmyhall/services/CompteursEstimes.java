@@ -0,0 +1,109 @@
+package com.ifri.bookmyhall.services;
+
+import java.util.function.LongSupplier;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ifri.bookmyhall.models.Reservation.StatutReservation;
+import com.ifri.bookmyhall.models.Role;
+import com.ifri.bookmyhall.repositories.ReservationRepository;
+import com.ifri.bookmyhall.repositories.SalleRepository;
+import com.ifri.bookmyhall.repositories.UtilisateurRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+/**
+ * Totaux des listes d'administration rafraîchis périodiquement, pour que les
+ * pages soient lues en tranches sans COUNT. Les grandes tables sont estimées
+ * par les statistiques Postgres (pg_class.reltuples) ; en dessous de
+ * {@link #SEUIL_COMPTAGE_EXACT} lignes, ou si la table n'a jamais été analysée,
+ * le comptage est exact. Les totaux filtrés (statut, rôle) viennent des
+ * compteurs du tableau de bord.
+ */
+public class CompteursEstimes {
+
+    static final long SEUIL_COMPTAGE_EXACT = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReservationRepository reservationRepository;
+    private final SalleRepository salleRepository;
+    private final UtilisateurRepository utilisateurRepository;
+    private final StatistiquesTableauBord statistiques;
+
+    private volatile Totaux totaux;
+
+    /** Nombre (estimé) de réservations, toutes ou d'un statut. */
+    public long reservations(StatutReservation statut) {
+        return statut == null ? totaux().reservations() : statistiques.reservations(statut);
+    }
+
+    /** Nombre (estimé) d'utilisateurs. */
+    public long utilisateurs() {
+        return totaux().utilisateurs();
+    }
+
+    /** Nombre d'utilisateurs d'un rôle. */
+    public long utilisateurs(Role role) {
+        return statistiques.utilisateurs(role);
+    }
+
+    /** Nombre (estimé) de salles. */
+    public long salles() {
+        return totaux().salles();
+    }
+
+    /** Recalcule les totaux depuis la base. */
+    @Scheduled(fixedDelayString = "${app.counts.refresh-interval:PT1M}",
+            initialDelayString = "${app.counts.refresh-interval:PT1M}")
+    public void rafraichir() {
+        totaux = new Totaux(
+                estimer("reservations", reservationRepository::count),
+                estimer("utilisateurs", utilisateurRepository::count),
+                estimer("salles", salleRepository::count));
+        log.debug("Totaux rafraîchis : {}", totaux);
+    }
+
+    /**
+     * Présente une tranche comme une page dont le total est estimé. Le total est
+     * relevé si la tranche prouve qu'il existe davantage de lignes.
+     */
+    public static <T> Page<T> enPage(Slice<T> tranche, long totalEstime) {
+        long minimum = tranche.getPageable().isPaged() ? tranche.getPageable().getOffset() : 0;
+        minimum += tranche.getNumberOfElements() + (tranche.hasNext() ? 1 : 0);
+        return new PageImpl<>(tranche.getContent(), tranche.getPageable(), Math.max(totalEstime, minimum));
+    }
+
+    private Totaux totaux() {
+        Totaux t = totaux;
+        if (t == null) {
+            synchronized (this) {
+                if (totaux == null)
+                    rafraichir();
+                t = totaux;
+            }
+        }
+        return t;
+    }
+
+    /** Estimation du planificateur, ou comptage exact pour les petites tables. */
+    private long estimer(String table, LongSupplier comptageExact) {
+        Long estimation = jdbcTemplate.queryForObject(
+                "SELECT COALESCE((SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)), -1)",
+                Long.class, table);
+        if (estimation == null || estimation < SEUIL_COMPTAGE_EXACT)
+            return comptageExact.getAsLong();
+        return estimation;
+    }
+
+    private record Totaux(long reservations, long utilisateurs, long salles) {
+    }
+}
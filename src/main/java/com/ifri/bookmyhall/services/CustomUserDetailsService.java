@@ -1,17 +1,12 @@
 package com.ifri.bookmyhall.services;
 
-import java.util.Collection;
-import java.util.Collections;
-
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.ifri.bookmyhall.configs.UtilisateurPrincipal;
 import com.ifri.bookmyhall.models.Utilisateur;
 import com.ifri.bookmyhall.repositories.UtilisateurRepository;
 
@@ -23,8 +18,9 @@ import lombok.RequiredArgsConstructor;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UtilisateurRepository utilisateurRepository;
+    private final VersionsUtilisateurs versions;
 
-    /** Charge un utilisateur par son nom d'utilisateur. */
+    /** Charge un utilisateur par son nom d'utilisateur, avec ses champs d'affichage. */
     @Override
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -35,16 +31,6 @@ public class CustomUserDetailsService implements UserDetailsService {
             throw new UsernameNotFoundException("Compte désactivé: " + username);
         }
 
-        return new User(
-                utilisateur.getUsername(),
-                utilisateur.getPassword(),
-                utilisateur.getActif(),
-                true, true, true,
-                getAuthorities(utilisateur));
-    }
-
-    /** Convertit le rôle de l'utilisateur en authority. */
-    private Collection<? extends GrantedAuthority> getAuthorities(Utilisateur utilisateur) {
-        return Collections.singletonList(new SimpleGrantedAuthority(utilisateur.getRole().name()));
+        return new UtilisateurPrincipal(utilisateur, versions.version(utilisateur.getId()));
     }
 }
@@ -0,0 +1,111 @@
+package com.ifri.bookmyhall.services;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ifri.bookmyhall.dto.CreneauReservation;
+import com.ifri.bookmyhall.dto.DisponibiliteDTO;
+import com.ifri.bookmyhall.exceptions.ResourceNotFoundException;
+import com.ifri.bookmyhall.repositories.ReservationRepository;
+import com.ifri.bookmyhall.repositories.SalleRepository;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+/** Service de calcul du calendrier de disponibilité des salles (bitsets par jour). */
+public class DisponibiliteService {
+
+    public static final int MINUTES_PAR_CRENEAU = 15;
+    public static final int CRENEAUX_PAR_JOUR = 24 * 60 / MINUTES_PAR_CRENEAU;
+    public static final int JOURS_MAX = 92;
+    private static final int MOTS_PAR_JOUR = (CRENEAUX_PAR_JOUR + 63) / 64;
+
+    private final ReservationRepository reservationRepository;
+    private final SalleRepository salleRepository;
+    private final ReservationIntervalIndex reservationIndex;
+    private final SlotHoldService slotHoldService;
+
+    /**
+     * Calcule les créneaux libres/occupés (réservés ou retenus) d'une salle entre
+     * deux dates incluses, en une lecture au plus : l'existence de la salle n'est
+     * vérifiée que pour un calendrier vide, par le cache de second niveau.
+     */
+    public DisponibiliteDTO getDisponibilites(Long salleId, LocalDate debut, LocalDate fin) {
+        if (fin.isBefore(debut))
+            throw new IllegalArgumentException("Date de fin invalide");
+        int nombreJours = (int) ChronoUnit.DAYS.between(debut, fin) + 1;
+        if (nombreJours > JOURS_MAX)
+            throw new IllegalArgumentException("Période trop longue (" + JOURS_MAX + " jours maximum)");
+
+        List<CreneauReservation> creneaux = getCreneaux(salleId, debut, fin);
+        List<CreneauReservation> retenus = slotHoldService.creneauxRetenus(salleId, debut, fin);
+        if (creneaux.isEmpty() && retenus.isEmpty() && salleRepository.findById(salleId).isEmpty())
+            throw new ResourceNotFoundException("Salle non trouvée : " + salleId);
+
+        long[] occupation = new long[nombreJours * MOTS_PAR_JOUR];
+        for (CreneauReservation c : creneaux)
+            marquer(occupation, c, debut, fin);
+        for (CreneauReservation c : retenus)
+            marquer(occupation, c, debut, fin);
+
+        List<DisponibiliteDTO.Jour> jours = new ArrayList<>(nombreJours);
+        for (int j = 0; j < nombreJours; j++)
+            jours.add(new DisponibiliteDTO.Jour(debut.plusDays(j), versHexadecimal(occupation, j),
+                    CRENEAUX_PAR_JOUR - creneauxOccupes(occupation, j)));
+        return new DisponibiliteDTO(salleId, debut, fin, MINUTES_PAR_CRENEAU, jours);
+    }
+
+    /** Lit les créneaux depuis l'index mémoire, ou en une requête sur la période. */
+    private List<CreneauReservation> getCreneaux(Long salleId, LocalDate debut, LocalDate fin) {
+        if (reservationIndex.peutRepondre(debut))
+            return reservationIndex.creneauxEntre(salleId, debut, fin);
+        return reservationRepository.findCreneauxActifsBySalleBetween(salleId, debut, fin);
+    }
+
+    /** Marque les créneaux occupés par une réservation sur chaque jour de la période. */
+    private void marquer(long[] occupation, CreneauReservation c, LocalDate debut, LocalDate fin) {
+        int premier = minutes(c.heureDebut()) / MINUTES_PAR_CRENEAU;
+        int dernier = (minutes(c.heureFin()) + MINUTES_PAR_CRENEAU - 1) / MINUTES_PAR_CRENEAU;
+        LocalDate jour = c.dateDebut().isBefore(debut) ? debut : c.dateDebut();
+        LocalDate dernierJour = c.dateFinEffective().isAfter(fin) ? fin : c.dateFinEffective();
+
+        for (; !jour.isAfter(dernierJour); jour = jour.plusDays(1)) {
+            int base = (int) ChronoUnit.DAYS.between(debut, jour) * MOTS_PAR_JOUR * 64;
+            for (int creneau = premier; creneau < dernier; creneau++) {
+                int bit = base + creneau;
+                occupation[bit >>> 6] |= 1L << bit;
+            }
+        }
+    }
+
+    /** Compte les créneaux occupés d'un jour. */
+    private int creneauxOccupes(long[] occupation, int jour) {
+        int total = 0;
+        for (int mot = 0; mot < MOTS_PAR_JOUR; mot++)
+            total += Long.bitCount(occupation[jour * MOTS_PAR_JOUR + mot]);
+        return total;
+    }
+
+    /** Encode le bitset d'un jour en hexadécimal, quatre créneaux par caractère. */
+    private String versHexadecimal(long[] occupation, int jour) {
+        StringBuilder hex = new StringBuilder(CRENEAUX_PAR_JOUR / 4);
+        int base = jour * MOTS_PAR_JOUR * 64;
+        for (int creneau = 0; creneau < CRENEAUX_PAR_JOUR; creneau += 4) {
+            int bit = base + creneau;
+            hex.append(Character.forDigit((int) (occupation[bit >>> 6] >>> (bit & 63)) & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static int minutes(LocalTime heure) {
+        return heure.getHour() * 60 + heure.getMinute();
+    }
+}
@@ -0,0 +1,145 @@
+package com.ifri.bookmyhall.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ifri.bookmyhall.models.CleIdempotence;
+import com.ifri.bookmyhall.repositories.CleIdempotenceRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+/**
+ * Mémorise le résultat des créations de réservation par clé d'idempotence.
+ * Une requête rejouée (double clic, renvoi du navigateur) reçoit la
+ * réservation d'origine sans nouvel accès aux tables de réservation ; une
+ * requête identique encore en cours est attendue plutôt que ré-exécutée.
+ * En mode persistant, les clés sont aussi réservées en base pour les
+ * déploiements multi-nœuds.
+ */
+public class IdempotencyStore {
+
+    private static final int LONGUEUR_MAX_CLE = 100;
+
+    private final CleIdempotenceRepository cleIdempotenceRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.idempotency.capacity:10000}")
+    private int capacite;
+
+    @Value("${app.idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    @Value("${app.idempotency.persistent:false}")
+    private boolean persistant;
+
+    /** Durée maximale d'une requête en cours ; au-delà, sa clé peut être reprise. */
+    @Value("${app.idempotency.lease:PT1M}")
+    private Duration bail;
+
+    private BoundedCache<String, CompletableFuture<Long>> resultats;
+
+    @PostConstruct
+    void initialiser() {
+        resultats = new BoundedCache<>(capacite, ttl);
+    }
+
+    /**
+     * Exécute l'action une seule fois par clé et par utilisateur, et retourne
+     * l'identifiant de la réservation créée. Sans clé, l'action est exécutée
+     * directement. Un échec libère la clé pour permettre une nouvelle tentative.
+     */
+    public Long executer(String utilisateur, String cle, Supplier<Long> action) {
+        if (cle == null || cle.isBlank())
+            return action.get();
+        if (cle.length() > LONGUEUR_MAX_CLE)
+            throw new IllegalArgumentException("Clé d'idempotence invalide");
+
+        String portee = utilisateur + ":" + cle;
+        CompletableFuture<Long> resultat = new CompletableFuture<>();
+        CompletableFuture<Long> existant = resultats.putIfAbsent(portee, resultat);
+        if (existant != null) {
+            log.debug("Requête rejouée pour la clé {}", portee);
+            return attendre(existant);
+        }
+
+        try {
+            Long reservationId = persistant ? executerPartage(portee, action) : action.get();
+            resultat.complete(reservationId);
+            return reservationId;
+        } catch (RuntimeException e) {
+            resultats.invalidate(portee, resultat);
+            resultat.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Réserve la clé en base avant d'exécuter l'action, pour couvrir les autres
+     * nœuds. Le résultat est enregistré dans la transaction de l'action, bornée
+     * par le bail : une réservation validée a toujours sa clé renseignée, et une
+     * clé restée sans résultat au-delà du bail (nœud arrêté) est reprise.
+     */
+    private Long executerPartage(String portee, Supplier<Long> action) {
+        LocalDateTime maintenant = LocalDateTime.now();
+        if (cleIdempotenceRepository.reserver(portee) == 0
+                && cleIdempotenceRepository.reprendre(portee, maintenant, maintenant.minus(bail)) == 0) {
+            Long reservationId = cleIdempotenceRepository.findById(portee)
+                    .map(CleIdempotence::getReservationId).orElse(null);
+            if (reservationId == null)
+                throw new IllegalStateException("Requête déjà en cours de traitement");
+            return reservationId;
+        }
+
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setTimeout((int) bail.toSeconds());
+            return transaction.execute(statut -> {
+                Long reservationId = action.get();
+                cleIdempotenceRepository.enregistrerResultat(portee, reservationId);
+                return reservationId;
+            });
+        } catch (RuntimeException e) {
+            cleIdempotenceRepository.liberer(portee);
+            throw e;
+        }
+    }
+
+    /** Attend le résultat de la requête d'origine et en propage l'éventuel échec. */
+    private Long attendre(CompletableFuture<Long> resultat) {
+        try {
+            return resultat.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw e;
+        }
+    }
+
+    /** Purge les clés expirées (mémoire et base). */
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:PT1H}",
+            initialDelayString = "${app.idempotency.purge-interval:PT1H}")
+    public void purger() {
+        int memoire = resultats.purger();
+        int base = persistant ? cleIdempotenceRepository.purger(LocalDateTime.now().minus(ttl)) : 0;
+        log.debug("Clés d'idempotence purgées : {} en mémoire, {} en base", memoire, base);
+    }
+
+    /** Statistiques du cache des clés d'idempotence. */
+    public BoundedCache.Statistiques statistiques() {
+        return resultats.statistiques();
+    }
+}
@@ -0,0 +1,44 @@
+package com.ifri.bookmyhall.services;
+
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ifri.bookmyhall.exceptions.ConflitModificationException;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+/**
+ * Rejoue une transition d'état idempotente lorsqu'elle échoue sur un conflit
+ * de version. Chaque tentative s'exécute dans sa propre transaction et relit
+ * donc l'état courant ; aucun verrou n'est pris entre la lecture et l'écriture.
+ */
+public class OptimisticRetry {
+
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.optimistic-retry.max-attempts:3}")
+    private int tentativesMax;
+
+    /** Exécute l'action en transaction, avec au plus {@code tentativesMax} essais. */
+    public <T> T executer(Supplier<T> action) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int tentative = 1;; tentative++) {
+            try {
+                return transaction.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (tentative >= tentativesMax)
+                    throw new ConflitModificationException("Modification concurrente, veuillez réessayer", e);
+                log.debug("Conflit de version, nouvelle tentative ({}/{})", tentative + 1, tentativesMax);
+            }
+        }
+    }
+}
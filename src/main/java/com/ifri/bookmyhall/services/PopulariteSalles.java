@@ -0,0 +1,184 @@
+package com.ifri.bookmyhall.services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ifri.bookmyhall.dto.NombreReservationsSalle;
+import com.ifri.bookmyhall.events.ReservationModifiee;
+import com.ifri.bookmyhall.events.SalleModifiee;
+import com.ifri.bookmyhall.models.Reservation.StatutReservation;
+import com.ifri.bookmyhall.repositories.ReservationRepository;
+import com.ifri.bookmyhall.repositories.SalleRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+/**
+ * Classement des salles par nombre de réservations non annulées, au total ou
+ * sur les derniers jours (réservations créées dans la fenêtre). Chaque salle
+ * tient un compteur total et un anneau de {@link #FENETRE_MAX} compteurs
+ * journaliers : la mémoire est bornée par le nombre de salles. Les compteurs
+ * suivent les écritures validées et sont recalés périodiquement sur la base.
+ */
+public class PopulariteSalles {
+
+    /** Plus longue fenêtre glissante servie, en jours. */
+    public static final int FENETRE_MAX = 90;
+
+    private final ReservationRepository reservationRepository;
+    private final SalleRepository salleRepository;
+
+    private volatile Map<Long, Compteur> compteurs = new ConcurrentHashMap<>();
+
+    /**
+     * Les {@code k} salles les plus réservées, sur toute la période si
+     * {@code jours} est null, sinon sur les {@code jours} derniers jours.
+     */
+    public List<NombreReservationsSalle> populaires(int k, Integer jours) {
+        if (k <= 0)
+            return List.of();
+        if (jours != null && (jours < 1 || jours > FENETRE_MAX))
+            throw new IllegalArgumentException("Fenêtre invalide (1 à " + FENETRE_MAX + " jours)");
+        long aujourdhui = LocalDate.now().toEpochDay();
+        Comparator<NombreReservationsSalle> ordre = Comparator.comparingLong(NombreReservationsSalle::nombre)
+                .thenComparing(NombreReservationsSalle::salleId, Comparator.reverseOrder());
+
+        Map<Long, Compteur> parSalle = compteurs;
+        PriorityQueue<NombreReservationsSalle> meilleures = new PriorityQueue<>(Math.min(k, parSalle.size()) + 1,
+                ordre);
+        parSalle.forEach((salleId, compteur) -> {
+            long nombre = jours == null ? compteur.total() : compteur.depuis(aujourdhui - jours + 1, aujourdhui);
+            if (nombre == 0)
+                return;
+            meilleures.add(new NombreReservationsSalle(salleId, nombre));
+            if (meilleures.size() > k)
+                meilleures.poll();
+        });
+        List<NombreReservationsSalle> classement = new ArrayList<>(meilleures);
+        classement.sort(ordre.reversed());
+        return classement;
+    }
+
+    /** Identifiants des salles sans réservation non annulée. */
+    public List<Long> sansReservation() {
+        return compteurs.entrySet().stream().filter(e -> e.getValue().total() == 0).map(Map.Entry::getKey)
+                .sorted().toList();
+    }
+
+    /**
+     * Reporte une écriture validée sur les compteurs ; un changement de salle
+     * retire la réservation de l'ancienne salle et l'ajoute à la nouvelle.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surReservation(ReservationModifiee e) {
+        long jour = e.creeLe().toLocalDate().toEpochDay();
+        int avant = compte(e.statutAvant()) ? 1 : 0;
+        int apres = compte(e.statutApres()) ? 1 : 0;
+        Long salleAvant = e.creneauAvant() != null ? e.creneauAvant().salleId() : e.salleId();
+        if (salleAvant.equals(e.salleId())) {
+            ajouter(e.salleId(), jour, apres - avant);
+        } else {
+            ajouter(salleAvant, jour, -avant);
+            ajouter(e.salleId(), jour, apres);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surSalle(SalleModifiee e) {
+        if (e.disponibleAvant() == null)
+            compteurs.putIfAbsent(e.salleId(), new Compteur());
+        else if (e.disponibleApres() == null)
+            compteurs.remove(e.salleId());
+    }
+
+    /** Initialise les compteurs au démarrage de l'application. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        recaler();
+    }
+
+    /** Reconstruit les compteurs depuis la base (deux comptages groupés). */
+    @Scheduled(fixedDelayString = "${app.popularite.reconcile-interval:PT1H}",
+            initialDelayString = "${app.popularite.reconcile-interval:PT1H}")
+    public void recaler() {
+        LocalDate premierJour = LocalDate.now().minusDays(FENETRE_MAX - 1);
+        Map<Long, Compteur> nouveaux = new ConcurrentHashMap<>();
+        salleRepository.findAllIds().forEach(id -> nouveaux.put(id, new Compteur()));
+        reservationRepository.countActivesGroupBySalle().forEach(
+                n -> nouveaux.computeIfAbsent(n.salleId(), id -> new Compteur()).fixerTotal(n.nombre()));
+        reservationRepository.countActivesGroupBySalleEtJour(premierJour.atStartOfDay()).forEach(
+                n -> nouveaux.computeIfAbsent(n.salleId(), id -> new Compteur())
+                        .fixerJour(n.jour().toEpochDay(), n.nombre()));
+        compteurs = nouveaux;
+        log.debug("Popularité des salles recalée : {} salles", nouveaux.size());
+    }
+
+    private void ajouter(Long salleId, long jour, int delta) {
+        if (delta != 0)
+            compteurs.computeIfAbsent(salleId, id -> new Compteur()).ajouter(jour, delta);
+    }
+
+    private static boolean compte(StatutReservation statut) {
+        return statut != null && statut != StatutReservation.CANCELLED;
+    }
+
+    /** Compteur total et anneau de compteurs journaliers d'une salle. */
+    private static final class Compteur {
+
+        private final long[] jours = new long[FENETRE_MAX];
+        private final long[] epoques = new long[FENETRE_MAX];
+        private long total;
+
+        synchronized long total() {
+            return total;
+        }
+
+        /** Somme des jours de {@code premier} à {@code dernier} (jours epoch). */
+        synchronized long depuis(long premier, long dernier) {
+            long somme = 0;
+            for (long jour = premier; jour <= dernier; jour++) {
+                int i = (int) Math.floorMod(jour, FENETRE_MAX);
+                if (epoques[i] == jour)
+                    somme += jours[i];
+            }
+            return somme;
+        }
+
+        /** Ajoute un delta au total et au jour de création s'il est dans l'anneau. */
+        synchronized void ajouter(long jour, int delta) {
+            total += delta;
+            int i = (int) Math.floorMod(jour, FENETRE_MAX);
+            if (epoques[i] != jour) {
+                if (epoques[i] > jour)
+                    return;
+                epoques[i] = jour;
+                jours[i] = 0;
+            }
+            jours[i] += delta;
+        }
+
+        synchronized void fixerTotal(long nombre) {
+            total = nombre;
+        }
+
+        synchronized void fixerJour(long jour, long nombre) {
+            int i = (int) Math.floorMod(jour, FENETRE_MAX);
+            epoques[i] = jour;
+            jours[i] = nombre;
+        }
+    }
+}
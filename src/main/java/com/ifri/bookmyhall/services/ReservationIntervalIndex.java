@@ -0,0 +1,231 @@
+package com.ifri.bookmyhall.services;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ifri.bookmyhall.dto.CreneauReservation;
+import com.ifri.bookmyhall.models.Reservation;
+import com.ifri.bookmyhall.models.Reservation.StatutReservation;
+import com.ifri.bookmyhall.repositories.ReservationRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+/**
+ * Index mémoire des créneaux actifs par salle pour la détection des conflits.
+ * Seules les réservations non annulées se terminant après la date de
+ * chargement sont indexées ; les autres vérifications passent par la requête
+ * SQL.
+ */
+public class ReservationIntervalIndex {
+
+    private final ReservationRepository reservationRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.reservation-index.enabled:true}")
+    private boolean enabled;
+
+    private final Object verrou = new Object();
+    private volatile Map<Long, SalleCreneaux> salles = new ConcurrentHashMap<>();
+    private volatile LocalDate borneInferieure;
+    private volatile boolean pret;
+    private List<Consumer<Map<Long, SalleCreneaux>>> journal;
+
+    /** Charge l'index au démarrage de l'application. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        recharger();
+    }
+
+    /** Recharge périodiquement l'index depuis la base (écritures d'autres nœuds). */
+    @Scheduled(fixedDelayString = "${app.reservation-index.refresh-interval:PT15M}",
+            initialDelayString = "${app.reservation-index.refresh-interval:PT15M}")
+    public void rechargementPeriodique() {
+        recharger();
+    }
+
+    /**
+     * Reconstruit l'index depuis la base. Les écritures concurrentes sont
+     * journalisées puis rejouées sur le nouvel index avant la bascule.
+     */
+    public void recharger() {
+        if (!enabled)
+            return;
+        synchronized (verrou) {
+            if (journal != null)
+                return;
+            journal = new ArrayList<>();
+        }
+        LocalDate depuis = LocalDate.now().minusDays(1);
+        Map<Long, SalleCreneaux> nouvelles = new ConcurrentHashMap<>();
+        try {
+            long debut = System.nanoTime();
+            long[] total = { 0 };
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            tx.setReadOnly(true);
+            tx.executeWithoutResult(status -> {
+                try (Stream<CreneauReservation> stream = reservationRepository.streamCreneauxActifsDepuis(depuis)) {
+                    stream.forEach(c -> {
+                        nouvelles.computeIfAbsent(c.salleId(), id -> new SalleCreneaux()).ajouter(c);
+                        total[0]++;
+                    });
+                }
+            });
+            synchronized (verrou) {
+                journal.forEach(modification -> modification.accept(nouvelles));
+                journal = null;
+                salles = nouvelles;
+                borneInferieure = depuis;
+                pret = true;
+            }
+            log.info("Index des créneaux chargé : {} réservations en {} ms", total[0],
+                    (System.nanoTime() - debut) / 1_000_000);
+        } catch (RuntimeException e) {
+            synchronized (verrou) {
+                journal = null;
+            }
+            log.error("Erreur chargement index des créneaux", e);
+        }
+    }
+
+    /** Indique si l'index peut répondre pour une période commençant à cette date. */
+    public boolean peutRepondre(LocalDate debut) {
+        LocalDate borne = borneInferieure;
+        return pret && borne != null && !debut.isBefore(borne);
+    }
+
+    /** Vérifie s'il existe un créneau actif chevauchant la période demandée. */
+    public boolean existeConflit(Long salleId, LocalDate debut, LocalDate fin, LocalTime heureDebut,
+            LocalTime heureFin, Long excludeId) {
+        SalleCreneaux creneaux = salles.get(salleId);
+        return creneaux != null && creneaux.chevauche(debut, fin, heureDebut, heureFin, excludeId);
+    }
+
+    /** Retourne les créneaux actifs d'une salle qui recoupent une plage de dates. */
+    public List<CreneauReservation> creneauxEntre(Long salleId, LocalDate debut, LocalDate fin) {
+        SalleCreneaux creneaux = salles.get(salleId);
+        return creneaux != null ? creneaux.entre(debut, fin) : List.of();
+    }
+
+    /** Met à jour l'index après le commit de la transaction courante. */
+    public void indexer(Reservation res) {
+        Long salleId = res.getSalle().getId();
+        if (res.getStatut() == StatutReservation.CANCELLED) {
+            desindexer(salleId, res.getId());
+            return;
+        }
+        CreneauReservation creneau = new CreneauReservation(res.getId(), salleId, res.getDateDebut(),
+                res.getDateFin(), res.getHeureDebut(), res.getHeureFin());
+        apresCommit(index -> index.computeIfAbsent(salleId, id -> new SalleCreneaux()).ajouter(creneau));
+    }
+
+    /** Retire une réservation de l'index après le commit de la transaction courante. */
+    public void desindexer(Long salleId, Long reservationId) {
+        apresCommit(index -> {
+            SalleCreneaux creneaux = index.get(salleId);
+            if (creneaux != null)
+                creneaux.retirer(reservationId);
+        });
+    }
+
+    /** Applique une modification une fois la transaction validée. */
+    private void apresCommit(Consumer<Map<Long, SalleCreneaux>> modification) {
+        if (!enabled)
+            return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    appliquer(modification);
+                }
+            });
+        } else {
+            appliquer(modification);
+        }
+    }
+
+    /** Applique une modification sur l'index courant et la journalise si besoin. */
+    private void appliquer(Consumer<Map<Long, SalleCreneaux>> modification) {
+        try {
+            synchronized (verrou) {
+                modification.accept(salles);
+                if (journal != null)
+                    journal.add(modification);
+            }
+        } catch (RuntimeException e) {
+            pret = false;
+            log.error("Index des créneaux désynchronisé, repli sur la base", e);
+        }
+    }
+
+    /** Créneaux d'une salle triés par date de début. */
+    private static final class SalleCreneaux {
+
+        private final NavigableMap<LocalDate, Map<Long, CreneauReservation>> parDateDebut = new TreeMap<>();
+        private final Map<Long, CreneauReservation> parId = new HashMap<>();
+        private long dureeMaxJours;
+
+        synchronized void ajouter(CreneauReservation c) {
+            retirer(c.id());
+            parId.put(c.id(), c);
+            parDateDebut.computeIfAbsent(c.dateDebut(), d -> new HashMap<>()).put(c.id(), c);
+            dureeMaxJours = Math.max(dureeMaxJours, ChronoUnit.DAYS.between(c.dateDebut(), c.dateFinEffective()));
+        }
+
+        synchronized void retirer(Long id) {
+            CreneauReservation ancien = parId.remove(id);
+            if (ancien == null)
+                return;
+            Map<Long, CreneauReservation> jour = parDateDebut.get(ancien.dateDebut());
+            jour.remove(id);
+            if (jour.isEmpty())
+                parDateDebut.remove(ancien.dateDebut());
+        }
+
+        synchronized boolean chevauche(LocalDate debut, LocalDate fin, LocalTime hDebut, LocalTime hFin,
+                Long excludeId) {
+            for (Map<Long, CreneauReservation> jour : candidats(debut, fin).values())
+                for (CreneauReservation c : jour.values())
+                    if (!c.id().equals(excludeId) && c.chevauche(debut, fin, hDebut, hFin))
+                        return true;
+            return false;
+        }
+
+        synchronized List<CreneauReservation> entre(LocalDate debut, LocalDate fin) {
+            List<CreneauReservation> resultat = new ArrayList<>();
+            for (Map<Long, CreneauReservation> jour : candidats(debut, fin).values())
+                for (CreneauReservation c : jour.values())
+                    if (!c.dateFinEffective().isBefore(debut))
+                        resultat.add(c);
+            return resultat;
+        }
+
+        /** Seules les réservations débutant au plus dureeMaxJours avant la période peuvent la recouper. */
+        private NavigableMap<LocalDate, Map<Long, CreneauReservation>> candidats(LocalDate debut, LocalDate fin) {
+            return parDateDebut.subMap(debut.minusDays(dureeMaxJours), true, fin, true);
+        }
+    }
+}
@@ -1,15 +1,37 @@
 package com.ifri.bookmyhall.services;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import com.ifri.bookmyhall.dto.CreneauReservation;
+import com.ifri.bookmyhall.dto.PageCurseur;
 import com.ifri.bookmyhall.dto.ReservationDTO;
+import com.ifri.bookmyhall.dto.ReservationSerieDTO;
+import com.ifri.bookmyhall.dto.ResultatSerieDTO;
+import com.ifri.bookmyhall.dto.ResumeUtilisateurDTO;
+import com.ifri.bookmyhall.events.ReservationModifiee;
+import com.ifri.bookmyhall.events.UtilisateurModifie;
+import com.ifri.bookmyhall.exceptions.ConflitModificationException;
 import com.ifri.bookmyhall.exceptions.ResourceNotFoundException;
 import com.ifri.bookmyhall.models.Reservation;
 import com.ifri.bookmyhall.models.Reservation.StatutReservation;
@@ -19,6 +41,7 @@ import com.ifri.bookmyhall.repositories.ReservationRepository;
 import com.ifri.bookmyhall.repositories.SalleRepository;
 import com.ifri.bookmyhall.repositories.UtilisateurRepository;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -31,9 +54,38 @@ import lombok.extern.slf4j.Slf4j;
  */
 public class ReservationService {
 
+    /** Contrainte d'exclusion interdisant les chevauchements en base (db/reservations-creneaux.sql). */
+    private static final String CONTRAINTE_CHEVAUCHEMENT = "reservations_sans_chevauchement";
+    private static final LocalDate DATE_CURSEUR_DEBUT = LocalDate.of(9999, 12, 31);
+
     private final ReservationRepository reservationRepository;
     private final UtilisateurRepository utilisateurRepository;
     private final SalleRepository salleRepository;
+    private final ReservationIntervalIndex reservationIndex;
+    private final BookingCoordinator bookingCoordinator;
+    private final SlotHoldService slotHoldService;
+    private final OptimisticRetry optimisticRetry;
+    private final CompteursEstimes compteursEstimes;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** Nombre de réservations récentes du résumé utilisateur. */
+    private static final int RESUME_RECENTES = 5;
+
+    @Value("${app.user-summary.capacity:1000}")
+    private int capaciteResumes;
+
+    @Value("${app.user-summary.ttl:PT5M}")
+    private Duration ttlResumes;
+
+    private BoundedCache<Long, ResumeUtilisateurDTO> resumes;
+
+    /** Incrémentée à chaque invalidation de résumé, pour écarter les lectures concurrentes. */
+    private final AtomicLong generationResumes = new AtomicLong();
+
+    @PostConstruct
+    void initialiser() {
+        resumes = new BoundedCache<>(capaciteResumes, ttlResumes);
+    }
 
     /** Crée une nouvelle réservation après validation. */
     public ReservationDTO createReservation(ReservationDTO dto) {
@@ -42,21 +94,107 @@ public class ReservationService {
         Salle salle = salleRepository.findById(dto.getSalleId())
                 .orElseThrow(() -> new ResourceNotFoundException("Salle non trouvée"));
 
-        validateReservation(dto, salle, null);
+        bookingCoordinator.verrouiller(salle.getId());
+        validateReservation(dto, salle, null, user.getUsername());
 
         Reservation res = convertToEntity(dto, user, salle);
         res.setMontantTotal(salle.getPrixParJour().multiply(java.math.BigDecimal.valueOf(dto.getNombreDeJours())));
         res.setStatut(StatutReservation.PENDING);
 
-        Reservation saved = reservationRepository.save(res);
+        Reservation saved = enregistrerCreneau(res);
+        reservationIndex.indexer(saved);
+        eventPublisher.publishEvent(ReservationModifiee.creation(saved));
+        slotHoldService.liberer(user.getUsername(), salle.getId());
         log.info("Réservation créée : {}", saved.getId());
         return convertToDTO(saved);
     }
 
+    /**
+     * Crée une série de réservations d'une journée sur le même créneau. Toutes
+     * les occurrences sont vérifiées en une seule requête sur la période ; les
+     * occurrences libres sont insérées par lot dans la même transaction et les
+     * autres sont rapportées avec leur motif.
+     */
+    public ResultatSerieDTO createReservationsSerie(ReservationSerieDTO serie) {
+        List<LocalDate> dates = serie.getDatesOccurrences();
+        if (dates.isEmpty())
+            throw new IllegalArgumentException("Aucune occurrence");
+        if (dates.size() > ReservationSerieDTO.OCCURRENCES_MAX)
+            throw new IllegalArgumentException("Trop d'occurrences");
+        if (!serie.hasValidTimeRange())
+            throw new IllegalArgumentException("Heure de fin invalide");
+
+        Utilisateur user = utilisateurRepository.findById(serie.getUtilisateurId())
+                .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé"));
+        Salle salle = salleRepository.findById(serie.getSalleId())
+                .orElseThrow(() -> new ResourceNotFoundException("Salle non trouvée"));
+
+        bookingCoordinator.verrouiller(salle.getId());
+        if (!salle.isReservable())
+            throw new IllegalStateException("Salle indisponible");
+        if (serie.getNombrePersonnes() > salle.getCapacite())
+            throw new IllegalArgumentException("Dépassement capacité");
+
+        LocalDate premiere = dates.get(0);
+        LocalDate derniere = dates.get(dates.size() - 1);
+        List<CreneauReservation> existants = reservationIndex.peutRepondre(premiere)
+                ? reservationIndex.creneauxEntre(salle.getId(), premiere, derniere)
+                : reservationRepository.findCreneauxActifsBySalleBetween(salle.getId(), premiere, derniere);
+
+        ResultatSerieDTO resultat = new ResultatSerieDTO();
+        List<Reservation> acceptees = new ArrayList<>();
+        LocalDate aujourdhui = LocalDate.now();
+        for (LocalDate date : dates) {
+            if (!date.isAfter(aujourdhui)) {
+                resultat.getRefusees().put(date, "Date passée");
+            } else if (existants.stream().anyMatch(
+                    c -> c.chevauche(date, date, serie.getHeureDebut(), serie.getHeureFin()))) {
+                resultat.getRefusees().put(date, "Conflit de créneau");
+            } else if (slotHoldService.existeConflit(salle.getId(), date, date, serie.getHeureDebut(),
+                    serie.getHeureFin(), user.getUsername())) {
+                resultat.getRefusees().put(date, "Créneau en cours de réservation");
+            } else {
+                acceptees.add(Reservation.builder()
+                        .dateDebut(date).heureDebut(serie.getHeureDebut()).heureFin(serie.getHeureFin())
+                        .typeEvenement(serie.getTypeEvenement()).description(serie.getDescription())
+                        .nombrePersonnes(serie.getNombrePersonnes()).montantTotal(salle.getPrixParJour())
+                        .statut(StatutReservation.PENDING).utilisateur(user).salle(salle).build());
+            }
+        }
+
+        for (Reservation saved : enregistrerCreneaux(acceptees)) {
+            reservationIndex.indexer(saved);
+            eventPublisher.publishEvent(ReservationModifiee.creation(saved));
+            resultat.getCreees().add(convertToDTO(saved));
+        }
+        slotHoldService.liberer(user.getUsername(), salle.getId());
+        log.info("Série créée pour la salle {} : {} acceptée(s), {} refusée(s)", salle.getId(),
+                resultat.getCreees().size(), resultat.getRefusees().size());
+        return resultat;
+    }
+
+    /**
+     * Retient un créneau pendant la saisie de la réservation, après les mêmes
+     * vérifications qu'une réservation : salle existante et réservable, date
+     * future, durée bornée et aucune réservation active qui chevauche.
+     */
+    @Transactional(readOnly = true)
+    public SlotHoldService.Retenue retenirCreneau(String utilisateur, Long salleId, LocalDate dateDebut,
+            LocalDate dateFin, LocalTime heureDebut, LocalTime heureFin) {
+        Salle salle = salleRepository.findById(salleId)
+                .orElseThrow(() -> new ResourceNotFoundException("Salle non trouvée"));
+        if (!dateDebut.isAfter(LocalDate.now()))
+            throw new IllegalArgumentException("Date passée");
+
+        validerCreneau(ReservationDTO.builder().dateDebut(dateDebut).dateFin(dateFin).heureDebut(heureDebut)
+                .heureFin(heureFin).build(), salle, null, utilisateur);
+        return slotHoldService.retenir(utilisateur, salle.getId(), dateDebut, dateFin, heureDebut, heureFin);
+    }
+
     /** Récupère une réservation par son identifiant. */
     @Transactional(readOnly = true)
     public ReservationDTO getReservationById(Long id) {
-        return reservationRepository.findById(id)
+        return reservationRepository.findWithDetailsById(id)
                 .map(this::convertToDTO)
                 .orElseThrow(() -> new ResourceNotFoundException("Réservation non trouvée : " + id));
     }
@@ -64,15 +202,26 @@ public class ReservationService {
     /** Récupère toutes les réservations avec pagination. */
     @Transactional(readOnly = true)
     public Page<ReservationDTO> getAllReservations(Pageable pageable) {
-        return reservationRepository.findAll(pageable).map(this::convertToDTO);
+        return reservationRepository.findAllDTO(pageable);
+    }
+
+    /**
+     * Lit une page de réservations, filtrée ou non par statut, sans COUNT : le
+     * total provient des compteurs rafraîchis périodiquement.
+     */
+    @Transactional(readOnly = true)
+    public Page<ReservationDTO> getReservationsSansComptage(String statut, Pageable pageable) {
+        StatutReservation filtre = statutOuNull(statut);
+        Slice<ReservationDTO> tranche = filtre == null ? reservationRepository.findSliceDTO(pageable)
+                : reservationRepository.findSliceDTOByStatut(filtre, pageable);
+        return CompteursEstimes.enPage(tranche, compteursEstimes.reservations(filtre));
     }
 
     /** Récupère les réservations filtrées par statut. */
     @Transactional(readOnly = true)
     public Page<ReservationDTO> getReservationsByStatut(String statut, Pageable pageable) {
         try {
-            return reservationRepository.findByStatut(StatutReservation.valueOf(statut), pageable)
-                    .map(this::convertToDTO);
+            return reservationRepository.findDTOByStatut(StatutReservation.valueOf(statut), pageable);
         } catch (Exception e) {
             return getAllReservations(pageable);
         }
@@ -84,12 +233,11 @@ public class ReservationService {
         if (statut != null && !statut.isEmpty() && !statut.equalsIgnoreCase("all")) {
             try {
                 return reservationRepository
-                        .findByUtilisateurIdAndStatut(userId, StatutReservation.valueOf(statut), pageable)
-                        .map(this::convertToDTO);
+                        .findByUtilisateurIdAndStatut(userId, StatutReservation.valueOf(statut), pageable);
             } catch (Exception e) {
             }
         }
-        return reservationRepository.findByUtilisateurIdOrderByDateDesc(userId, pageable).map(this::convertToDTO);
+        return reservationRepository.findByUtilisateurIdOrderByDateDesc(userId, pageable);
     }
 
     /** Récupère les réservations d'un utilisateur (raccourci). */
@@ -101,23 +249,124 @@ public class ReservationService {
     /** Récupère les réservations à venir d'un utilisateur. */
     @Transactional(readOnly = true)
     public Page<ReservationDTO> getFutureReservationsByUtilisateur(Long userId, Pageable pageable) {
-        return reservationRepository.findFutureReservationsByUtilisateur(userId, LocalDate.now(), pageable)
-                .map(this::convertToDTO);
+        return reservationRepository.findFutureReservationsByUtilisateur(userId, LocalDate.now(), pageable);
+    }
+
+    /**
+     * Résumé du tableau de bord d'un utilisateur, lu en une requête puis gardé
+     * en cache jusqu'à la prochaine écriture le concernant (ou expiration). Une
+     * lecture croisée par une invalidation n'est pas mise en cache.
+     */
+    @Transactional(readOnly = true)
+    public ResumeUtilisateurDTO getResumeUtilisateur(Long utilisateurId) {
+        ResumeUtilisateurDTO resume = resumes.get(utilisateurId);
+        if (resume != null)
+            return resume;
+        long avant = generationResumes.get();
+        resume = lireResume(utilisateurId);
+        if (resume == null)
+            throw new ResourceNotFoundException("Utilisateur non trouvé : " + utilisateurId);
+        if (generationResumes.get() == avant)
+            resumes.put(utilisateurId, resume);
+        return resume;
+    }
+
+    /** Invalide le résumé de l'utilisateur concerné par une écriture de réservation. */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void surReservation(ReservationModifiee e) {
+        generationResumes.incrementAndGet();
+        resumes.invalidate(e.utilisateurId());
+    }
+
+    /** Invalide le résumé d'un utilisateur modifié (nom affiché) ou supprimé. */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void surUtilisateur(UtilisateurModifie e) {
+        generationResumes.incrementAndGet();
+        resumes.invalidate(e.utilisateurId());
+    }
+
+    private ResumeUtilisateurDTO lireResume(Long utilisateurId) {
+        List<ReservationRepository.LigneResume> lignes = reservationRepository.findResumeUtilisateur(utilisateurId,
+                LocalDate.now(), RESUME_RECENTES);
+        if (lignes.isEmpty())
+            return null;
+        ReservationRepository.LigneResume premiere = lignes.get(0);
+        Map<StatutReservation, Long> parStatut = new EnumMap<>(StatutReservation.class);
+        parStatut.put(StatutReservation.PENDING, premiere.getEnAttente());
+        parStatut.put(StatutReservation.CONFIRMED, premiere.getConfirmees());
+        parStatut.put(StatutReservation.CANCELLED, premiere.getAnnulees());
+        parStatut.put(StatutReservation.COMPLETED, premiere.getTerminees());
+
+        ReservationDTO prochaine = null;
+        List<ReservationDTO> recentes = new ArrayList<>();
+        for (ReservationRepository.LigneResume l : lignes) {
+            if (l.getId() == null)
+                continue;
+            ReservationDTO dto = ReservationDTO.builder().id(l.getId()).dateDebut(l.getDateDebut())
+                    .dateFin(l.getDateFin()).heureDebut(l.getHeureDebut()).heureFin(l.getHeureFin())
+                    .typeEvenement(l.getTypeEvenement()).statut(StatutReservation.valueOf(l.getStatut()))
+                    .nombrePersonnes(l.getNombrePersonnes()).montantTotal(l.getMontantTotal())
+                    .utilisateurId(utilisateurId).salleId(l.getSalleId()).salleNom(l.getSalleNom())
+                    .salleCapacite(l.getSalleCapacite()).build();
+            if ("PROCHAINE".equals(l.getRubrique()))
+                prochaine = dto;
+            else
+                recentes.add(dto);
+        }
+        return new ResumeUtilisateurDTO(utilisateurId, premiere.getPrenom(), premiere.getNom(),
+                Collections.unmodifiableMap(parStatut), prochaine, List.copyOf(recentes));
+    }
+
+    /**
+     * Liste les réservations par identifiant décroissant à partir d'un curseur,
+     * avec filtre optionnel par statut : le coût ne dépend pas de la profondeur.
+     */
+    @Transactional(readOnly = true)
+    public PageCurseur<ReservationDTO> getReservationsApres(String statut, String curseur, int taille) {
+        int n = PageCurseur.taille(taille);
+        return PageCurseur.de(reservationRepository.findDTOApres(PageCurseur.idApres(curseur), statutOuNull(statut),
+                Limit.of(n + 1)), n, r -> String.valueOf(r.getId()));
+    }
+
+    /**
+     * Liste les réservations d'un utilisateur (date décroissante) à partir d'un
+     * curseur « date_heure_id ».
+     */
+    @Transactional(readOnly = true)
+    public PageCurseur<ReservationDTO> getReservationsByUtilisateurApres(Long userId, String statut, String curseur,
+            int taille) {
+        int n = PageCurseur.taille(taille);
+        LocalDate date = DATE_CURSEUR_DEBUT;
+        LocalTime heure = LocalTime.MAX;
+        long id = Long.MAX_VALUE;
+        if (curseur != null && !curseur.isBlank()) {
+            String[] parties = curseur.split("_");
+            try {
+                date = LocalDate.parse(parties[0]);
+                heure = LocalTime.parse(parties[1]);
+                id = Long.parseLong(parties[2]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Curseur invalide : " + curseur);
+            }
+        }
+        return PageCurseur.de(reservationRepository.findByUtilisateurIdApres(userId, statutOuNull(statut), date, heure,
+                id, Limit.of(n + 1)), n, r -> r.getDateDebut() + "_" + r.getHeureDebut() + "_" + r.getId());
     }
 
     /** Récupère toutes les réservations pour une salle donnée. */
     @Transactional(readOnly = true)
     public List<ReservationDTO> getReservationsBySalle(Long id) {
-        Salle salle = salleRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Salle non trouvée"));
-        return reservationRepository.findBySalle(salle).stream().map(this::convertToDTO).collect(Collectors.toList());
+        if (!salleRepository.existsById(id))
+            throw new ResourceNotFoundException("Salle non trouvée");
+        return reservationRepository.findDTOBySalleId(id);
     }
 
     /** Récupère les réservations d'une salle pour une date précise. */
     @Transactional(readOnly = true)
     public List<ReservationDTO> getReservationsBySalleAndDate(Long id, LocalDate date) {
-        return reservationRepository.findBySalleIdAndDate(id, date).stream().map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return reservationRepository.findBySalleIdAndDate(id, date);
     }
 
     /** Met à jour une réservation existante. */
@@ -126,8 +375,13 @@ public class ReservationService {
                 .orElseThrow(() -> new ResourceNotFoundException("Réservation non trouvée : " + id));
         Salle salle = salleRepository.findById(dto.getSalleId())
                 .orElseThrow(() -> new ResourceNotFoundException("Salle non trouvée"));
+        if (dto.getVersion() != null && !dto.getVersion().equals(res.getVersion()))
+            throw new ConflitModificationException("La réservation a été modifiée entre-temps");
 
-        validateReservation(dto, salle, id);
+        Long ancienneSalleId = res.getSalle().getId();
+        bookingCoordinator.verrouiller(ancienneSalleId, salle.getId());
+        validateReservation(dto, salle, id, res.getUtilisateur().getUsername());
+        ReservationModifiee.Creneau creneauAvant = ReservationModifiee.Creneau.de(res);
 
         res.setDateDebut(dto.getDateDebut());
         res.setDateFin(dto.getDateFin());
@@ -139,56 +393,135 @@ public class ReservationService {
         res.setSalle(salle);
         res.setMontantTotal(salle.getPrixParJour().multiply(java.math.BigDecimal.valueOf(dto.getNombreDeJours())));
 
+        Reservation saved = enregistrerCreneau(res);
+        if (!ancienneSalleId.equals(salle.getId()))
+            reservationIndex.desindexer(ancienneSalleId, id);
+        reservationIndex.indexer(saved);
+        eventPublisher.publishEvent(ReservationModifiee.modification(saved, saved.getStatut(), creneauAvant));
         log.info("Réservation mise à jour : {}", id);
-        return convertToDTO(reservationRepository.save(res));
+        return convertToDTO(saved);
     }
 
-    /** Confirme une réservation (statut CONFIRMED). */
+    /** Confirme une réservation (statut CONFIRMED) ; sans effet si elle l'est déjà. */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ReservationDTO confirmerReservation(Long id) {
-        Reservation res = reservationRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Réservation non trouvée : " + id));
-        res.confirmerR();
-        return convertToDTO(reservationRepository.save(res));
+        return optimisticRetry.executer(() -> {
+            Reservation res = reservationRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Réservation non trouvée : " + id));
+            if (res.getStatut() == StatutReservation.CONFIRMED)
+                return convertToDTO(res);
+            StatutReservation avant = res.getStatut();
+            res.confirmerR();
+            Reservation saved = reservationRepository.saveAndFlush(res);
+            reservationIndex.indexer(saved);
+            eventPublisher.publishEvent(ReservationModifiee.transition(saved, avant));
+            return convertToDTO(saved);
+        });
     }
 
-    /** Annule une réservation (statut CANCELLED). */
+    /** Annule une réservation (statut CANCELLED) ; sans effet si elle l'est déjà. */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ReservationDTO annulerReservation(Long id) {
-        Reservation res = reservationRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Réservation non trouvée : " + id));
-        res.annulerR();
-        return convertToDTO(reservationRepository.save(res));
+        return optimisticRetry.executer(() -> {
+            Reservation res = reservationRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Réservation non trouvée : " + id));
+            if (res.getStatut() == StatutReservation.CANCELLED)
+                return convertToDTO(res);
+            StatutReservation avant = res.getStatut();
+            res.annulerR();
+            Reservation saved = reservationRepository.saveAndFlush(res);
+            reservationIndex.desindexer(saved.getSalle().getId(), id);
+            eventPublisher.publishEvent(ReservationModifiee.transition(saved, avant));
+            return convertToDTO(saved);
+        });
     }
 
     /** Supprime une réservation de la base de données. */
     public void deleteReservation(Long id) {
-        if (!reservationRepository.existsById(id))
-            throw new ResourceNotFoundException("Réservation non trouvée : " + id);
-        reservationRepository.deleteById(id);
+        Reservation res = reservationRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Réservation non trouvée : " + id));
+        Long salleId = res.getSalle().getId();
+        reservationRepository.delete(res);
+        reservationIndex.desindexer(salleId, id);
+        eventPublisher.publishEvent(ReservationModifiee.suppression(res));
         log.info("Réservation supprimée : {}", id);
     }
 
     /** Vérifie la validité d'une réservation (dispo, capacité, dates). */
-    private void validateReservation(ReservationDTO dto, Salle salle, Long excludeId) {
+    private void validateReservation(ReservationDTO dto, Salle salle, Long excludeId, String utilisateur) {
+        if (dto.getNombrePersonnes() > salle.getCapacite())
+            throw new IllegalArgumentException("Dépassement capacité");
+        validerCreneau(dto, salle, excludeId, utilisateur);
+    }
+
+    /** Vérifie la validité d'un créneau (dispo, dates, durée, conflits et retenues). */
+    private void validerCreneau(ReservationDTO dto, Salle salle, Long excludeId, String utilisateur) {
         if (!salle.isReservable())
             throw new IllegalStateException("Salle indisponible");
         if (!dto.hasValidTimeRange())
             throw new IllegalArgumentException("Heure de fin invalide");
         if (!dto.hasValidDateRange())
             throw new IllegalArgumentException("Date de fin invalide");
-        if (dto.getNombrePersonnes() > salle.getCapacite())
-            throw new IllegalArgumentException("Dépassement capacité");
+        if (dto.getNombreDeJours() > ReservationDTO.DUREE_MAX_JOURS)
+            throw new IllegalArgumentException("Durée maximale dépassée");
 
         LocalDate debut = dto.getDateDebut();
         LocalDate fin = dto.getDateFin() != null ? dto.getDateFin() : debut;
 
-        boolean conflict = excludeId != null
-                ? reservationRepository.existsConflictingReservationExcludingId(excludeId, salle.getId(), debut, fin,
-                        dto.getHeureDebut(), dto.getHeureFin())
-                : reservationRepository.existsConflictingReservation(salle.getId(), debut, fin, dto.getHeureDebut(),
-                        dto.getHeureFin());
-
-        if (conflict)
+        if (existeConflit(salle.getId(), debut, fin, dto.getHeureDebut(), dto.getHeureFin(), excludeId))
             throw new IllegalStateException("Conflit de créneau");
+        if (slotHoldService.existeConflit(salle.getId(), debut, fin, dto.getHeureDebut(), dto.getHeureFin(),
+                utilisateur))
+            throw new IllegalStateException("Créneau en cours de réservation par un autre utilisateur");
+    }
+
+    /** Vérifie les conflits via l'index mémoire, ou la base si l'index ne peut pas répondre. */
+    private boolean existeConflit(Long salleId, LocalDate debut, LocalDate fin, LocalTime heureDebut,
+            LocalTime heureFin, Long excludeId) {
+        if (reservationIndex.peutRepondre(debut))
+            return reservationIndex.existeConflit(salleId, debut, fin, heureDebut, heureFin, excludeId);
+
+        return excludeId != null
+                ? reservationRepository.existsConflictingReservationExcludingId(excludeId, salleId, debut, fin,
+                        heureDebut, heureFin)
+                : reservationRepository.existsConflictingReservation(salleId, debut, fin, heureDebut, heureFin);
+    }
+
+    /** Enregistre immédiatement le créneau pour traduire un chevauchement ou un conflit de version. */
+    private Reservation enregistrerCreneau(Reservation res) {
+        try {
+            return reservationRepository.saveAndFlush(res);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ConflitModificationException("La réservation a été modifiée entre-temps", e);
+        } catch (DataIntegrityViolationException e) {
+            if (String.valueOf(e.getMostSpecificCause().getMessage()).contains(CONTRAINTE_CHEVAUCHEMENT))
+                throw new IllegalStateException("Conflit de créneau");
+            throw e;
+        }
+    }
+
+    /** Enregistre un lot de créneaux (inserts JDBC groupés) et traduit un chevauchement refusé par la base. */
+    private List<Reservation> enregistrerCreneaux(List<Reservation> reservations) {
+        if (reservations.isEmpty())
+            return reservations;
+        try {
+            List<Reservation> saved = reservationRepository.saveAll(reservations);
+            reservationRepository.flush();
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            if (String.valueOf(e.getMostSpecificCause().getMessage()).contains(CONTRAINTE_CHEVAUCHEMENT))
+                throw new IllegalStateException("Conflit de créneau");
+            throw e;
+        }
+    }
+
+    /** Statut de filtrage, ou null pour toutes les réservations (valeur absente ou inconnue). */
+    private static StatutReservation statutOuNull(String statut) {
+        try {
+            return statut == null || statut.isEmpty() ? null : StatutReservation.valueOf(statut);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 
     /** Convertit une entité en DTO. */
@@ -201,7 +534,7 @@ public class ReservationService {
                 .statut(res.getStatut()).utilisateurId(res.getUtilisateur().getId())
                 .utilisateurNom(res.getUtilisateur().getNomComplet())
                 .salleId(res.getSalle().getId()).salleNom(res.getSalle().getNom())
-                .salleCapacite(res.getSalle().getCapacite()).build();
+                .salleCapacite(res.getSalle().getCapacite()).version(res.getVersion()).build();
     }
 
     /** Convertit un DTO en entité. */
@@ -6,17 +6,32 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.ifri.bookmyhall.dto.NombreReservationsSalle;
 import com.ifri.bookmyhall.dto.SalleDTO;
+import com.ifri.bookmyhall.events.SalleModifiee;
+import com.ifri.bookmyhall.exceptions.ConflitModificationException;
 import com.ifri.bookmyhall.exceptions.ResourceNotFoundException;
 import com.ifri.bookmyhall.models.Salle;
+import com.ifri.bookmyhall.repositories.ReservationRepository;
 import com.ifri.bookmyhall.repositories.SalleRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -30,6 +45,17 @@ import lombok.extern.slf4j.Slf4j;
 public class SalleService {
 
     private final SalleRepository salleRepository;
+    private final ReservationRepository reservationRepository;
+    private final BookingCoordinator bookingCoordinator;
+    private final OptimisticRetry optimisticRetry;
+    private final CompteursEstimes compteursEstimes;
+    private final PopulariteSalles popularite;
+    private final CatalogueSalles catalogue;
+    private final SlotHoldService slotHoldService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final String SALLE_MODIFIEE = "La salle a été modifiée par un autre utilisateur, "
+            + "veuillez recharger la page";
 
     @Value("${app.upload-dir}")
     private String uploadDir;
@@ -47,27 +73,38 @@ public class SalleService {
             salle.setDisponible(true);
 
         Salle saved = salleRepository.save(salle);
+        eventPublisher.publishEvent(new SalleModifiee(saved.getId(), null, saved.getDisponible()));
         log.info("Salle créée : {}", saved.getNom());
-        return convertToDTO(saved);
+        return convertToDTO(saved, 0);
     }
 
     /** Enregistre un fichier image sur le disque. */
     private String saveImageFile(MultipartFile file) {
-        try {
-            String ct = file.getContentType();
-            if (ct == null || (!ct.contains("image/jpeg") && !ct.contains("image/png") && !ct.contains("image/gif")))
-                throw new IllegalArgumentException("Format invalide");
+        String name = nommerImage(file);
+        writeImageFile(file, name);
+        return name;
+    }
 
-            if (file.getSize() > 10 * 1024 * 1024)
-                throw new IllegalArgumentException("Fichier trop lourd");
+    /** Vérifie le format et la taille d'une image et lui attribue un nom unique. */
+    private String nommerImage(MultipartFile file) {
+        String ct = file.getContentType();
+        if (ct == null || (!ct.contains("image/jpeg") && !ct.contains("image/png") && !ct.contains("image/gif")))
+            throw new IllegalArgumentException("Format invalide");
 
+        if (file.getSize() > 10 * 1024 * 1024)
+            throw new IllegalArgumentException("Fichier trop lourd");
+
+        return UUID.randomUUID().toString() + getExtension(file.getOriginalFilename());
+    }
+
+    /** Écrit un fichier image sur le disque sous le nom donné. */
+    private void writeImageFile(MultipartFile file, String name) {
+        try {
             Path path = Paths.get(uploadDir);
             if (!Files.exists(path))
                 Files.createDirectories(path);
 
-            String name = UUID.randomUUID().toString() + getExtension(file.getOriginalFilename());
             Files.copy(file.getInputStream(), path.resolve(name), StandardCopyOption.REPLACE_EXISTING);
-            return name;
         } catch (IOException e) {
             log.error("Erreur sauvegarde image", e);
             throw new RuntimeException("Erreur sauvegarde image", e);
@@ -79,46 +116,90 @@ public class SalleService {
         return (filename != null && filename.contains(".")) ? filename.substring(filename.lastIndexOf(".")) : "";
     }
 
-    /** Récupère une salle par son identifiant. */
+    /** Récupère une salle par son identifiant (servie par le catalogue en mémoire). */
     @Transactional(readOnly = true)
     public SalleDTO getSalleById(Long id) {
-        return salleRepository.findById(id).map(this::convertToDTO)
-                .orElseThrow(() -> new ResourceNotFoundException("Salle non trouvée : " + id));
+        SalleDTO salle = catalogue.salle(id, cle -> salleRepository.findById(cle).map(this::convertToDTO).orElse(null));
+        if (salle == null)
+            throw new ResourceNotFoundException("Salle non trouvée : " + id);
+        return salle;
     }
 
     /** Récupère toutes les salles avec pagination. */
     @Transactional(readOnly = true)
     public Page<SalleDTO> getAllSalles(Pageable p) {
-        return salleRepository.findAll(p).map(this::convertToDTO);
+        return salleRepository.findAllDTO(p);
+    }
+
+    /** Lit une page de salles sans COUNT (total rafraîchi périodiquement). */
+    @Transactional(readOnly = true)
+    public Page<SalleDTO> getAllSallesSansComptage(Pageable p) {
+        return CompteursEstimes.enPage(salleRepository.findSliceDTO(p), compteursEstimes.salles());
     }
 
-    /** Récupère les salles disponibles avec pagination. */
+    /** Récupère les salles disponibles avec pagination (servies par le catalogue en mémoire). */
     @Transactional(readOnly = true)
     public Page<SalleDTO> getSallesDisponibles(Pageable p) {
-        return salleRepository.findByDisponible(true, p).map(this::convertToDTO);
+        return catalogue.pageDisponibles(p, cle -> salleRepository.findDTOByDisponible(true, cle));
     }
 
-    /** Recherche des salles selon plusieurs critères. */
+    /**
+     * Recherche des salles selon plusieurs critères : identifiants de la page
+     * servis par le catalogue (par critères normalisés), puis fiches en mémoire.
+     * Le texte est cherché sans accents dans le nom, la localisation, les
+     * équipements et la description, par ordre de pertinence.
+     */
     @Transactional(readOnly = true)
-    public Page<SalleDTO> searchSalles(String loc, Integer cap, BigDecimal prix, Pageable p) {
-        return salleRepository.searchSalles(loc, cap, prix, true, p).map(this::convertToDTO);
+    public Page<SalleDTO> searchSalles(String texte, Integer cap, BigDecimal prix, Pageable p) {
+        Page<Long> ids = catalogue.idsRecherche(catalogue.recherche(texte, cap, prix, p),
+                cle -> salleRepository.searchSalleIds(cle.texte(), cle.capaciteMin(), cle.prixMax(), true,
+                        cle.pageable()));
+        return new PageImpl<>(catalogue.salles(ids.getContent(), this::lireFiches), p, ids.getTotalElements());
     }
 
-    /** Met à jour les informations d'une salle existante. */
+    /**
+     * Recherche des salles selon plusieurs critères, en ne gardant que celles
+     * libres sur la période et la plage horaire demandées (texte cherché comme
+     * pour {@link #searchSalles}). Les salles qu'un autre utilisateur retient sur
+     * ce créneau ne sont pas libres ; {@code utilisateur} peut être null. Sans
+     * heures, le créneau couvre toute la journée ; sans date de fin, la seule
+     * date de début.
+     */
+    @Transactional(readOnly = true)
+    public Page<SalleDTO> searchSallesLibres(String texte, Integer cap, BigDecimal prix, LocalDate dateDebut,
+            LocalDate dateFin, LocalTime heureDebut, LocalTime heureFin, String utilisateur, Pageable p) {
+        LocalDate fin = dateFin != null ? dateFin : dateDebut;
+        LocalTime hDebut = heureDebut != null ? heureDebut : LocalTime.MIN;
+        if (fin.isBefore(dateDebut))
+            throw new IllegalArgumentException("Date de fin invalide");
+        if (heureFin != null && !heureFin.isAfter(hDebut))
+            throw new IllegalArgumentException("Heure de fin invalide");
+
+        Long[] retenues = slotHoldService.sallesRetenues(dateDebut, fin, hDebut,
+                heureFin != null ? heureFin : LocalTime.MAX, utilisateur).toArray(Long[]::new);
+        return convertToDTOs(salleRepository.searchSallesLibres(CatalogueSalles.normaliserTexte(texte), cap, prix,
+                dateDebut, fin, hDebut, heureFin, retenues, p));
+    }
+
+    /**
+     * Met à jour les informations d'une salle existante. La version du
+     * formulaire doit correspondre à celle en base, sinon la modification est
+     * refusée plutôt que d'écraser celle d'un autre administrateur. Une
+     * nouvelle image n'est écrite qu'après la vérification de version, et
+     * l'ancienne n'est supprimée qu'après le commit.
+     */
     public SalleDTO updateSalle(Long id, SalleDTO dto, MultipartFile file) {
         Salle salle = salleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Salle non trouvée : " + id));
+        if (dto.getVersion() != null && !dto.getVersion().equals(salle.getVersion()))
+            throw new ConflitModificationException(SALLE_MODIFIEE);
 
         if (!salle.getNom().equals(dto.getNom()) && salleRepository.existsByNom(dto.getNom()))
             throw new IllegalArgumentException("Nom déjà utilisé");
 
-        if (file != null && !file.isEmpty()) {
-            if (salle.getImageFileName() != null)
-                deleteImageFile(salle.getImageFileName());
-            dto.setImageFileName(saveImageFile(file));
-        } else {
-            dto.setImageFileName(salle.getImageFileName());
-        }
+        String ancienneImage = salle.getImageFileName();
+        String nouvelleImage = file != null && !file.isEmpty() ? nommerImage(file) : null;
+        dto.setImageFileName(nouvelleImage != null ? nouvelleImage : ancienneImage);
 
         salle.setNom(dto.getNom());
         salle.setCapacite(dto.getCapacite());
@@ -127,10 +208,41 @@ public class SalleService {
         salle.setPrixParJour(dto.getPrixParJour());
         salle.setImageFileName(dto.getImageFileName());
         salle.setEquipements(dto.getEquipements());
+        Boolean disponibleAvant = salle.getDisponible();
         salle.setDisponible(dto.getDisponible());
 
-        log.info("Salle mise à jour : {}", id);
-        return convertToDTO(salleRepository.save(salle));
+        try {
+            Salle saved = salleRepository.saveAndFlush(salle);
+            if (nouvelleImage != null)
+                remplacerImage(file, nouvelleImage, ancienneImage);
+            eventPublisher.publishEvent(new SalleModifiee(id, disponibleAvant, saved.getDisponible()));
+            log.info("Salle mise à jour : {}", id);
+            return convertToDTO(saved);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ConflitModificationException(SALLE_MODIFIEE, e);
+        }
+    }
+
+    /**
+     * Écrit la nouvelle image ; à la fin de la transaction, supprime l'ancienne
+     * si elle est validée, sinon la nouvelle.
+     */
+    private void remplacerImage(MultipartFile file, String nouvelle, String ancienne) {
+        writeImageFile(file, nouvelle);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (ancienne != null)
+                deleteImageFile(ancienne);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED)
+                    deleteImageFile(nouvelle);
+                else if (ancienne != null)
+                    deleteImageFile(ancienne);
+            }
+        });
     }
 
     /** Supprime un fichier image du disque. */
@@ -142,21 +254,29 @@ public class SalleService {
         }
     }
 
-    /** Modifie le statut de disponibilité d'une salle. */
+    /** Modifie le statut de disponibilité d'une salle (rejouée en cas de conflit de version). */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public SalleDTO toggleDisponibilite(Long id, Boolean disp) {
-        Salle salle = salleRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Salle non trouvée : " + id));
-        salle.setDisponible(disp);
-        return convertToDTO(salleRepository.save(salle));
+        return optimisticRetry.executer(() -> {
+            Salle salle = salleRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Salle non trouvée : " + id));
+            Boolean disponibleAvant = salle.getDisponible();
+            salle.setDisponible(disp);
+            Salle saved = salleRepository.saveAndFlush(salle);
+            eventPublisher.publishEvent(new SalleModifiee(id, disponibleAvant, saved.getDisponible()));
+            return convertToDTO(saved);
+        });
     }
 
     /** Supprime une salle si elle n'a pas de réservations. */
     public void deleteSalle(Long id) {
         Salle salle = salleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Salle non trouvée : " + id));
-        if (!salle.getReservations().isEmpty())
+        if (reservationRepository.existsBySalleId(id))
             throw new IllegalStateException("Réservations en cours");
         salleRepository.deleteById(id);
+        bookingCoordinator.oublier(id);
+        eventPublisher.publishEvent(new SalleModifiee(id, salle.getDisponible(), null));
         log.info("Salle supprimée : {}", id);
     }
 
@@ -166,13 +286,53 @@ public class SalleService {
         return salleRepository.countSallesDisponibles();
     }
 
-    /** Convertit une entité en DTO. */
+    /**
+     * Salles les plus réservées, au total ou sur les derniers jours : le
+     * classement vient de la mémoire, seules les salles retenues sont lues. Le
+     * nombre de réservations des DTO est celui du classement.
+     */
+    @Transactional(readOnly = true)
+    public List<SalleDTO> getSallesPopulaires(int k, Integer jours) {
+        List<NombreReservationsSalle> classement = popularite.populaires(k, jours);
+        Map<Long, Salle> salles = salleRepository.findAllById(
+                classement.stream().map(NombreReservationsSalle::salleId).toList()).stream()
+                .collect(Collectors.toMap(Salle::getId, s -> s));
+        return classement.stream().filter(n -> salles.containsKey(n.salleId()))
+                .map(n -> convertToDTO(salles.get(n.salleId()), n.nombre())).toList();
+    }
+
+    /** Convertit une page d'entités en DTO, avec un seul comptage groupé des réservations. */
+    private Page<SalleDTO> convertToDTOs(Page<Salle> salles) {
+        Map<Long, Long> nombres = nombresReservations(salles.getContent().stream().map(Salle::getId).toList());
+        return salles.map(s -> convertToDTO(s, nombres.getOrDefault(s.getId(), 0L)));
+    }
+
+    /** Lit les fiches de plusieurs salles en deux requêtes. */
+    private List<SalleDTO> lireFiches(List<Long> ids) {
+        Map<Long, Long> nombres = nombresReservations(ids);
+        return salleRepository.findAllById(ids).stream()
+                .map(s -> convertToDTO(s, nombres.getOrDefault(s.getId(), 0L))).toList();
+    }
+
+    /** Nombre de réservations de chaque salle (salles sans réservation absentes). */
+    private Map<Long, Long> nombresReservations(List<Long> ids) {
+        return ids.isEmpty() ? Map.of()
+                : reservationRepository.countBySalleIds(ids).stream().collect(
+                        Collectors.toMap(NombreReservationsSalle::salleId, NombreReservationsSalle::nombre));
+    }
+
+    /** Convertit une entité en DTO (nombre de réservations compté en base). */
     private SalleDTO convertToDTO(Salle s) {
+        return convertToDTO(s, reservationRepository.countBySalleId(s.getId()));
+    }
+
+    /** Convertit une entité en DTO avec un nombre de réservations déjà connu. */
+    private SalleDTO convertToDTO(Salle s, long nombreReservations) {
         return SalleDTO.builder().id(s.getId()).nom(s.getNom()).capacite(s.getCapacite())
                 .localisation(s.getLocalisation()).description(s.getDescription())
                 .prixParJour(s.getPrixParJour()).imageFileName(s.getImageFileName())
                 .equipements(s.getEquipements()).disponible(s.getDisponible())
-                .nombreReservations((long) s.getReservations().size()).build();
+                .nombreReservations(nombreReservations).version(s.getVersion()).build();
     }
 
     /** Convertit un DTO en entité. */
@@ -0,0 +1,199 @@
+package com.ifri.bookmyhall.services;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ifri.bookmyhall.dto.CreneauReservation;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+/**
+ * Retenues temporaires de créneaux pendant la saisie d'une réservation. Une
+ * retenue par utilisateur et par salle, visible par la détection des conflits
+ * et le calendrier de disponibilité des autres utilisateurs, dans la limite de
+ * quelques salles par utilisateur. Les expirations sont ordonnées dans une
+ * DelayQueue : la purge ne dépile que les retenues échues, sans parcourir les
+ * autres. Les créneaux sont validés en amont (ReservationService.retenirCreneau).
+ */
+public class SlotHoldService {
+
+    /** Retenues actives par salle, puis par utilisateur. */
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<String, Retenue>> retenues = new ConcurrentHashMap<>();
+    /** Salles retenues par utilisateur, pour borner ses retenues actives. */
+    private final ConcurrentHashMap<String, Set<Long>> sallesParUtilisateur = new ConcurrentHashMap<>();
+    private final DelayQueue<Retenue> expirations = new DelayQueue<>();
+
+    @Value("${app.slot-hold.ttl:PT10M}")
+    private Duration ttl;
+
+    @Value("${app.slot-hold.max-per-user:3}")
+    private int maxParUtilisateur;
+
+    /**
+     * Retient un créneau pour l'utilisateur, en remplaçant sa retenue précédente
+     * sur la même salle. Échoue si un autre utilisateur retient un créneau qui
+     * chevauche ou si l'utilisateur retient déjà des créneaux sur trop de salles.
+     */
+    public Retenue retenir(String utilisateur, Long salleId, LocalDate dateDebut, LocalDate dateFin,
+            LocalTime heureDebut, LocalTime heureFin) {
+        if (dateFin != null && dateFin.isBefore(dateDebut))
+            throw new IllegalArgumentException("Date de fin invalide");
+        if (!heureFin.isAfter(heureDebut))
+            throw new IllegalArgumentException("Heure de fin invalide");
+
+        Retenue retenue = new Retenue(utilisateur,
+                new CreneauReservation(null, salleId, dateDebut, dateFin, heureDebut, heureFin),
+                System.nanoTime() + ttl.toNanos(), LocalDateTime.now().plus(ttl));
+        sallesParUtilisateur.compute(utilisateur, (u, salles) -> {
+            Set<Long> actives = salles != null ? salles : ConcurrentHashMap.newKeySet();
+            actives.removeIf(id -> !retientActivement(id, u));
+            if (!actives.contains(salleId) && actives.size() >= maxParUtilisateur)
+                throw new IllegalStateException("Trop de créneaux retenus");
+            Retenue[] remplacee = new Retenue[1];
+            retenues.compute(salleId, (id, parUtilisateur) -> {
+                ConcurrentHashMap<String, Retenue> salle = parUtilisateur != null ? parUtilisateur
+                        : new ConcurrentHashMap<>();
+                if (chevauche(salle, u, dateDebut, retenue.creneau().dateFinEffective(), heureDebut, heureFin))
+                    throw new IllegalStateException("Créneau en cours de réservation par un autre utilisateur");
+                remplacee[0] = salle.put(u, retenue);
+                return salle;
+            });
+            actives.add(salleId);
+            // Une retenue renouvelée ne laisse pas l'ancienne dans la file des expirations.
+            if (remplacee[0] != null)
+                expirations.remove(remplacee[0]);
+            expirations.add(retenue);
+            return actives;
+        });
+        return retenue;
+    }
+
+    /** Libère la retenue de l'utilisateur sur la salle (après commit si une transaction est active). */
+    public void liberer(String utilisateur, Long salleId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    retirer(salleId, utilisateur, null);
+                }
+            });
+        } else {
+            retirer(salleId, utilisateur, null);
+        }
+    }
+
+    /** Vérifie si un autre utilisateur retient un créneau qui chevauche. */
+    public boolean existeConflit(Long salleId, LocalDate debut, LocalDate fin, LocalTime heureDebut,
+            LocalTime heureFin, String utilisateurExclu) {
+        Map<String, Retenue> salle = retenues.get(salleId);
+        return salle != null && chevauche(salle, utilisateurExclu, debut, fin, heureDebut, heureFin);
+    }
+
+    /** Salles où un autre utilisateur retient un créneau qui chevauche la période. */
+    public List<Long> sallesRetenues(LocalDate debut, LocalDate fin, LocalTime heureDebut, LocalTime heureFin,
+            String utilisateurExclu) {
+        return retenues.entrySet().stream()
+                .filter(e -> chevauche(e.getValue(), utilisateurExclu, debut, fin, heureDebut, heureFin))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /** Créneaux retenus et non expirés d'une salle entre deux dates incluses. */
+    public List<CreneauReservation> creneauxRetenus(Long salleId, LocalDate debut, LocalDate fin) {
+        Map<String, Retenue> salle = retenues.get(salleId);
+        if (salle == null)
+            return List.of();
+        long maintenant = System.nanoTime();
+        return salle.values().stream()
+                .filter(r -> !r.expireeA(maintenant))
+                .map(Retenue::creneau)
+                .filter(c -> !c.dateDebut().isAfter(fin) && !c.dateFinEffective().isBefore(debut))
+                .toList();
+    }
+
+    /** Retire les retenues échues, dans l'ordre de leur expiration. */
+    @Scheduled(fixedDelayString = "${app.slot-hold.purge-interval:PT30S}")
+    public void purger() {
+        int purgees = 0;
+        for (Retenue retenue; (retenue = expirations.poll()) != null; purgees++)
+            retirer(retenue.creneau().salleId(), retenue.utilisateur(), retenue);
+        if (purgees > 0)
+            log.debug("{} retenue(s) de créneau expirée(s)", purgees);
+    }
+
+    /** Retire la retenue de l'utilisateur, ou seulement celle donnée si elle n'a pas été remplacée. */
+    private void retirer(Long salleId, String utilisateur, Retenue attendue) {
+        retenues.computeIfPresent(salleId, (id, salle) -> {
+            if (attendue == null) {
+                Retenue retiree = salle.remove(utilisateur);
+                if (retiree != null)
+                    expirations.remove(retiree);
+            } else
+                salle.remove(utilisateur, attendue);
+            return salle.isEmpty() ? null : salle;
+        });
+        sallesParUtilisateur.computeIfPresent(utilisateur, (u, salles) -> {
+            salles.removeIf(id -> !retientActivement(id, u));
+            return salles.isEmpty() ? null : salles;
+        });
+    }
+
+    /** Nombre de retenues en attente d'expiration. */
+    int expirationsEnAttente() {
+        return expirations.size();
+    }
+
+    /** Vérifie si l'utilisateur retient un créneau non expiré sur la salle. */
+    private boolean retientActivement(Long salleId, String utilisateur) {
+        Map<String, Retenue> salle = retenues.get(salleId);
+        Retenue retenue = salle != null ? salle.get(utilisateur) : null;
+        return retenue != null && !retenue.expireeA(System.nanoTime());
+    }
+
+    private static boolean chevauche(Map<String, Retenue> salle, String utilisateurExclu, LocalDate debut,
+            LocalDate fin, LocalTime heureDebut, LocalTime heureFin) {
+        long maintenant = System.nanoTime();
+        for (Retenue retenue : salle.values()) {
+            if (!retenue.expireeA(maintenant) && !retenue.utilisateur().equals(utilisateurExclu)
+                    && retenue.creneau().chevauche(debut, fin, heureDebut, heureFin))
+                return true;
+        }
+        return false;
+    }
+
+    /** Créneau retenu par un utilisateur jusqu'à son expiration. */
+    public record Retenue(String utilisateur, CreneauReservation creneau, long echeance, LocalDateTime expireA)
+            implements Delayed {
+
+        boolean expireeA(long maintenant) {
+            return maintenant - echeance >= 0;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(echeance - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed autre) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), autre.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.ifri.bookmyhall.services;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ifri.bookmyhall.dto.StatistiquesDTO;
+import com.ifri.bookmyhall.events.ReservationModifiee;
+import com.ifri.bookmyhall.events.SalleModifiee;
+import com.ifri.bookmyhall.events.UtilisateurModifie;
+import com.ifri.bookmyhall.models.Reservation.StatutReservation;
+import com.ifri.bookmyhall.models.Role;
+import com.ifri.bookmyhall.repositories.ReservationRepository;
+import com.ifri.bookmyhall.repositories.SalleRepository;
+import com.ifri.bookmyhall.repositories.UtilisateurRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+/**
+ * Compteurs du tableau de bord tenus en mémoire : mis à jour après validation
+ * des écritures des services, puis recalés périodiquement sur la base (écritures
+ * d'autres nœuds ou hors services). Une écriture validée pendant un recalage
+ * peut être comptée deux fois ou perdue jusqu'au recalage suivant.
+ */
+public class StatistiquesTableauBord {
+
+    private final ReservationRepository reservationRepository;
+    private final SalleRepository salleRepository;
+    private final UtilisateurRepository utilisateurRepository;
+
+    private final Map<StatutReservation, AtomicLong> reservations = compteurs(StatutReservation.class);
+    private final Map<Role, AtomicLong> utilisateurs = compteurs(Role.class);
+    private final AtomicLong salles = new AtomicLong();
+    private final AtomicLong sallesDisponibles = new AtomicLong();
+
+    /** Instantané des compteurs, sans accès à la base. */
+    public StatistiquesDTO instantane() {
+        Map<StatutReservation, Long> parStatut = valeurs(reservations, StatutReservation.class);
+        Map<Role, Long> parRole = valeurs(utilisateurs, Role.class);
+        return new StatistiquesDTO(somme(parRole), parRole, salles.get(), sallesDisponibles.get(),
+                somme(parStatut), parStatut);
+    }
+
+    /** Nombre de réservations d'un statut. */
+    public long reservations(StatutReservation statut) {
+        return reservations.get(statut).get();
+    }
+
+    /** Nombre d'utilisateurs d'un rôle. */
+    public long utilisateurs(Role role) {
+        return utilisateurs.get(role).get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surReservation(ReservationModifiee e) {
+        if (e.statutAvant() != null)
+            reservations.get(e.statutAvant()).decrementAndGet();
+        if (e.statutApres() != null)
+            reservations.get(e.statutApres()).incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surSalle(SalleModifiee e) {
+        if (e.disponibleAvant() == null)
+            salles.incrementAndGet();
+        if (e.disponibleApres() == null)
+            salles.decrementAndGet();
+        if (Boolean.TRUE.equals(e.disponibleAvant()))
+            sallesDisponibles.decrementAndGet();
+        if (Boolean.TRUE.equals(e.disponibleApres()))
+            sallesDisponibles.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surUtilisateur(UtilisateurModifie e) {
+        if (e.roleAvant() != null)
+            utilisateurs.get(e.roleAvant()).decrementAndGet();
+        if (e.roleApres() != null)
+            utilisateurs.get(e.roleApres()).incrementAndGet();
+    }
+
+    /** Initialise les compteurs au démarrage de l'application. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        recaler();
+    }
+
+    /** Recale périodiquement les compteurs sur la base. */
+    @Scheduled(fixedDelayString = "${app.dashboard-stats.reconcile-interval:PT10M}",
+            initialDelayString = "${app.dashboard-stats.reconcile-interval:PT10M}")
+    public void recaler() {
+        StatistiquesDTO avant = instantane();
+        Map<StatutReservation, Long> parStatut = new EnumMap<>(StatutReservation.class);
+        reservationRepository.countGroupByStatut().forEach(n -> parStatut.put(n.statut(), n.nombre()));
+        reservations.forEach((statut, compteur) -> compteur.set(parStatut.getOrDefault(statut, 0L)));
+        utilisateurs.forEach((role, compteur) -> compteur.set(utilisateurRepository.countByRole(role)));
+        salles.set(salleRepository.count());
+        sallesDisponibles.set(salleRepository.countSallesDisponibles());
+
+        StatistiquesDTO apres = instantane();
+        if (!apres.equals(avant))
+            log.info("Statistiques recalées : {} -> {}", avant, apres);
+    }
+
+    private static <E extends Enum<E>> Map<E, AtomicLong> compteurs(Class<E> type) {
+        Map<E, AtomicLong> compteurs = new EnumMap<>(type);
+        for (E valeur : type.getEnumConstants())
+            compteurs.put(valeur, new AtomicLong());
+        return compteurs;
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> valeurs(Map<E, AtomicLong> compteurs, Class<E> type) {
+        Map<E, Long> valeurs = new EnumMap<>(type);
+        compteurs.forEach((cle, compteur) -> valeurs.put(cle, compteur.get()));
+        return valeurs;
+    }
+
+    private static long somme(Map<?, Long> valeurs) {
+        return valeurs.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
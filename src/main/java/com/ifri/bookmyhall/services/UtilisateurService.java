@@ -1,13 +1,19 @@
 package com.ifri.bookmyhall.services;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.ifri.bookmyhall.dto.PageCurseur;
 import com.ifri.bookmyhall.dto.UtilisateurDTO;
+import com.ifri.bookmyhall.events.ReservationModifiee;
+import com.ifri.bookmyhall.events.UtilisateurModifie;
 import com.ifri.bookmyhall.exceptions.ResourceNotFoundException;
+import com.ifri.bookmyhall.models.Reservation;
 import com.ifri.bookmyhall.models.Role;
 import com.ifri.bookmyhall.models.Utilisateur;
 import com.ifri.bookmyhall.repositories.UtilisateurRepository;
@@ -24,6 +30,8 @@ public class UtilisateurService {
 
     private final UtilisateurRepository utilisateurRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CompteursEstimes compteursEstimes;
+    private final ApplicationEventPublisher eventPublisher;
 
     /** Crée un nouvel utilisateur avec encodage du mot de passe. */
     public UtilisateurDTO createUtilisateur(UtilisateurDTO dto) {
@@ -40,6 +48,7 @@ public class UtilisateurService {
             user.setActif(true);
 
         Utilisateur saved = utilisateurRepository.save(user);
+        eventPublisher.publishEvent(new UtilisateurModifie(saved.getId(), null, saved.getRole()));
         log.info("Utilisateur créé : {}", saved.getUsername());
         return convertToDTO(saved);
     }
@@ -70,13 +79,27 @@ public class UtilisateurService {
     /** Récupère tous les utilisateurs avec pagination. */
     @Transactional(readOnly = true)
     public Page<UtilisateurDTO> getAllUtilisateurs(Pageable pageable) {
-        return utilisateurRepository.findAll(pageable).map(this::convertToDTO);
+        return utilisateurRepository.findAllDTO(pageable);
+    }
+
+    /** Lit une page d'utilisateurs sans COUNT (total rafraîchi périodiquement). */
+    @Transactional(readOnly = true)
+    public Page<UtilisateurDTO> getAllUtilisateursSansComptage(Pageable pageable) {
+        return CompteursEstimes.enPage(utilisateurRepository.findSliceDTO(pageable), compteursEstimes.utilisateurs());
+    }
+
+    /** Liste les utilisateurs par identifiant décroissant à partir d'un curseur. */
+    @Transactional(readOnly = true)
+    public PageCurseur<UtilisateurDTO> getUtilisateursApres(String curseur, int taille) {
+        int n = PageCurseur.taille(taille);
+        return PageCurseur.de(utilisateurRepository.findDTOApres(PageCurseur.idApres(curseur), Limit.of(n + 1)), n,
+                u -> String.valueOf(u.getId()));
     }
 
     /** Récupère les utilisateurs filtrés par rôle. */
     @Transactional(readOnly = true)
     public Page<UtilisateurDTO> getUtilisateursByRole(Role role, Pageable pageable) {
-        return utilisateurRepository.findByRole(role, pageable).map(this::convertToDTO);
+        return utilisateurRepository.findDTOByRole(role, pageable);
     }
 
     /** Met à jour les informations d'un utilisateur existant. */
@@ -94,6 +117,7 @@ public class UtilisateurService {
         user.setEmail(dto.getEmail());
         user.setUsername(dto.getUsername());
         user.setTelephone(dto.getTelephone());
+        Role roleAvant = user.getRole();
         user.setRole(dto.getRole());
         user.setActif(dto.getActif());
 
@@ -102,6 +126,7 @@ public class UtilisateurService {
         }
 
         Utilisateur updated = utilisateurRepository.save(user);
+        eventPublisher.publishEvent(new UtilisateurModifie(id, roleAvant, updated.getRole()));
         log.info("Utilisateur mis à jour : {}", id);
         return convertToDTO(updated);
     }
@@ -110,8 +135,11 @@ public class UtilisateurService {
     public UtilisateurDTO changeRole(Long id, Role newRole) {
         Utilisateur user = utilisateurRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé : " + id));
+        Role roleAvant = user.getRole();
         user.setRole(newRole);
-        return convertToDTO(utilisateurRepository.save(user));
+        Utilisateur saved = utilisateurRepository.save(user);
+        eventPublisher.publishEvent(new UtilisateurModifie(id, roleAvant, saved.getRole()));
+        return convertToDTO(saved);
     }
 
     /** Active ou désactive un compte utilisateur. */
@@ -119,14 +147,19 @@ public class UtilisateurService {
         Utilisateur user = utilisateurRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé : " + id));
         user.setActif(actif);
-        return convertToDTO(utilisateurRepository.save(user));
+        Utilisateur saved = utilisateurRepository.save(user);
+        eventPublisher.publishEvent(new UtilisateurModifie(id, saved.getRole(), saved.getRole()));
+        return convertToDTO(saved);
     }
 
-    /** Supprime un utilisateur de la base de données. */
+    /** Supprime un utilisateur de la base de données, avec ses réservations. */
     public void deleteUtilisateur(Long id) {
-        if (!utilisateurRepository.existsById(id))
-            throw new ResourceNotFoundException("Utilisateur non trouvé : " + id);
-        utilisateurRepository.deleteById(id);
+        Utilisateur user = utilisateurRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé : " + id));
+        for (Reservation res : user.getReservations())
+            eventPublisher.publishEvent(ReservationModifiee.suppression(res));
+        utilisateurRepository.delete(user);
+        eventPublisher.publishEvent(new UtilisateurModifie(id, user.getRole(), null));
         log.info("Utilisateur supprimé : {}", id);
     }
 
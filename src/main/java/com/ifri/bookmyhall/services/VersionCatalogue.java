@@ -0,0 +1,110 @@
+package com.ifri.bookmyhall.services;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ifri.bookmyhall.events.ReservationModifiee;
+import com.ifri.bookmyhall.events.SalleModifiee;
+import com.ifri.bookmyhall.repositories.SalleRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+/**
+ * Versions du catalogue des salles, pour les requêtes conditionnelles des
+ * pages de salles. Chaque écriture validée d'une salle fait avancer la version
+ * du catalogue et celle de la salle ; une réservation fait avancer la version
+ * des disponibilités, et sa création, sa suppression ou le changement de son
+ * créneau celles de ses salles avant et après (nombre de réservations affiché). Les versions sont propres à chaque nœud et
+ * à chaque démarrage : les écritures d'autres nœuds ne sont pas vues.
+ */
+public class VersionCatalogue {
+
+    private final SalleRepository salleRepository;
+
+    /** Distingue les versions d'un démarrage à l'autre. */
+    private final String demarrage = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong compteur = new AtomicLong();
+    private final Map<Long, Version> salles = new ConcurrentHashMap<>();
+
+    private final Version initiale = new Version(0, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+    private volatile Version catalogue = initiale;
+    private volatile Version disponibilites = initiale;
+
+    /** Version de la liste des salles. */
+    public Version catalogue() {
+        return catalogue;
+    }
+
+    /** Version des recherches de salles libres sur une période. */
+    public Version disponibilites() {
+        return Version.max(catalogue, disponibilites);
+    }
+
+    /** Version de la fiche d'une salle. */
+    public Version salle(Long id) {
+        return salles.getOrDefault(id, initiale);
+    }
+
+    /** Identifiant du démarrage, à inclure dans les validateurs. */
+    public String demarrage() {
+        return demarrage;
+    }
+
+    /**
+     * La version initiale du catalogue date de la dernière modification d'une
+     * salle ; celles des disponibilités et des fiches restent à la date de
+     * démarrage, faute de trace des réservations supprimées.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        salleRepository.findDerniereModification().ifPresent(date -> {
+            Instant modifieLe = date.atZone(ZoneId.systemDefault()).toInstant().truncatedTo(ChronoUnit.SECONDS);
+            if (catalogue.numero() == 0)
+                catalogue = new Version(0, modifieLe);
+            log.debug("Catalogue des salles modifié le {}", modifieLe);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surSalle(SalleModifiee e) {
+        Version v = suivante();
+        catalogue = v;
+        salles.put(e.salleId(), v);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surReservation(ReservationModifiee e) {
+        Version v = suivante();
+        disponibilites = v;
+        if (e.creneauModifie()) {
+            salles.put(e.salleAvant(), v);
+            salles.put(e.salleId(), v);
+        }
+    }
+
+    private Version suivante() {
+        return new Version(compteur.incrementAndGet(), Instant.now().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /** Numéro croissant d'une version et date de l'écriture qui l'a produite. */
+    public record Version(long numero, Instant modifieLe) {
+
+        static Version max(Version a, Version b) {
+            return new Version(Math.max(a.numero, b.numero),
+                    a.modifieLe.isAfter(b.modifieLe) ? a.modifieLe : b.modifieLe);
+        }
+    }
+}
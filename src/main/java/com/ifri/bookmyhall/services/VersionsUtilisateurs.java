@@ -0,0 +1,57 @@
+package com.ifri.bookmyhall.services;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ifri.bookmyhall.configs.UtilisateurPrincipal;
+import com.ifri.bookmyhall.events.UtilisateurModifie;
+import com.ifri.bookmyhall.repositories.UtilisateurRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+/**
+ * Numéros de version des utilisateurs, incrémentés après chaque écriture
+ * validée (mise à jour, rôle, activation, suppression). Un principal de
+ * session portant un numéro dépassé est rechargé ; les autres sont servis
+ * sans accès à la base. Les numéros sont propres à chaque nœud.
+ */
+public class VersionsUtilisateurs {
+
+    private final UtilisateurRepository utilisateurRepository;
+
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    /** Version courante d'un utilisateur. */
+    public long version(Long utilisateurId) {
+        return versions.getOrDefault(utilisateurId, 0L);
+    }
+
+    /** Vrai si le principal a été chargé après la dernière écriture de l'utilisateur. */
+    public boolean estAJour(UtilisateurPrincipal principal) {
+        return principal.getVersion() == version(principal.getId());
+    }
+
+    /** Recharge un principal depuis la base ; vide si l'utilisateur est supprimé ou désactivé. */
+    @Transactional(readOnly = true)
+    public Optional<UtilisateurPrincipal> recharger(Long utilisateurId) {
+        long version = version(utilisateurId);
+        return utilisateurRepository.findById(utilisateurId)
+                .filter(u -> Boolean.TRUE.equals(u.getActif()))
+                .map(u -> new UtilisateurPrincipal(u, version));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surUtilisateur(UtilisateurModifie e) {
+        long version = versions.merge(e.utilisateurId(), 1L, Long::sum);
+        log.debug("Utilisateur {} modifié, version {}", e.utilisateurId(), version);
+    }
+}
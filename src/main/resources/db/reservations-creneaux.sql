@@ -0,0 +1,58 @@
+-- =====================================================================
+-- Créneaux des réservations sous forme de plages (exécuté après Hibernate)
+-- =====================================================================
+-- Une réservation occupe chaque jour de [date_debut, date_fin] sur la plage
+-- horaire [heure_debut, heure_fin). Deux réservations d'une même salle se
+-- chevauchent si leurs plages de jours ET leurs plages horaires se recoupent :
+-- la contrainte d'exclusion GiST l'interdit pour les réservations actives et
+-- son index sert aux requêtes de conflit.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO $$
+BEGIN
+    CREATE TYPE timerange AS RANGE (subtype = time);
+EXCEPTION
+    WHEN duplicate_object THEN NULL;
+END
+$$;
+
+ALTER TABLE reservations
+    ADD COLUMN IF NOT EXISTS jours daterange
+        GENERATED ALWAYS AS (daterange(date_debut, COALESCE(date_fin, date_debut), '[]')) STORED;
+
+ALTER TABLE reservations
+    ADD COLUMN IF NOT EXISTS heures timerange
+        GENERATED ALWAYS AS (timerange(heure_debut, heure_fin, '[)')) STORED;
+
+-- Si des réservations actives se chevauchent déjà, la contrainte ne peut pas
+-- être créée et le démarrage échoue : l'application ne tourne jamais sans elle.
+-- Lister les chevauchements (la seconde réservation de chaque paire) :
+--
+--   SELECT a.id AS premiere, r.id AS seconde, r.salle_id, r.jours, r.heures
+--   FROM reservations r JOIN reservations a
+--     ON a.salle_id = r.salle_id AND a.id < r.id
+--    AND a.jours && r.jours AND a.heures && r.heures
+--   WHERE a.statut <> 'CANCELLED' AND r.statut <> 'CANCELLED';
+--
+-- puis, après vérification, annuler les secondes réservations :
+--
+--   UPDATE reservations r SET statut = 'CANCELLED'
+--   FROM reservations a
+--   WHERE a.salle_id = r.salle_id AND a.id < r.id
+--     AND a.jours && r.jours AND a.heures && r.heures
+--     AND a.statut <> 'CANCELLED' AND r.statut <> 'CANCELLED';
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'reservations_sans_chevauchement') THEN
+        ALTER TABLE reservations ADD CONSTRAINT reservations_sans_chevauchement
+            EXCLUDE USING gist (salle_id WITH =, jours WITH &&, heures WITH &&)
+            WHERE (statut <> 'CANCELLED');
+    END IF;
+EXCEPTION
+    WHEN exclusion_violation THEN
+        RAISE EXCEPTION 'Chevauchements existants : contrainte reservations_sans_chevauchement non créée'
+            USING HINT = 'Annuler les réservations en conflit (requêtes dans db/reservations-creneaux.sql)';
+END
+$$;
@@ -0,0 +1,36 @@
+-- =====================================================================
+-- Recherche textuelle des salles (exécuté après Hibernate)
+-- =====================================================================
+-- Le texte recherché est comparé sans accents ni casse au nom, à la
+-- localisation, aux équipements et à la description :
+--   * recherche : tsvector pondéré par champ (A nom, B localisation,
+--     C équipements, D description), pour la correspondance par mots et le
+--     classement par pertinence ;
+--   * texte_recherche : texte normalisé des quatre champs, indexé en
+--     trigrammes pour les sous-chaînes et les mots approchés.
+-- unaccent n'est pas IMMUTABLE (dictionnaire modifiable) : sans_accents le
+-- fige pour les colonnes générées et les index (concat_ws, STABLE, est évité
+-- pour la même raison).
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+CREATE OR REPLACE FUNCTION sans_accents(texte text) RETURNS text
+    LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE
+    AS $$ SELECT lower(public.unaccent('public.unaccent'::regdictionary, texte)) $$;
+
+ALTER TABLE salles
+    ADD COLUMN IF NOT EXISTS recherche tsvector
+        GENERATED ALWAYS AS (
+            setweight(to_tsvector('simple'::regconfig, COALESCE(sans_accents(nom), '')), 'A') ||
+            setweight(to_tsvector('simple'::regconfig, COALESCE(sans_accents(localisation), '')), 'B') ||
+            setweight(to_tsvector('simple'::regconfig, COALESCE(sans_accents(equipements), '')), 'C') ||
+            setweight(to_tsvector('simple'::regconfig, COALESCE(sans_accents(description), '')), 'D')) STORED;
+
+ALTER TABLE salles
+    ADD COLUMN IF NOT EXISTS texte_recherche text
+        GENERATED ALWAYS AS (sans_accents(COALESCE(nom, '') || ' ' || COALESCE(localisation, '') || ' ' ||
+            COALESCE(equipements, '') || ' ' || COALESCE(description, ''))) STORED;
+
+CREATE INDEX IF NOT EXISTS salles_recherche_idx ON salles USING gin (recherche);
+CREATE INDEX IF NOT EXISTS salles_texte_recherche_trgm_idx ON salles USING gin (texte_recherche gin_trgm_ops);
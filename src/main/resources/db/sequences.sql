@@ -0,0 +1,23 @@
+-- =====================================================================
+-- Séquences d'identifiants (exécuté après Hibernate)
+-- =====================================================================
+-- Les identifiants sont alloués par blocs de 50 (Identifiants.TAILLE_BLOC) :
+-- Hibernate réserve un bloc par appel de séquence. Sur une base créée avec
+-- des colonnes IDENTITY, la séquence est créée si besoin et repositionnée
+-- au-delà des identifiants existants ; une séquence déjà en avance n'est
+-- pas modifiée. Pour changer la taille des blocs :
+--   ALTER SEQUENCE reservation_seq INCREMENT BY n;
+
+CREATE SEQUENCE IF NOT EXISTS salle_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS reservation_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS utilisateur_seq INCREMENT BY 50;
+
+ALTER TABLE salles ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE reservations ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE utilisateurs ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+SELECT setval('salle_seq', GREATEST((SELECT last_value FROM salle_seq), (SELECT MAX(id) FROM salles)));
+SELECT setval('reservation_seq',
+        GREATEST((SELECT last_value FROM reservation_seq), (SELECT MAX(id) FROM reservations)));
+SELECT setval('utilisateur_seq',
+        GREATEST((SELECT last_value FROM utilisateur_seq), (SELECT MAX(id) FROM utilisateurs)));
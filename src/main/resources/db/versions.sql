@@ -0,0 +1,3 @@
+-- Initialise la version (verrouillage optimiste) des lignes créées avant l'ajout de la colonne.
+UPDATE salles SET version = 0 WHERE version IS NULL;
+UPDATE reservations SET version = 0 WHERE version IS NULL;
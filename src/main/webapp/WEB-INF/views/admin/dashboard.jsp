@@ -68,6 +68,33 @@
     </div>
 </div>
 
+<!-- Réservations par statut -->
+<c:if test="${not empty reservationsParStatut}">
+    <div class="card mb-4">
+        <div class="card-body d-flex flex-wrap justify-content-around text-center">
+            <c:forEach var="entree" items="${reservationsParStatut}">
+                <a href="${pageContext.request.contextPath}/admin/reservations?statut=${entree.key}" class="text-decoration-none">
+                    <h5 class="mb-0">${entree.value}</h5>
+                    <small class="text-muted">${entree.key.libelle}</small>
+                </a>
+            </c:forEach>
+        </div>
+    </div>
+</c:if>
+
+<!-- Cache du catalogue des salles -->
+<c:if test="${not empty cacheSalles}">
+    <p class="text-muted small mb-4">
+        <i class="bi bi-lightning-charge"></i> Catalogue des salles en cache :
+        fiches <fmt:formatNumber value="${cacheSalles.tauxSucces()}" type="percent" /> de succès
+        (${cacheSalles.hits()} / ${cacheSalles.hits() + cacheSalles.misses()}, ${cacheSalles.taille()}/${cacheSalles.capacite()}),
+        pages <fmt:formatNumber value="${cachePagesSalles.tauxSucces()}" type="percent" /> de succès
+        (${cachePagesSalles.hits()} / ${cachePagesSalles.hits() + cachePagesSalles.misses()}, ${cachePagesSalles.taille()}/${cachePagesSalles.capacite()}),
+        recherches <fmt:formatNumber value="${cacheRecherchesSalles.tauxSucces()}" type="percent" /> de succès
+        (${cacheRecherchesSalles.hits()} / ${cacheRecherchesSalles.hits() + cacheRecherchesSalles.misses()}, ${cacheRecherchesSalles.taille()}/${cacheRecherchesSalles.capacite()})
+    </p>
+</c:if>
+
 <!-- Quick Actions -->
 <div class="card mb-4">
     <div class="card-header bg-danger text-white">
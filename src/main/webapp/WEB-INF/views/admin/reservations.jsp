@@ -8,7 +8,9 @@
 <div class="d-flex justify-content-between align-items-center mb-4">
     <div>
         <h2><i class="bi bi-calendar-check"></i> Gestion des Réservations</h2>
-        <p class="text-muted mb-0">Total: ${reservationsPage.totalElements} réservation(s)</p>
+        <c:if test="${not empty reservationsPage}">
+            <p class="text-muted mb-0">Total: ${reservationsPage.totalElements} réservation(s)</p>
+        </c:if>
     </div>
     <a href="${pageContext.request.contextPath}/admin/dashboard" class="btn btn-outline-secondary">
         <i class="bi bi-arrow-left"></i> Retour
@@ -150,11 +152,21 @@
         </div>
         
         <!-- Pagination -->
-        <c:set var="pageObj" value="${reservationsPage}" scope="request" />
-        <jsp:include page="../common/pagination.jsp">
-            <jsp:param name="baseUrl" value="${pageContext.request.contextPath}/admin/reservations" />
-            <jsp:param name="queryParams" value="${not empty filtreStatut ? '&statut='.concat(filtreStatut) : ''}" />
-        </jsp:include>
+        <c:choose>
+            <c:when test="${not empty pageCurseur}">
+                <jsp:include page="../common/pagination-curseur.jsp">
+                    <jsp:param name="baseUrl" value="${pageContext.request.contextPath}/admin/reservations" />
+                    <jsp:param name="queryParams" value="${not empty filtreStatut ? '&statut='.concat(filtreStatut) : ''}" />
+                </jsp:include>
+            </c:when>
+            <c:otherwise>
+                <c:set var="pageObj" value="${reservationsPage}" scope="request" />
+                <jsp:include page="../common/pagination.jsp">
+                    <jsp:param name="baseUrl" value="${pageContext.request.contextPath}/admin/reservations" />
+                    <jsp:param name="queryParams" value="${not empty filtreStatut ? '&statut='.concat(filtreStatut) : ''}" />
+                </jsp:include>
+            </c:otherwise>
+        </c:choose>
     </div>
 </div>
 
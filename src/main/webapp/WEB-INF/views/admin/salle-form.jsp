@@ -32,6 +32,9 @@
                 <c:set var="formAction" value="${isEdit ? '/admin/salles/'.concat(salleDTO.id).concat('/update') : '/admin/salles/create'}" />
                 
                 <form action="${pageContext.request.contextPath}${formAction}" method="post" enctype="multipart/form-data">
+                    <c:if test="${isEdit}">
+                        <input type="hidden" name="version" value="${salleDTO.version}">
+                    </c:if>
                     <!-- Nom -->
                     <div class="mb-3">
                         <label for="nom" class="form-label">Nom de la salle *</label>
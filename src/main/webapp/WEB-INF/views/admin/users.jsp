@@ -8,7 +8,7 @@
     <div>
         <h2><i class="bi bi-people"></i> Gestion des Utilisateurs</h2>
         <p class="text-muted mb-0">
-            Total: ${usersPage.totalElements} utilisateurs
+            <c:if test="${not empty usersPage}">Total: ${usersPage.totalElements} utilisateurs</c:if>
             (${totalAdmins} admin(s), ${totalUsers} utilisateur(s))
         </p>
     </div>
@@ -147,10 +147,19 @@
         </div>
         
         <!-- Pagination -->
-        <c:set var="pageObj" value="${usersPage}" scope="request" />
-        <jsp:include page="../common/pagination.jsp">
-            <jsp:param name="baseUrl" value="${pageContext.request.contextPath}/admin/users" />
-        </jsp:include>
+        <c:choose>
+            <c:when test="${not empty pageCurseur}">
+                <jsp:include page="../common/pagination-curseur.jsp">
+                    <jsp:param name="baseUrl" value="${pageContext.request.contextPath}/admin/users" />
+                </jsp:include>
+            </c:when>
+            <c:otherwise>
+                <c:set var="pageObj" value="${usersPage}" scope="request" />
+                <jsp:include page="../common/pagination.jsp">
+                    <jsp:param name="baseUrl" value="${pageContext.request.contextPath}/admin/users" />
+                </jsp:include>
+            </c:otherwise>
+        </c:choose>
     </div>
 </div>
 
@@ -0,0 +1,69 @@
+<%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
+
+<%--
+    Paramètres attendus :
+    - salle : la salle affichée (SalleDTO)
+    Calendrier chargé depuis /salles/{id}/availability (un mois, créneaux de 15 minutes).
+--%>
+
+<div class="card mb-4">
+    <div class="card-header bg-secondary text-white">
+        <h5 class="mb-0"><i class="bi bi-calendar3"></i> Disponibilités (mois à venir)</h5>
+    </div>
+    <div class="card-body">
+        <div class="d-flex justify-content-between small text-muted mb-2" style="margin-left: 6rem;">
+            <span>0h</span><span>6h</span><span>12h</span><span>18h</span><span>24h</span>
+        </div>
+        <div id="calendrierDisponibilites" class="small">
+            <span class="text-muted">Chargement...</span>
+        </div>
+        <div class="small text-muted mt-2">
+            <span class="d-inline-block bg-success" style="width: 12px; height: 12px;"></span> Libre
+            <span class="d-inline-block bg-danger ms-3" style="width: 12px; height: 12px;"></span> Occupé
+        </div>
+    </div>
+</div>
+
+<script>
+    (function () {
+        const conteneur = document.getElementById('calendrierDisponibilites');
+
+        fetch('${pageContext.request.contextPath}/salles/${salle.id}/availability')
+            .then(function (response) {
+                if (!response.ok) throw new Error(response.status);
+                return response.json();
+            })
+            .then(function (calendrier) {
+                conteneur.innerHTML = '';
+                const parCaractere = 4;
+                calendrier.jours.forEach(function (jour) {
+                    const ligne = document.createElement('div');
+                    ligne.className = 'd-flex align-items-center mb-1';
+
+                    const libelle = document.createElement('span');
+                    libelle.style.width = '6rem';
+                    // Date locale : new Date('AAAA-MM-JJ') serait lue en UTC et décalée d'un jour à l'ouest.
+                    const parties = jour.date.split('-').map(Number);
+                    libelle.textContent = new Date(parties[0], parties[1] - 1, parties[2]).toLocaleDateString('fr-FR',
+                        { weekday: 'short', day: 'numeric', month: 'short' });
+                    ligne.appendChild(libelle);
+
+                    const barre = document.createElement('div');
+                    barre.className = 'd-flex flex-grow-1';
+                    barre.style.height = '12px';
+                    for (let i = 0; i < jour.occupation.length * parCaractere; i++) {
+                        const occupe = (parseInt(jour.occupation.charAt(Math.floor(i / parCaractere)), 16)
+                            >> (i % parCaractere)) & 1;
+                        const cellule = document.createElement('span');
+                        cellule.className = 'flex-grow-1 ' + (occupe ? 'bg-danger' : 'bg-success');
+                        barre.appendChild(cellule);
+                    }
+                    ligne.appendChild(barre);
+                    conteneur.appendChild(ligne);
+                });
+            })
+            .catch(function () {
+                conteneur.innerHTML = '<span class="text-muted">Disponibilités indisponibles</span>';
+            });
+    })();
+</script>
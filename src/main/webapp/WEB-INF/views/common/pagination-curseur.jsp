@@ -0,0 +1,30 @@
+<%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+
+<%-- 
+    Pagination par curseur (listes profondes, sans numéros de page).
+    Paramètres attendus :
+    - pageCurseur : l'objet PageCurseur de la page courante
+    - baseUrl : l'URL de base pour les liens de pagination
+    - queryParams : (optionnel) paramètres de requête supplémentaires (ex: &statut=PENDING)
+--%>
+
+<c:if test="${not empty pageCurseur}">
+    <nav aria-label="Pagination">
+        <ul class="pagination justify-content-center mt-4">
+            <!-- Première page -->
+            <li class="page-item ${empty param.apres ? 'disabled' : ''}">
+                <a class="page-link" href="${param.baseUrl}?apres=${param.queryParams}" aria-label="Premier">
+                    <span aria-hidden="true">&laquo;&laquo;</span>
+                </a>
+            </li>
+
+            <!-- Suivant -->
+            <li class="page-item ${pageCurseur.hasSuivant() ? '' : 'disabled'}">
+                <a class="page-link" href="${param.baseUrl}?apres=${pageCurseur.suivant()}${param.queryParams}" aria-label="Suivant">
+                    <span aria-hidden="true">&raquo;</span>
+                </a>
+            </li>
+        </ul>
+    </nav>
+</c:if>
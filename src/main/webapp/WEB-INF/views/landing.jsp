@@ -1,7 +1,8 @@
 <%@ page language="java" contentType="text/html; charset=UTF-8"
 pageEncoding="UTF-8"%> <%@ taglib prefix="c"
 uri="http://java.sun.com/jsp/jstl/core" %> <%@ taglib prefix="sec"
-uri="http://www.springframework.org/security/tags" %>
+uri="http://www.springframework.org/security/tags" %> <%@ taglib prefix="fmt"
+uri="http://java.sun.com/jsp/jstl/fmt" %>
 <c:set var="pageTitle" value="Accueil" scope="request" />
 <jsp:include page="common/header.jsp" />
 
@@ -108,6 +109,64 @@ uri="http://www.springframework.org/security/tags" %>
   </div>
 </div>
 
+<!-- Salles populaires -->
+<c:if test="${not empty sallesPopulaires}">
+  <div class="container my-5">
+    <div class="row g-4">
+      <div class="col-lg-6">
+        <h2 class="h4 mb-3">
+          <i class="bi bi-star-fill text-warning"></i> Salles les plus réservées
+        </h2>
+        <ul class="list-group">
+          <c:forEach items="${sallesPopulaires}" var="salle">
+            <a
+              href="${pageContext.request.contextPath}/salles/${salle.id}"
+              class="list-group-item list-group-item-action d-flex justify-content-between align-items-center"
+            >
+              <span>
+                <strong>${salle.nom}</strong><br />
+                <small class="text-muted">
+                  <i class="bi bi-geo-alt"></i> ${salle.localisation} ·
+                  <fmt:formatNumber value="${salle.prixParJour}" type="number" /> FCFA/jour
+                </small>
+              </span>
+              <span class="badge bg-primary rounded-pill">
+                ${salle.nombreReservations} réservations
+              </span>
+            </a>
+          </c:forEach>
+        </ul>
+      </div>
+      <c:if test="${not empty sallesTendance}">
+        <div class="col-lg-6">
+          <h2 class="h4 mb-3">
+            <i class="bi bi-graph-up-arrow text-success"></i> Tendance des
+            ${fenetreTendance} derniers jours
+          </h2>
+          <ul class="list-group">
+            <c:forEach items="${sallesTendance}" var="salle">
+              <a
+                href="${pageContext.request.contextPath}/salles/${salle.id}"
+                class="list-group-item list-group-item-action d-flex justify-content-between align-items-center"
+              >
+                <span>
+                  <strong>${salle.nom}</strong><br />
+                  <small class="text-muted">
+                    <i class="bi bi-people"></i> ${salle.capacite} personnes
+                  </small>
+                </span>
+                <span class="badge bg-success rounded-pill">
+                  ${salle.nombreReservations} réservations
+                </span>
+              </a>
+            </c:forEach>
+          </ul>
+        </div>
+      </c:if>
+    </div>
+  </div>
+</c:if>
+
 <!-- Call to Action -->
 <div class="bg-primary text-white text-center py-5 my-5">
   <div class="container">
@@ -7,9 +7,9 @@
 <!-- Welcome Banner -->
 <div class="alert alert-primary alert-dismissible fade show" role="alert">
     <h4 class="alert-heading">
-        <i class="bi bi-emoji-smile"></i> Bienvenue, ${user.prenom} ${user.nom} !
+        <i class="bi bi-emoji-smile"></i> Bienvenue, ${prenom} ${nom} !
     </h4>
-    <p class="mb-0">Vous êtes connecté en tant que <strong>${user.username}</strong></p>
+    <p class="mb-0">Vous êtes connecté en tant que <strong>${username}</strong></p>
     <button type="button" class="btn-close" data-bs-dismiss="alert"></button>
 </div>
 
@@ -21,6 +21,12 @@
                 <i class="bi bi-calendar-check text-primary" style="font-size: 3rem;"></i>
                 <h3 class="mt-3 mb-0">${totalReservations}</h3>
                 <p class="text-muted mb-0">Réservations totales</p>
+                <small class="text-muted">
+                    ${reservationsParStatut['PENDING']} en attente ·
+                    ${reservationsParStatut['CONFIRMED']} confirmées ·
+                    ${reservationsParStatut['COMPLETED']} terminées ·
+                    ${reservationsParStatut['CANCELLED']} annulées
+                </small>
             </div>
         </div>
     </div>
@@ -81,17 +87,33 @@
     </div>
 </div>
 
-<!-- Upcoming Reservations -->
+<!-- Next Reservation -->
+<c:if test="${not empty prochaineReservation}">
+    <div class="alert alert-success d-flex justify-content-between align-items-center mb-4">
+        <div>
+            <h5 class="alert-heading mb-1"><i class="bi bi-calendar-event"></i> Prochaine réservation</h5>
+            <strong>${prochaineReservation.salleNom}</strong> — ${prochaineReservation.typeEvenement},
+            le ${prochaineReservation.dateDebut} de ${prochaineReservation.heureDebut}
+            à ${prochaineReservation.heureFin}
+        </div>
+        <a href="${pageContext.request.contextPath}/user/reservations/${prochaineReservation.id}"
+           class="btn btn-sm btn-outline-success">
+            <i class="bi bi-eye"></i> Voir
+        </a>
+    </div>
+</c:if>
+
+<!-- Recent Reservations -->
 <div class="card">
     <div class="card-header bg-success text-white">
-        <h5 class="mb-0"><i class="bi bi-calendar3"></i> Réservations à Venir</h5>
+        <h5 class="mb-0"><i class="bi bi-calendar3"></i> Réservations Récentes</h5>
     </div>
     <div class="card-body">
         <c:choose>
-            <c:when test="${empty reservationsFutures}">
+            <c:when test="${empty reservationsRecentes}">
                 <div class="text-center py-5 text-muted">
                     <i class="bi bi-calendar-x" style="font-size: 4rem;"></i>
-                    <p class="mt-3 mb-0">Aucune réservation à venir</p>
+                    <p class="mt-3 mb-0">Aucune réservation</p>
                     <a href="${pageContext.request.contextPath}/user/salles" class="btn btn-primary mt-3">
                         <i class="bi bi-plus-circle"></i> Réserver une salle
                     </a>
@@ -111,7 +133,7 @@
                             </tr>
                         </thead>
                         <tbody>
-                            <c:forEach items="${reservationsFutures}" var="reservation">
+                            <c:forEach items="${reservationsRecentes}" var="reservation">
                                 <tr>
                                     <td>
                                         <i class="bi bi-calendar-event"></i> 
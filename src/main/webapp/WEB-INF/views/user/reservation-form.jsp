@@ -34,6 +34,8 @@
                     <!-- Champs cachés -->
                     <input type="hidden" name="salleId" value="${salle.id}">
                     <input type="hidden" name="utilisateurId" value="${user.id}">
+                    <input type="hidden" name="idempotencyKey"
+                           value="${not empty param.idempotencyKey ? param.idempotencyKey : idempotencyKey}">
 
                     <!-- Dates de réservation -->
                     <div class="row">
@@ -65,6 +67,20 @@
                         </div>
                     </div>
 
+                    <!-- Récurrence -->
+                    <div class="row">
+                        <div class="col-md-6 mb-3">
+                            <label for="occurrences" class="form-label">
+                                <i class="bi bi-arrow-repeat"></i> Répéter chaque semaine
+                            </label>
+                            <input type="number" class="form-control" id="occurrences"
+                                   name="occurrences" value="1" min="1" max="104">
+                            <small class="form-text text-muted">
+                                Nombre de semaines (réservations d'une journée, même horaire)
+                            </small>
+                        </div>
+                    </div>
+
                     <!-- Horaires -->
                     <div class="row">
                         <div class="col-md-6 mb-3">
@@ -86,6 +102,9 @@
                         </div>
                     </div>
 
+                    <!-- Retenue du créneau -->
+                    <div id="retenueCreneau" class="alert d-none"></div>
+
                     <!-- Type d'événement -->
                     <div class="mb-3">
                         <label for="typeEvenement" class="form-label">
@@ -217,6 +236,8 @@
         const dateDebut = document.getElementById('dateDebut').value;
         const dateFin = document.getElementById('dateFin').value;
         
+        const occurrences = parseInt(document.getElementById('occurrences').value) || 1;
+        if (occurrences > 1) return occurrences;
         if (!dateDebut) return 1;
         if (!dateFin) return 1;
         
@@ -246,6 +267,17 @@
     });
     
     document.getElementById('dateFin').addEventListener('change', updateMontantTotal);
+
+    // Série hebdomadaire : une réservation d'une journée par occurrence
+    document.getElementById('occurrences').addEventListener('change', function() {
+        const serie = parseInt(this.value) > 1;
+        const dateFin = document.getElementById('dateFin');
+        dateFin.disabled = serie;
+        if (serie) dateFin.value = '';
+        document.getElementById('reservationForm').action = '${pageContext.request.contextPath}/user/reservations/'
+            + (serie ? 'serie' : 'create');
+        updateMontantTotal();
+    });
     
     // Validation côté client
     document.getElementById('reservationForm').addEventListener('submit', function(e) {
@@ -278,6 +310,40 @@
         }
     });
     
+    // Retenue temporaire du créneau saisi (10 minutes)
+    function retenirCreneau() {
+        const champs = ['dateDebut', 'dateFin', 'heureDebut', 'heureFin'];
+        const valeurs = {};
+        champs.forEach(function (id) { valeurs[id] = document.getElementById(id).value; });
+        if (!valeurs.dateDebut || !valeurs.heureDebut || !valeurs.heureFin || valeurs.heureFin <= valeurs.heureDebut) return;
+
+        const donnees = new URLSearchParams({ salleId: '${salle.id}' });
+        champs.forEach(function (id) { if (valeurs[id]) donnees.append(id, valeurs[id]); });
+        const message = document.getElementById('retenueCreneau');
+
+        fetch('${pageContext.request.contextPath}/user/reservations/hold', { method: 'POST', body: donnees })
+            .then(function (response) {
+                message.classList.remove('d-none', 'alert-success', 'alert-warning');
+                if (response.ok) {
+                    return response.json().then(function (retenue) {
+                        message.classList.add('alert-success');
+                        message.textContent = 'Créneau retenu pour vous jusqu\'à '
+                            + retenue.expireA.substring(11, 16) + '.';
+                    });
+                }
+                message.classList.add('alert-warning');
+                message.textContent = response.status === 409
+                    ? 'Ce créneau ne peut pas être retenu : il est déjà réservé, en cours de réservation, '
+                        + 'ou vous retenez déjà trop de créneaux.'
+                    : 'Créneau invalide.';
+            })
+            .catch(function () { message.classList.add('d-none'); });
+    }
+
+    ['dateDebut', 'dateFin', 'heureDebut', 'heureFin'].forEach(function (id) {
+        document.getElementById(id).addEventListener('change', retenirCreneau);
+    });
+
     // Initialiser le montant au chargement
     updateMontantTotal();
 </script>
@@ -155,11 +155,21 @@
                 </div>
 
                 <!-- Pagination -->
-                <c:set var="pageObj" value="${reservationsPage}" scope="request" />
-                <jsp:include page="../common/pagination.jsp">
-                    <jsp:param name="baseUrl" value="${pageContext.request.contextPath}/user/reservations" />
-                    <jsp:param name="queryParams" value="${not empty filtreStatut ? '&statut='.concat(filtreStatut) : ''}" />
-                </jsp:include>
+                <c:choose>
+                    <c:when test="${not empty pageCurseur}">
+                        <jsp:include page="../common/pagination-curseur.jsp">
+                            <jsp:param name="baseUrl" value="${pageContext.request.contextPath}/user/reservations" />
+                            <jsp:param name="queryParams" value="${not empty filtreStatut ? '&statut='.concat(filtreStatut) : ''}" />
+                        </jsp:include>
+                    </c:when>
+                    <c:otherwise>
+                        <c:set var="pageObj" value="${reservationsPage}" scope="request" />
+                        <jsp:include page="../common/pagination.jsp">
+                            <jsp:param name="baseUrl" value="${pageContext.request.contextPath}/user/reservations" />
+                            <jsp:param name="queryParams" value="${not empty filtreStatut ? '&statut='.concat(filtreStatut) : ''}" />
+                        </jsp:include>
+                    </c:otherwise>
+                </c:choose>
             </c:otherwise>
         </c:choose>
     </div>
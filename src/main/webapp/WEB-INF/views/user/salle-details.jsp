@@ -77,6 +77,9 @@
             </div>
         </div>
 
+        <!-- Disponibilités -->
+        <jsp:include page="../common/disponibilites.jsp" />
+
         <!-- Statistiques -->
         <c:if test="${salle.nombreReservations > 0}">
             <div class="alert alert-info">
@@ -27,11 +27,11 @@
                 <div class="row g-3">
                     <div class="col-md-4">
                         <label for="localisation" class="form-label">
-                            <i class="bi bi-geo-alt"></i> Localisation
+                            <i class="bi bi-search"></i> Recherche
                         </label>
                         <input type="text" class="form-control" id="localisation" 
                                name="localisation" value="${localisation}" 
-                               placeholder="Ex: Cotonou, Porto-Novo...">
+                               placeholder="Ex: Calavi, Porto-Novo, climatisation...">
                     </div>
                     
                     <div class="col-md-4">
@@ -52,6 +52,40 @@
                                min="0" step="10000" placeholder="Budget maximum">
                     </div>
                 </div>
+
+                <div class="row g-3 mt-1">
+                    <div class="col-md-3">
+                        <label for="dateDebut" class="form-label">
+                            <i class="bi bi-calendar-event"></i> Libre le
+                        </label>
+                        <input type="date" class="form-control" id="dateDebut"
+                               name="dateDebut" value="${dateDebut}">
+                    </div>
+
+                    <div class="col-md-3">
+                        <label for="dateFin" class="form-label">
+                            <i class="bi bi-calendar-range"></i> Jusqu'au (optionnel)
+                        </label>
+                        <input type="date" class="form-control" id="dateFin"
+                               name="dateFin" value="${dateFin}">
+                    </div>
+
+                    <div class="col-md-3">
+                        <label for="heureDebut" class="form-label">
+                            <i class="bi bi-clock"></i> De
+                        </label>
+                        <input type="time" class="form-control" id="heureDebut"
+                               name="heureDebut" value="${heureDebut}">
+                    </div>
+
+                    <div class="col-md-3">
+                        <label for="heureFin" class="form-label">
+                            <i class="bi bi-clock-history"></i> À
+                        </label>
+                        <input type="time" class="form-control" id="heureFin"
+                               name="heureFin" value="${heureFin}">
+                    </div>
+                </div>
                 
                 <div class="row mt-3">
                     <div class="col-12 text-end">
@@ -167,7 +201,7 @@
 <c:set var="pageObj" value="${sallesPage}" scope="request" />
 <jsp:include page="../common/pagination.jsp">
     <jsp:param name="baseUrl" value="${pageContext.request.contextPath}/user/salles" />
-    <jsp:param name="queryParams" value="${not empty localisation ? '&localisation='.concat(localisation) : ''}${not empty capaciteMin ? '&capaciteMin='.concat(capaciteMin) : ''}${not empty prixMax ? '&prixMax='.concat(prixMax) : ''}" />
+    <jsp:param name="queryParams" value="${not empty localisation ? '&localisation='.concat(localisation) : ''}${not empty capaciteMin ? '&capaciteMin='.concat(capaciteMin) : ''}${not empty prixMax ? '&prixMax='.concat(prixMax) : ''}${not empty dateDebut ? '&dateDebut='.concat(dateDebut) : ''}${not empty dateFin ? '&dateFin='.concat(dateFin) : ''}${not empty heureDebut ? '&heureDebut='.concat(heureDebut) : ''}${not empty heureFin ? '&heureFin='.concat(heureFin) : ''}" />
 </jsp:include>
 
 <style>
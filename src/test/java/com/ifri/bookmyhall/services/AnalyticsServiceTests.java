@@ -0,0 +1,111 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ifri.bookmyhall.dto.PeriodeOccupationDTO;
+import com.ifri.bookmyhall.dto.ReservationDTO;
+import com.ifri.bookmyhall.dto.SalleDTO;
+import com.ifri.bookmyhall.repositories.UtilisateurRepository;
+import com.ifri.bookmyhall.services.AnalyticsService.Granularite;
+
+/**
+ * Les agrégats d'occupation suivent les transitions de statut et concordent
+ * avec une reconstruction depuis les réservations.
+ */
+@SpringBootTest
+class AnalyticsServiceTests {
+
+	@Autowired
+	private AnalyticsService analyticsService;
+
+	@Autowired
+	private SalleService salleService;
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private UtilisateurRepository utilisateurRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void agregatsSuiventLesTransitions() {
+		LocalDate jour = LocalDate.now().plusYears(7).withDayOfMonth(10);
+		Long salleId = salleService.createSalle(SalleDTO.builder()
+				.nom("Analytique " + UUID.randomUUID().toString().substring(0, 8)).capacite(50)
+				.localisation("Cotonou, Tests").prixParJour(new BigDecimal("1000")).disponible(true).build(), null)
+				.getId();
+		Long reservationId = reservationService.createReservation(ReservationDTO.builder().salleId(salleId)
+				.utilisateurId(utilisateurRepository.findByUsername("john").orElseThrow().getId())
+				.dateDebut(jour).dateFin(jour.plusDays(1)).heureDebut(LocalTime.of(10, 0))
+				.heureFin(LocalTime.of(12, 0)).typeEvenement("Analytique").nombrePersonnes(10).build()).getId();
+		assertTrue(serie(salleId, jour).isEmpty());
+
+		reservationService.confirmerReservation(reservationId);
+		List<PeriodeOccupationDTO> confirmee = serie(salleId, jour);
+		assertEquals(2, confirmee.size());
+		assertEquals(120, confirmee.get(0).minutesReservees());
+		assertEquals(1, confirmee.get(0).reservations());
+		assertEquals(0, confirmee.get(1).reservations());
+		assertEquals(0, new BigDecimal("1000").compareTo(confirmee.get(1).revenu()));
+
+		PeriodeOccupationDTO mois = analyticsService.serie(Granularite.MOIS, salleId, jour, jour.plusDays(1)).get(0);
+		assertEquals(240, mois.minutesReservees());
+		assertEquals(0, new BigDecimal("2000").compareTo(mois.revenu()));
+
+		analyticsService.reconstruire();
+		assertEquals(confirmee, serie(salleId, jour));
+
+		reservationService.annulerReservation(reservationId);
+		serie(salleId, jour).forEach(p -> {
+			assertEquals(0, p.minutesReservees());
+			assertEquals(0, BigDecimal.ZERO.compareTo(p.revenu()));
+		});
+
+		reservationService.deleteReservation(reservationId);
+		salleService.deleteSalle(salleId);
+		assertTrue(serie(salleId, jour).isEmpty());
+	}
+
+	@Test
+	void agregatsSupprimesAvecLaSalle() {
+		LocalDate jour = LocalDate.now().plusYears(7).withDayOfMonth(20);
+		Long salleId = salleService.createSalle(SalleDTO.builder()
+				.nom("Analytique " + UUID.randomUUID().toString().substring(0, 8)).capacite(50)
+				.localisation("Cotonou, Tests").prixParJour(new BigDecimal("1000")).disponible(true).build(), null)
+				.getId();
+		Long reservationId = reservationService.createReservation(ReservationDTO.builder().salleId(salleId)
+				.utilisateurId(utilisateurRepository.findByUsername("john").orElseThrow().getId())
+				.dateDebut(jour).heureDebut(LocalTime.of(10, 0)).heureFin(LocalTime.of(12, 0))
+				.typeEvenement("Analytique").nombrePersonnes(10).build()).getId();
+		reservationService.confirmerReservation(reservationId);
+		reservationService.deleteReservation(reservationId);
+		assertTrue(lignes(salleId) > 0);
+
+		salleService.deleteSalle(salleId);
+		assertEquals(0, lignes(salleId));
+	}
+
+	private int lignes(Long salleId) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM occupations_journalieres WHERE salle_id = ?",
+				Integer.class, salleId);
+	}
+
+	private List<PeriodeOccupationDTO> serie(Long salleId, LocalDate jour) {
+		return analyticsService.serie(Granularite.JOUR, salleId, jour, jour.plusDays(1));
+	}
+}
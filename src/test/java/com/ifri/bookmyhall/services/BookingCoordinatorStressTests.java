@@ -0,0 +1,156 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ifri.bookmyhall.dto.ReservationDTO;
+import com.ifri.bookmyhall.models.Salle;
+import com.ifri.bookmyhall.repositories.SalleRepository;
+import com.ifri.bookmyhall.repositories.UtilisateurRepository;
+
+/**
+ * Réservations concurrentes sur une salle puis sur plusieurs salles.
+ * Lancement : mvn test -Dbenchmark=true -Dtest=BookingCoordinatorStressTests
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BookingCoordinatorStressTests {
+
+	private static final int THREADS = Integer.getInteger("benchmark.threads", 32);
+	private static final int TENTATIVES = Integer.getInteger("benchmark.attempts", 200);
+	private static final int SALLES = 16;
+	private static final String TYPE = "Stress";
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private SalleRepository salleRepository;
+
+	@Autowired
+	private UtilisateurRepository utilisateurRepository;
+
+	@Autowired
+	private ReservationIntervalIndex reservationIndex;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final List<Long> salleIds = new ArrayList<>();
+	private Long utilisateurId;
+
+	@BeforeAll
+	void creerSalles() {
+		utilisateurId = utilisateurRepository.findByUsername("john").orElseThrow().getId();
+		for (int i = 0; i < SALLES; i++) {
+			salleIds.add(salleRepository.save(Salle.builder()
+					.nom("Stress " + UUID.randomUUID().toString().substring(0, 8)).capacite(100)
+					.localisation("Cotonou, Stress").prixParJour(new BigDecimal("1000")).disponible(true).build())
+					.getId());
+		}
+	}
+
+	@AfterAll
+	void nettoyer() {
+		jdbcTemplate.update("DELETE FROM reservations WHERE type_evenement = ?", TYPE);
+		salleRepository.deleteAllById(salleIds);
+		reservationIndex.recharger();
+	}
+
+	@Test
+	void uneSalleSansDoubleReservation() throws Exception {
+		// Tous les threads visent le même créneau : une seule réservation doit passer par tour.
+		long debut = System.nanoTime();
+		int succes = lancer(tentative -> creneau(salleIds.get(0), tentative / THREADS));
+		double secondes = (System.nanoTime() - debut) / 1e9;
+
+		System.out.printf("Une salle : %d tentatives, %d acceptées, %.0f req/s, %d doubles réservations%n",
+				THREADS * TENTATIVES, succes, THREADS * TENTATIVES / secondes,
+				doublesReservations());
+		assertEquals(TENTATIVES, succes);
+		assertEquals(0, doublesReservations());
+	}
+
+	@Test
+	void plusieursSallesEnParallele() throws Exception {
+		// Créneaux distincts par salle : toutes les réservations doivent passer.
+		long debut = System.nanoTime();
+		int succes = lancer(tentative -> creneau(salleIds.get(1 + tentative % (SALLES - 1)),
+				1_000 + tentative / (SALLES - 1)));
+		double secondes = (System.nanoTime() - debut) / 1e9;
+
+		System.out.printf("Plusieurs salles : %d acceptées, %.0f req/s, %d doubles réservations%n",
+				succes, THREADS * TENTATIVES / secondes, doublesReservations());
+		assertEquals(THREADS * TENTATIVES, succes);
+		assertEquals(0, doublesReservations());
+	}
+
+	/** Exécute THREADS * TENTATIVES réservations et retourne le nombre de succès. */
+	private int lancer(IntFunction<ReservationDTO> fabrique) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch depart = new CountDownLatch(1);
+		List<Future<Integer>> resultats = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			int thread = t;
+			resultats.add(executor.submit(() -> {
+				depart.await();
+				int ok = 0;
+				for (int i = 0; i < TENTATIVES; i++) {
+					try {
+						reservationService.createReservation(fabrique.apply(i * THREADS + thread));
+						ok++;
+					} catch (IllegalStateException e) {
+						// Conflit de créneau attendu.
+					}
+				}
+				return ok;
+			}));
+		}
+		depart.countDown();
+		int total = 0;
+		for (Future<Integer> resultat : resultats)
+			total += resultat.get();
+		executor.shutdown();
+		executor.awaitTermination(1, TimeUnit.MINUTES);
+		return total;
+	}
+
+	private ReservationDTO creneau(Long salleId, int jour) {
+		return ReservationDTO.builder().salleId(salleId).utilisateurId(utilisateurId)
+				.dateDebut(LocalDate.now().plusDays(1 + jour))
+				.heureDebut(LocalTime.of(10, 0)).heureFin(LocalTime.of(12, 0))
+				.typeEvenement(TYPE).nombrePersonnes(10).build();
+	}
+
+	private long doublesReservations() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservations a JOIN reservations b "
+				+ "ON a.salle_id = b.salle_id AND a.id < b.id "
+				+ "WHERE a.type_evenement = ? AND b.type_evenement = ? "
+				+ "AND a.statut <> 'CANCELLED' AND b.statut <> 'CANCELLED' "
+				+ "AND a.date_debut <= COALESCE(b.date_fin, b.date_debut) "
+				+ "AND COALESCE(a.date_fin, a.date_debut) >= b.date_debut "
+				+ "AND a.heure_debut < b.heure_fin AND a.heure_fin > b.heure_debut", Long.class, TYPE, TYPE);
+	}
+}
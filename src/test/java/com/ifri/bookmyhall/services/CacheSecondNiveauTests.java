@@ -0,0 +1,51 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ifri.bookmyhall.repositories.SalleRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Les salles et le comptage des salles disponibles sont servis par le cache
+ * de second niveau, sans nouvelle requête en base, et ses statistiques sont
+ * exposées en métriques.
+ */
+@SpringBootTest
+class CacheSecondNiveauTests {
+
+	@Autowired
+	private SalleRepository salleRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void lecturesServiesParLeCache() {
+		Statistics statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		Long salleId = salleRepository.findAll().get(0).getId();
+
+		salleRepository.findById(salleId);
+		salleRepository.countSallesDisponibles();
+		statistiques.clear();
+
+		salleRepository.findById(salleId);
+		salleRepository.countSallesDisponibles();
+		assertEquals(0, statistiques.getPrepareStatementCount());
+		assertTrue(statistiques.getDomainDataRegionStatistics("salles").getHitCount() >= 1);
+		assertTrue(statistiques.getQueryCacheHitCount() >= 1);
+
+		assertTrue(meterRegistry.get("hibernate.cache.hits").tag("region", "salles").functionCounter().count() >= 1);
+	}
+}
@@ -0,0 +1,159 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.ifri.bookmyhall.dto.ReservationDTO;
+import com.ifri.bookmyhall.dto.SalleDTO;
+import com.ifri.bookmyhall.repositories.UtilisateurRepository;
+
+/**
+ * Le catalogue des salles sert les lectures répétées depuis la mémoire et
+ * reflète les écritures dès leur validation.
+ */
+@SpringBootTest
+class CatalogueSallesTests {
+
+	@Autowired
+	private SalleService salleService;
+
+	@Autowired
+	private CatalogueSalles catalogue;
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private UtilisateurRepository utilisateurRepository;
+
+	@Test
+	void lecturesServiesPuisInvalidees() {
+		Long salleId = salleService.createSalle(SalleDTO.builder()
+				.nom("Catalogue " + UUID.randomUUID().toString().substring(0, 8)).capacite(50)
+				.localisation("Cotonou, Tests").prixParJour(new BigDecimal("1000")).disponible(true).build(), null)
+				.getId();
+		Pageable toutes = PageRequest.of(0, 1000);
+
+		SalleDTO fiche = salleService.getSalleById(salleId);
+		long hits = catalogue.statistiquesSalles().hits();
+		SalleDTO relue = salleService.getSalleById(salleId);
+		assertEquals(hits + 1, catalogue.statistiquesSalles().hits());
+		assertEquals(fiche, relue);
+		assertNotSame(fiche, relue);
+		relue.setDescription("Modifiée par l'appelant");
+		assertEquals(fiche.getDescription(), salleService.getSalleById(salleId).getDescription());
+		assertTrue(salleService.getSallesDisponibles(toutes).stream().anyMatch(s -> s.getId().equals(salleId)));
+
+		salleService.toggleDisponibilite(salleId, false);
+		assertFalse(salleService.getSalleById(salleId).getDisponible());
+		assertFalse(salleService.getSallesDisponibles(toutes).stream().anyMatch(s -> s.getId().equals(salleId)));
+
+		salleService.deleteSalle(salleId);
+	}
+
+	@Test
+	void deplacementInvalideLesDeuxFiches() {
+		Long premiere = creerSalle();
+		Long seconde = creerSalle();
+		ReservationDTO reservation = reservationService.createReservation(ReservationDTO.builder().salleId(premiere)
+				.utilisateurId(utilisateurRepository.findByUsername("john").orElseThrow().getId())
+				.dateDebut(LocalDate.now().plusYears(7).plusMonths(3)).heureDebut(LocalTime.of(10, 0))
+				.heureFin(LocalTime.of(12, 0)).typeEvenement("Catalogue").nombrePersonnes(10).build());
+		try {
+			assertEquals(1, salleService.getSalleById(premiere).getNombreReservations());
+			assertEquals(0, salleService.getSalleById(seconde).getNombreReservations());
+
+			reservation.setSalleId(seconde);
+			reservationService.updateReservation(reservation.getId(), reservation);
+			assertEquals(0, salleService.getSalleById(premiere).getNombreReservations());
+			assertEquals(1, salleService.getSalleById(seconde).getNombreReservations());
+		} finally {
+			reservationService.deleteReservation(reservation.getId());
+			salleService.deleteSalle(premiere);
+			salleService.deleteSalle(seconde);
+		}
+	}
+
+	private Long creerSalle() {
+		return salleService.createSalle(SalleDTO.builder()
+				.nom("Catalogue " + UUID.randomUUID().toString().substring(0, 8)).capacite(50)
+				.localisation("Cotonou, Tests").prixParJour(new BigDecimal("1000")).disponible(true).build(), null)
+				.getId();
+	}
+
+	@Test
+	void recherchesParCriteresNormalises() {
+		String ville = "Recherche" + UUID.randomUUID().toString().substring(0, 8);
+		Long salleId = salleService.createSalle(SalleDTO.builder()
+				.nom("Catalogue " + ville).capacite(80).localisation("Cotonou, " + ville)
+				.prixParJour(new BigDecimal("1000")).disponible(true).build(), null).getId();
+		Pageable page = PageRequest.of(0, 9);
+
+		assertEquals(List.of(salleId), salleService.searchSalles(ville, 50, new BigDecimal("1000"), page)
+				.map(SalleDTO::getId).getContent());
+		long hits = catalogue.statistiquesRecherches().hits();
+		assertEquals(1, salleService.searchSalles("  " + ville.toUpperCase() + " ", 50, new BigDecimal("1000.00"), page)
+				.getTotalElements());
+		assertEquals(hits + 1, catalogue.statistiquesRecherches().hits());
+
+		salleService.toggleDisponibilite(salleId, false);
+		assertTrue(salleService.searchSalles(ville, 50, null, page).isEmpty());
+
+		salleService.deleteSalle(salleId);
+	}
+
+	@Test
+	void rechercheAbsenteCalculeeUneFois() throws Exception {
+		CatalogueSalles.Recherche cle = catalogue.recherche(UUID.randomUUID().toString(), null, null,
+				PageRequest.of(0, 9));
+		AtomicInteger calculs = new AtomicInteger();
+		CountDownLatch depart = new CountDownLatch(1);
+		ExecutorService executeur = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Page<Long>>> lectures = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				lectures.add(executeur.submit(() -> {
+					depart.await();
+					return catalogue.idsRecherche(cle, c -> {
+						calculs.incrementAndGet();
+						try {
+							Thread.sleep(200);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						return new PageImpl<>(List.of(1L), c.pageable(), 1);
+					});
+				}));
+			}
+			depart.countDown();
+			for (Future<Page<Long>> lecture : lectures)
+				assertEquals(List.of(1L), lecture.get(10, TimeUnit.SECONDS).getContent());
+		} finally {
+			executeur.shutdownNow();
+		}
+		assertEquals(1, calculs.get());
+	}
+}
@@ -0,0 +1,68 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ifri.bookmyhall.repositories.SalleRepository;
+import com.ifri.bookmyhall.repositories.UtilisateurRepository;
+
+/**
+ * La contrainte d'exclusion (db/reservations-creneaux.sql) refuse en base deux
+ * réservations actives qui se chevauchent, sans passer par les services.
+ */
+@SpringBootTest
+class ContrainteChevauchementTests {
+
+	private static final String TYPE = "Contrainte";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private SalleRepository salleRepository;
+
+	@Autowired
+	private UtilisateurRepository utilisateurRepository;
+
+	@AfterEach
+	void nettoyer() {
+		jdbcTemplate.update("DELETE FROM reservations WHERE type_evenement = ?", TYPE);
+	}
+
+	@Test
+	void chevauchementsRefusesEnBase() {
+		Long salleId = salleRepository.findAll().get(0).getId();
+		LocalDate jour = LocalDate.now().plusYears(12);
+		inserer(salleId, jour, jour.plusDays(2), LocalTime.of(10, 0), LocalTime.of(12, 0), "PENDING");
+
+		assertThrows(DataIntegrityViolationException.class,
+				() -> inserer(salleId, jour.plusDays(1), null, LocalTime.of(11, 0), LocalTime.of(13, 0), "PENDING"));
+
+		// Créneau adjacent, autre salle ou réservation annulée : acceptés.
+		inserer(salleId, jour, null, LocalTime.of(12, 0), LocalTime.of(14, 0), "PENDING");
+		inserer(salleRepository.findAll().get(1).getId(), jour, null, LocalTime.of(10, 0), LocalTime.of(12, 0),
+				"PENDING");
+		inserer(salleId, jour, null, LocalTime.of(10, 0), LocalTime.of(12, 0), "CANCELLED");
+		assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservations WHERE type_evenement = ?",
+				Integer.class, TYPE));
+	}
+
+	private void inserer(Long salleId, LocalDate debut, LocalDate fin, LocalTime heureDebut, LocalTime heureFin,
+			String statut) {
+		jdbcTemplate.update("INSERT INTO reservations (id, date_debut, date_fin, heure_debut, heure_fin, "
+				+ "type_evenement, nombre_personnes, montant_total, statut, utilisateur_id, salle_id, version, "
+				+ "created_at, updated_at) VALUES (nextval('reservation_seq'), ?, ?, ?, ?, ?, 1, 1000, ?, ?, ?, 0, "
+				+ "now(), now())", debut, fin, heureDebut, heureFin, TYPE, statut,
+				utilisateurRepository.findByUsername("john").orElseThrow().getId(), salleId);
+	}
+}
@@ -0,0 +1,133 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ifri.bookmyhall.dto.DisponibiliteDTO;
+import com.ifri.bookmyhall.dto.ReservationDTO;
+import com.ifri.bookmyhall.dto.SalleDTO;
+import com.ifri.bookmyhall.repositories.UtilisateurRepository;
+
+/**
+ * Le calendrier marque les créneaux de quinze minutes couverts par les
+ * réservations actives et les retenues, jour par jour sur la période : une
+ * réservation sur plusieurs jours est coupée aux bornes, les heures sont
+ * arrondies au créneau englobant et les réservations annulées sont ignorées.
+ */
+@SpringBootTest
+class DisponibiliteServiceTests {
+
+	private static final String AUTRE = "disponibilite-autre";
+
+	@Autowired
+	private DisponibiliteService disponibiliteService;
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private SlotHoldService slotHoldService;
+
+	@Autowired
+	private SalleService salleService;
+
+	@Autowired
+	private UtilisateurRepository utilisateurRepository;
+
+	private Long salleId;
+	private final List<Long> reservationIds = new ArrayList<>();
+
+	@BeforeEach
+	void preparer() {
+		salleId = salleService.createSalle(SalleDTO.builder()
+				.nom("Salle disponibilite" + UUID.randomUUID().toString().substring(0, 8)).capacite(50)
+				.localisation("Cotonou, Tests").prixParJour(new BigDecimal("1000")).disponible(true).build(), null)
+				.getId();
+	}
+
+	@AfterEach
+	void nettoyer() {
+		slotHoldService.liberer(AUTRE, salleId);
+		reservationIds.forEach(reservationService::deleteReservation);
+		reservationIds.clear();
+		salleService.deleteSalle(salleId);
+	}
+
+	@Test
+	void creneauxReservesEtRetenusMarques() {
+		LocalDate jour = LocalDate.now().plusYears(14);
+		LocalDate debut = jour.plusDays(1);
+		reserver(jour, jour.plusDays(2), LocalTime.of(10, 0), LocalTime.of(12, 0));
+		reserver(jour.plusDays(3), null, LocalTime.of(10, 10), LocalTime.of(10, 20));
+		reservationService.annulerReservation(
+				reserver(jour.plusDays(3), null, LocalTime.of(14, 0), LocalTime.of(16, 0)));
+		slotHoldService.retenir(AUTRE, salleId, jour.plusDays(3), null, LocalTime.of(20, 0), LocalTime.of(23, 59));
+
+		DisponibiliteDTO disponibilites = disponibiliteService.getDisponibilites(salleId, debut, jour.plusDays(4));
+
+		assertEquals(DisponibiliteService.MINUTES_PAR_CRENEAU, disponibilites.minutesParCreneau());
+		assertEquals(4, disponibilites.jours().size());
+		List<DisponibiliteDTO.Jour> jours = disponibilites.jours();
+
+		// Réservation commencée avant la période : seuls ses jours dans la période sont marqués.
+		assertEquals(debut, jours.get(0).date());
+		assertEquals(creneaux(40, 48), occupes(jours.get(0)));
+		assertEquals(creneaux(40, 48), occupes(jours.get(1)));
+		assertEquals(DisponibiliteService.CRENEAUX_PAR_JOUR - 8, jours.get(1).creneauxLibres());
+
+		// 10:10-10:20 couvre deux créneaux ; l'annulée est ignorée ; la retenue va jusqu'à minuit.
+		List<Integer> attendus = new ArrayList<>(creneaux(40, 42));
+		attendus.addAll(creneaux(80, 96));
+		assertEquals(attendus, occupes(jours.get(2)));
+		assertEquals(DisponibiliteService.CRENEAUX_PAR_JOUR - 18, jours.get(2).creneauxLibres());
+
+		assertEquals("0".repeat(DisponibiliteService.CRENEAUX_PAR_JOUR / 4), jours.get(3).occupation());
+		assertEquals(DisponibiliteService.CRENEAUX_PAR_JOUR, jours.get(3).creneauxLibres());
+	}
+
+	@Test
+	void periodeInvalideRefusee() {
+		LocalDate jour = LocalDate.now().plusYears(14);
+
+		assertThrows(IllegalArgumentException.class,
+				() -> disponibiliteService.getDisponibilites(salleId, jour, jour.minusDays(1)));
+		assertThrows(IllegalArgumentException.class, () -> disponibiliteService.getDisponibilites(salleId, jour,
+				jour.plusDays(DisponibiliteService.JOURS_MAX)));
+		assertEquals(DisponibiliteService.JOURS_MAX, disponibiliteService
+				.getDisponibilites(salleId, jour, jour.plusDays(DisponibiliteService.JOURS_MAX - 1)).jours().size());
+	}
+
+	private Long reserver(LocalDate debut, LocalDate fin, LocalTime heureDebut, LocalTime heureFin) {
+		Long id = reservationService.createReservation(ReservationDTO.builder().salleId(salleId)
+				.utilisateurId(utilisateurRepository.findByUsername("john").orElseThrow().getId())
+				.dateDebut(debut).dateFin(fin).heureDebut(heureDebut).heureFin(heureFin)
+				.typeEvenement("Disponibilité").nombrePersonnes(1).build()).getId();
+		reservationIds.add(id);
+		return id;
+	}
+
+	/** Créneaux occupés d'un jour, décodés du bitset hexadécimal. */
+	private static List<Integer> occupes(DisponibiliteDTO.Jour jour) {
+		return IntStream.range(0, DisponibiliteService.CRENEAUX_PAR_JOUR)
+				.filter(c -> (Character.digit(jour.occupation().charAt(c / 4), 16) >> (c % 4) & 1) == 1)
+				.boxed().toList();
+	}
+
+	private static List<Integer> creneaux(int premier, int dernierExclu) {
+		return IntStream.range(premier, dernierExclu).boxed().toList();
+	}
+}
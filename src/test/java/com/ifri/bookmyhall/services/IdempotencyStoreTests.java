@@ -0,0 +1,139 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ifri.bookmyhall.models.CleIdempotence;
+import com.ifri.bookmyhall.repositories.CleIdempotenceRepository;
+
+/**
+ * Une soumission rejouée reçoit le résultat de la première, un échec libère
+ * la clé, et en mode persistant les clés réservées en base couvrent les
+ * autres nœuds ; une clé abandonnée au-delà du bail est reprise.
+ */
+@SpringBootTest
+class IdempotencyStoreTests {
+
+	@Autowired
+	private IdempotencyStore idempotencyStore;
+
+	@Autowired
+	private CleIdempotenceRepository cleIdempotenceRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void soumissionRejoueeEtEchecLibere() {
+		String cle = UUID.randomUUID().toString();
+		AtomicInteger executions = new AtomicInteger();
+
+		assertThrows(IllegalStateException.class, () -> idempotencyStore.executer("john", cle, () -> {
+			executions.incrementAndGet();
+			throw new IllegalStateException("Conflit de créneau");
+		}));
+		assertEquals(41L, idempotencyStore.executer("john", cle, () -> {
+			executions.incrementAndGet();
+			return 41L;
+		}));
+		assertEquals(41L, idempotencyStore.executer("john", cle, () -> {
+			executions.incrementAndGet();
+			return 0L;
+		}));
+		assertEquals(2, executions.get());
+
+		// La clé est propre à l'utilisateur.
+		assertEquals(7L, idempotencyStore.executer("jane", cle, () -> 7L));
+	}
+
+	@Test
+	void clesPartageesEntreNoeuds() {
+		IdempotencyStore premier = noeudPersistant();
+		IdempotencyStore second = noeudPersistant();
+		String cle = UUID.randomUUID().toString();
+		String portee = "john:" + cle;
+		try {
+			// Échec sur le premier nœud : la clé est libérée en base.
+			assertThrows(IllegalStateException.class, () -> premier.executer("john", cle, () -> {
+				throw new IllegalStateException("Conflit de créneau");
+			}));
+			assertFalse(cleIdempotenceRepository.existsById(portee));
+
+			// Le second nœud rejoue le résultat enregistré par le premier sans exécuter l'action.
+			assertEquals(42L, premier.executer("john", cle, () -> 42L));
+			assertEquals(42L, cleIdempotenceRepository.findById(portee).map(CleIdempotence::getReservationId)
+					.orElseThrow());
+			assertEquals(42L, second.executer("john", cle, () -> {
+				throw new AssertionError("Action rejouée");
+			}));
+
+			// Clé réservée sans résultat (requête en cours ailleurs) : refus.
+			String enCours = UUID.randomUUID().toString();
+			assertEquals(1, cleIdempotenceRepository.reserver("john:" + enCours));
+			assertThrows(IllegalStateException.class, () -> second.executer("john", enCours, () -> 1L));
+			cleIdempotenceRepository.liberer("john:" + enCours);
+		} finally {
+			cleIdempotenceRepository.deleteById(portee);
+		}
+	}
+
+	@Test
+	void resultatEnregistreDansLaTransactionDeLAction() {
+		String cle = UUID.randomUUID().toString();
+		try {
+			// La réservation et le résultat de sa clé sont validés ensemble.
+			assertEquals(5L, noeudPersistant().executer("john", cle, () -> {
+				assertTrue(TransactionSynchronizationManager.isActualTransactionActive());
+				return 5L;
+			}));
+		} finally {
+			cleIdempotenceRepository.deleteById("john:" + cle);
+		}
+	}
+
+	@Test
+	void cleEnCoursAbandonneeReprise() {
+		String cle = UUID.randomUUID().toString();
+		String portee = "john:" + cle;
+		try {
+			// Nœud arrêté entre la réservation de la clé et le commit de l'action.
+			assertEquals(1, cleIdempotenceRepository.reserver(portee));
+			jdbcTemplate.update("UPDATE idempotency_keys SET created_at = now() - interval '2 minutes' WHERE cle = ?",
+					portee);
+
+			assertEquals(9L, noeudPersistant().executer("john", cle, () -> 9L));
+			assertEquals(9L, cleIdempotenceRepository.findById(portee).map(CleIdempotence::getReservationId)
+					.orElseThrow());
+		} finally {
+			cleIdempotenceRepository.deleteById(portee);
+		}
+	}
+
+	/** Instance indépendante en mode persistant, comme sur un autre nœud. */
+	private IdempotencyStore noeudPersistant() {
+		IdempotencyStore noeud = new IdempotencyStore(cleIdempotenceRepository, transactionManager);
+		ReflectionTestUtils.setField(noeud, "capacite", 100);
+		ReflectionTestUtils.setField(noeud, "ttl", Duration.ofHours(24));
+		ReflectionTestUtils.setField(noeud, "persistant", true);
+		ReflectionTestUtils.setField(noeud, "bail", Duration.ofMinutes(1));
+		noeud.initialiser();
+		return noeud;
+	}
+}
@@ -0,0 +1,129 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ifri.bookmyhall.models.Reservation;
+import com.ifri.bookmyhall.models.Reservation.StatutReservation;
+import com.ifri.bookmyhall.models.Salle;
+import com.ifri.bookmyhall.models.Utilisateur;
+import com.ifri.bookmyhall.repositories.SalleRepository;
+import com.ifri.bookmyhall.repositories.UtilisateurRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Insertion de réservations sans regroupement JDBC (lot de 1) puis avec les
+ * lots configurés ; les identifiants viennent de la séquence allouée par blocs.
+ * Lancement : mvn test -Dbenchmark=true -Dtest=InsertionsGroupeesBenchmarkTests
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class InsertionsGroupeesBenchmarkTests {
+
+	private static final int RESERVATIONS = Integer.getInteger("benchmark.reservations", 100_000);
+	private static final int FLUSH = 1_000;
+	private static final int CRENEAUX_PAR_JOUR = 6;
+	private static final String TYPE = "Benchmark lots";
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private SalleRepository salleRepository;
+
+	@Autowired
+	private UtilisateurRepository utilisateurRepository;
+
+	@Autowired
+	private ReservationIntervalIndex reservationIndex;
+
+	private List<Long> salleIds;
+	private Long utilisateurId;
+	private Statistics statistiques;
+
+	@BeforeAll
+	void preparer() {
+		salleIds = salleRepository.findAll().stream().map(Salle::getId).toList();
+		utilisateurId = utilisateurRepository.findByUsername("john").orElseThrow().getId();
+		statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@AfterAll
+	void nettoyer() {
+		jdbcTemplate.update("DELETE FROM reservations WHERE type_evenement = ?", TYPE);
+		reservationIndex.recharger();
+	}
+
+	@Test
+	void compareInsertionsUnitairesEtGroupees() {
+		Mesure unitaire = inserer(1, LocalDate.now().plusYears(50));
+		Mesure groupee = inserer(null, LocalDate.now().plusYears(100));
+
+		System.out.printf("%d réservations%n", RESERVATIONS);
+		System.out.printf("Sans lots : %d ms, %d requêtes préparées%n", unitaire.millis(), unitaire.requetes());
+		System.out.printf("Avec lots : %d ms, %d requêtes préparées%n", groupee.millis(), groupee.requetes());
+		assertEquals(2L * RESERVATIONS, (long) jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM reservations WHERE type_evenement = ?", Long.class, TYPE));
+	}
+
+	/** Insère RESERVATIONS réservations sans chevauchement, avec un lot JDBC imposé ou celui de la configuration. */
+	private Mesure inserer(Integer tailleLot, LocalDate origine) {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		statistiques.clear();
+		long debut = System.nanoTime();
+		transaction.executeWithoutResult(status -> {
+			if (tailleLot != null)
+				entityManager.unwrap(Session.class).setJdbcBatchSize(tailleLot);
+			Utilisateur utilisateur = entityManager.getReference(Utilisateur.class, utilisateurId);
+			for (int i = 0; i < RESERVATIONS; i++) {
+				int salle = i % salleIds.size();
+				int rang = i / salleIds.size();
+				LocalTime heure = LocalTime.of(8 + 2 * (rang % CRENEAUX_PAR_JOUR), 0);
+				entityManager.persist(Reservation.builder()
+						.dateDebut(origine.plusDays(rang / CRENEAUX_PAR_JOUR)).heureDebut(heure)
+						.heureFin(heure.plusMinutes(105)).typeEvenement(TYPE).nombrePersonnes(10)
+						.montantTotal(BigDecimal.ONE).statut(StatutReservation.PENDING).utilisateur(utilisateur)
+						.salle(entityManager.getReference(Salle.class, salleIds.get(salle))).build());
+				if ((i + 1) % FLUSH == 0) {
+					entityManager.flush();
+					entityManager.clear();
+					utilisateur = entityManager.getReference(Utilisateur.class, utilisateurId);
+				}
+			}
+		});
+		return new Mesure((System.nanoTime() - debut) / 1_000_000, statistiques.getPrepareStatementCount());
+	}
+
+	private record Mesure(long millis, long requetes) {
+	}
+}
@@ -0,0 +1,194 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.ifri.bookmyhall.dto.ReservationDTO;
+import com.ifri.bookmyhall.dto.SalleDTO;
+import com.ifri.bookmyhall.exceptions.ConflitModificationException;
+import com.ifri.bookmyhall.models.Reservation.StatutReservation;
+import com.ifri.bookmyhall.repositories.UtilisateurRepository;
+
+/**
+ * Modifications concurrentes de salles et de réservations : pas de mise à jour
+ * perdue, et aucune attente de verrou applicatif (les perdants échouent ou
+ * sont rejoués au lieu d'attendre).
+ */
+@SpringBootTest
+class OptimisticConcurrencyTests {
+
+	private static final int THREADS = 8;
+
+	@Autowired
+	private SalleService salleService;
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private UtilisateurRepository utilisateurRepository;
+
+	@Value("${app.upload-dir}")
+	private String uploadDir;
+
+	private Long salleId;
+	private Long reservationId;
+
+	@BeforeEach
+	void creerDonnees() {
+		salleId = salleService.createSalle(SalleDTO.builder()
+				.nom("Concurrence " + UUID.randomUUID().toString().substring(0, 8)).capacite(50)
+				.localisation("Cotonou, Tests").prixParJour(new BigDecimal("1000")).disponible(true).build(), null)
+				.getId();
+		reservationId = reservationService.createReservation(ReservationDTO.builder().salleId(salleId)
+				.utilisateurId(utilisateurRepository.findByUsername("john").orElseThrow().getId())
+				.dateDebut(LocalDate.now().plusYears(5)).heureDebut(LocalTime.of(10, 0)).heureFin(LocalTime.of(12, 0))
+				.typeEvenement("Concurrence").nombrePersonnes(10).build()).getId();
+	}
+
+	@AfterEach
+	void nettoyer() {
+		reservationService.deleteReservation(reservationId);
+		salleService.deleteSalle(salleId);
+	}
+
+	@Test
+	void editionsConcurrentesDuMemeFormulaire() throws Exception {
+		// Tous les administrateurs partent de la même version : une seule édition doit gagner.
+		// Chaque lecture reçoit sa propre copie de la fiche en cache.
+		Long version = salleService.getSalleById(salleId).getVersion();
+		List<Boolean> resultats = lancer(i -> () -> {
+			SalleDTO edition = salleService.getSalleById(salleId);
+			edition.setVersion(version);
+			edition.setDescription("Edition " + i);
+			try {
+				salleService.updateSalle(salleId, edition, null);
+				return true;
+			} catch (ConflitModificationException e) {
+				return false;
+			}
+		});
+
+		List<Integer> gagnants = new ArrayList<>();
+		for (int i = 0; i < resultats.size(); i++)
+			if (resultats.get(i))
+				gagnants.add(i);
+
+		SalleDTO finale = salleService.getSalleById(salleId);
+		assertEquals(1, gagnants.size());
+		assertEquals("Edition " + gagnants.get(0), finale.getDescription());
+		assertEquals(version + 1, finale.getVersion());
+	}
+
+	@Test
+	void imageRemplaceeApresVerificationDeVersion() throws Exception {
+		Path dossier = Paths.get(uploadDir);
+		SalleDTO perimee = salleService.getSalleById(salleId);
+		String premiere = salleService.updateSalle(salleId, salleService.getSalleById(salleId), image())
+				.getImageFileName();
+		String seconde = null;
+		try {
+			assertTrue(Files.exists(dossier.resolve(premiere)));
+
+			// Version périmée : aucune image écrite, l'image en place est conservée.
+			long fichiers = compterFichiers(dossier);
+			assertThrows(ConflitModificationException.class, () -> salleService.updateSalle(salleId, perimee, image()));
+			assertEquals(fichiers, compterFichiers(dossier));
+			assertTrue(Files.exists(dossier.resolve(premiere)));
+
+			// Modification validée : la nouvelle image remplace l'ancienne après le commit.
+			seconde = salleService.updateSalle(salleId, salleService.getSalleById(salleId), image())
+					.getImageFileName();
+			assertTrue(Files.exists(dossier.resolve(seconde)));
+			assertFalse(Files.exists(dossier.resolve(premiere)));
+		} finally {
+			Files.deleteIfExists(dossier.resolve(premiere));
+			if (seconde != null)
+				Files.deleteIfExists(dossier.resolve(seconde));
+		}
+	}
+
+	@Test
+	void transitionsIdempotentesRejouees() throws Exception {
+		// Confirmations concurrentes : toutes réussissent, une seule écriture.
+		long version = reservationService.getReservationById(reservationId).getVersion();
+		List<Boolean> confirmations = lancer(i -> () -> reservationService.confirmerReservation(reservationId)
+				.getStatut() == StatutReservation.CONFIRMED);
+		ReservationDTO confirmee = reservationService.getReservationById(reservationId);
+		assertEquals(List.of(), confirmations.stream().filter(ok -> !ok).toList());
+		assertEquals(version + 1, confirmee.getVersion());
+
+		// Disponibilité modifiée en concurrence : aucune erreur, une seule écriture.
+		long versionSalle = salleService.getSalleById(salleId).getVersion();
+		lancer(i -> () -> salleService.toggleDisponibilite(salleId, false));
+		SalleDTO salle = salleService.getSalleById(salleId);
+		assertEquals(false, salle.getDisponible());
+		assertEquals(versionSalle + 1, salle.getVersion());
+
+		// Annulations concurrentes : toutes réussissent, une seule écriture.
+		List<Boolean> annulations = lancer(i -> () -> reservationService.annulerReservation(reservationId)
+				.getStatut() == StatutReservation.CANCELLED);
+		ReservationDTO annulee = reservationService.getReservationById(reservationId);
+		assertEquals(List.of(), annulations.stream().filter(ok -> !ok).toList());
+		assertEquals(StatutReservation.CANCELLED, annulee.getStatut());
+		assertEquals(version + 2, annulee.getVersion());
+	}
+
+	private static MockMultipartFile image() {
+		return new MockMultipartFile("image", "salle.png", "image/png", new byte[] { 1, 2, 3 });
+	}
+
+	private static long compterFichiers(Path dossier) throws IOException {
+		try (var fichiers = Files.list(dossier)) {
+			return fichiers.count();
+		}
+	}
+
+	/** Lance THREADS tâches simultanément et retourne leurs résultats dans l'ordre. */
+	private <T> List<T> lancer(IntFunction<Callable<T>> fabrique) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch depart = new CountDownLatch(1);
+		List<Future<T>> futures = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			Callable<T> tache = fabrique.apply(i);
+			futures.add(executor.submit(() -> {
+				depart.await();
+				return tache.call();
+			}));
+		}
+		depart.countDown();
+		List<T> resultats = new ArrayList<>();
+		for (Future<T> future : futures)
+			resultats.add(future.get(30, TimeUnit.SECONDS));
+		executor.shutdown();
+		return resultats;
+	}
+}
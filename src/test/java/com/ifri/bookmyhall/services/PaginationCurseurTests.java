@@ -0,0 +1,82 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ifri.bookmyhall.dto.PageCurseur;
+import com.ifri.bookmyhall.repositories.UtilisateurRepository;
+
+/**
+ * Le parcours par curseur restitue chaque ligne une seule fois, dans l'ordre
+ * des listes paginées par numéro de page.
+ */
+@SpringBootTest
+class PaginationCurseurTests {
+
+	private static final int TAILLE = 3;
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private UtilisateurService utilisateurService;
+
+	@Autowired
+	private UtilisateurRepository utilisateurRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void reservationsParIdentifiant() {
+		assertEquals(jdbcTemplate.queryForList("SELECT id FROM reservations ORDER BY id DESC", Long.class),
+				parcourir(curseur -> reservationService.getReservationsApres(null, curseur, TAILLE), r -> r.getId()));
+		assertEquals(jdbcTemplate.queryForList("SELECT id FROM reservations WHERE statut = 'PENDING' ORDER BY id DESC",
+				Long.class),
+				parcourir(curseur -> reservationService.getReservationsApres("PENDING", curseur, TAILLE),
+						r -> r.getId()));
+	}
+
+	@Test
+	void reservationsUtilisateurParDate() {
+		Long utilisateurId = utilisateurRepository.findByUsername("john").orElseThrow().getId();
+		assertEquals(jdbcTemplate.queryForList("SELECT id FROM reservations WHERE utilisateur_id = ? "
+				+ "ORDER BY date_debut DESC, heure_debut DESC, id DESC", Long.class, utilisateurId),
+				parcourir(curseur -> reservationService.getReservationsByUtilisateurApres(utilisateurId, "all",
+						curseur, TAILLE), r -> r.getId()));
+	}
+
+	@Test
+	void utilisateursParIdentifiant() {
+		assertEquals(jdbcTemplate.queryForList("SELECT id FROM utilisateurs ORDER BY id DESC", Long.class),
+				parcourir(curseur -> utilisateurService.getUtilisateursApres(curseur, TAILLE), u -> u.getId()));
+	}
+
+	@Test
+	void curseurInvalide() {
+		assertThrows(IllegalArgumentException.class, () -> reservationService.getReservationsApres(null, "x", TAILLE));
+		assertThrows(IllegalArgumentException.class,
+				() -> reservationService.getReservationsByUtilisateurApres(1L, null, "2026-01-01", TAILLE));
+	}
+
+	/** Suit les curseurs depuis la première page et collecte les identifiants. */
+	private <T> List<Long> parcourir(Function<String, PageCurseur<T>> lecture, Function<T, Long> id) {
+		List<Long> ids = new ArrayList<>();
+		String curseur = "";
+		do {
+			PageCurseur<T> page = lecture.apply(curseur);
+			page.contenu().forEach(ligne -> ids.add(id.apply(ligne)));
+			curseur = page.suivant();
+		} while (curseur != null);
+		return ids;
+	}
+}
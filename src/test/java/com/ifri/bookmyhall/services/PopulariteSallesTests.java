@@ -0,0 +1,112 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ifri.bookmyhall.dto.NombreReservationsSalle;
+import com.ifri.bookmyhall.dto.ReservationDTO;
+import com.ifri.bookmyhall.dto.SalleDTO;
+import com.ifri.bookmyhall.repositories.UtilisateurRepository;
+
+/**
+ * Le classement de popularité suit les créations et annulations, et concorde
+ * avec un recalage sur la base.
+ */
+@SpringBootTest
+class PopulariteSallesTests {
+
+	@Autowired
+	private PopulariteSalles popularite;
+
+	@Autowired
+	private SalleService salleService;
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private UtilisateurRepository utilisateurRepository;
+
+	@Test
+	void classementSuitLesReservations() {
+		popularite.recaler();
+		Long salleId = salleService.createSalle(SalleDTO.builder()
+				.nom("Popularité " + UUID.randomUUID().toString().substring(0, 8)).capacite(50)
+				.localisation("Cotonou, Tests").prixParJour(new BigDecimal("1000")).disponible(true).build(), null)
+				.getId();
+		assertTrue(popularite.sansReservation().contains(salleId));
+
+		Long reservationId = reservationService.createReservation(ReservationDTO.builder().salleId(salleId)
+				.utilisateurId(utilisateurRepository.findByUsername("john").orElseThrow().getId())
+				.dateDebut(LocalDate.now().plusYears(8)).heureDebut(LocalTime.of(10, 0)).heureFin(LocalTime.of(12, 0))
+				.typeEvenement("Popularité").nombrePersonnes(10).build()).getId();
+		assertEquals(1, nombre(popularite.populaires(Integer.MAX_VALUE, 1), salleId));
+		assertEquals(1, nombre(popularite.populaires(Integer.MAX_VALUE, null), salleId));
+		assertFalse(popularite.sansReservation().contains(salleId));
+
+		List<NombreReservationsSalle> total = popularite.populaires(Integer.MAX_VALUE, null);
+		List<NombreReservationsSalle> fenetre = popularite.populaires(Integer.MAX_VALUE, 30);
+		popularite.recaler();
+		assertEquals(total, popularite.populaires(Integer.MAX_VALUE, null));
+		assertEquals(fenetre, popularite.populaires(Integer.MAX_VALUE, 30));
+
+		reservationService.annulerReservation(reservationId);
+		assertEquals(0, nombre(popularite.populaires(Integer.MAX_VALUE, 1), salleId));
+		assertTrue(popularite.sansReservation().contains(salleId));
+
+		reservationService.deleteReservation(reservationId);
+		salleService.deleteSalle(salleId);
+		assertFalse(popularite.sansReservation().contains(salleId));
+	}
+
+	@Test
+	void changementDeSalleDeplaceLaReservation() {
+		popularite.recaler();
+		Long premiere = creerSalle();
+		Long seconde = creerSalle();
+		ReservationDTO reservation = reservationService.createReservation(ReservationDTO.builder().salleId(premiere)
+				.utilisateurId(utilisateurRepository.findByUsername("john").orElseThrow().getId())
+				.dateDebut(LocalDate.now().plusYears(8).plusMonths(1)).heureDebut(LocalTime.of(10, 0))
+				.heureFin(LocalTime.of(12, 0)).typeEvenement("Popularité").nombrePersonnes(10).build());
+		try {
+			reservation.setSalleId(seconde);
+			reservationService.updateReservation(reservation.getId(), reservation);
+
+			List<NombreReservationsSalle> total = popularite.populaires(Integer.MAX_VALUE, null);
+			assertEquals(0, nombre(total, premiere));
+			assertEquals(1, nombre(total, seconde));
+			assertEquals(1, nombre(popularite.populaires(Integer.MAX_VALUE, 1), seconde));
+			assertTrue(popularite.sansReservation().contains(premiere));
+
+			popularite.recaler();
+			assertEquals(total, popularite.populaires(Integer.MAX_VALUE, null));
+		} finally {
+			reservationService.deleteReservation(reservation.getId());
+			salleService.deleteSalle(premiere);
+			salleService.deleteSalle(seconde);
+		}
+	}
+
+	private Long creerSalle() {
+		return salleService.createSalle(SalleDTO.builder()
+				.nom("Popularité " + UUID.randomUUID().toString().substring(0, 8)).capacite(50)
+				.localisation("Cotonou, Tests").prixParJour(new BigDecimal("1000")).disponible(true).build(), null)
+				.getId();
+	}
+
+	private static long nombre(List<NombreReservationsSalle> classement, Long salleId) {
+		return classement.stream().filter(n -> n.salleId().equals(salleId)).mapToLong(NombreReservationsSalle::nombre)
+				.findFirst().orElse(0);
+	}
+}
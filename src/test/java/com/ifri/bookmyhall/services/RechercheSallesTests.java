@@ -0,0 +1,52 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import com.ifri.bookmyhall.dto.SalleDTO;
+
+/**
+ * La recherche textuelle des salles porte sur le nom, la localisation, les
+ * équipements et la description, sans accents ni casse, et classe les salles
+ * par pertinence avant le prix.
+ */
+@SpringBootTest
+class RechercheSallesTests {
+
+	@Autowired
+	private SalleService salleService;
+
+	@Test
+	void rechercheSansAccentsParPertinence() {
+		String marque = "rech" + UUID.randomUUID().toString().substring(0, 8);
+		Long parNom = creer("Salle Éden " + marque, "Abomey-Calavi, Tests", null, "Climatisation", "5000");
+		Long parDescription = creer("Salle " + UUID.randomUUID().toString().substring(0, 8), "Cotonou, Tests",
+				"Proche de " + marque, null, "1000");
+
+		assertEquals(List.of(parNom, parDescription), rechercher(marque));
+		assertEquals(List.of(parNom), rechercher("EDEN " + marque));
+		assertEquals(List.of(parNom), rechercher("Calavi " + marque));
+		assertEquals(List.of(parNom), rechercher("climatisation " + marque));
+
+		salleService.deleteSalle(parNom);
+		salleService.deleteSalle(parDescription);
+	}
+
+	private List<Long> rechercher(String texte) {
+		return salleService.searchSalles(texte, null, null, PageRequest.of(0, 9)).map(SalleDTO::getId).getContent();
+	}
+
+	private Long creer(String nom, String localisation, String description, String equipements, String prix) {
+		return salleService.createSalle(SalleDTO.builder().nom(nom).capacite(50).localisation(localisation)
+				.description(description).equipements(equipements).prixParJour(new BigDecimal(prix)).disponible(true)
+				.build(), null).getId();
+	}
+}
@@ -0,0 +1,126 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ifri.bookmyhall.models.Salle;
+import com.ifri.bookmyhall.repositories.ReservationRepository;
+import com.ifri.bookmyhall.repositories.SalleRepository;
+import com.ifri.bookmyhall.repositories.UtilisateurRepository;
+
+/**
+ * Compare l'index mémoire des créneaux à la requête SQL de conflit.
+ * Lancement : mvn test -Dbenchmark=true -Dtest=ReservationIntervalIndexBenchmarkTests
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReservationIntervalIndexBenchmarkTests {
+
+	private static final int RESERVATIONS = Integer.getInteger("benchmark.reservations", 2_000_000);
+	private static final int VERIFICATIONS = Integer.getInteger("benchmark.checks", 10_000);
+	private static final long ID_OFFSET = 1_000_000_000L;
+	private static final int CRENEAUX_PAR_JOUR = 6;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ReservationRepository reservationRepository;
+
+	@Autowired
+	private SalleRepository salleRepository;
+
+	@Autowired
+	private UtilisateurRepository utilisateurRepository;
+
+	@Autowired
+	private ReservationIntervalIndex reservationIndex;
+
+	private List<Long> salleIds;
+	private long jours;
+
+	@BeforeAll
+	void insererReservations() {
+		salleIds = salleRepository.findAll().stream().map(Salle::getId).collect(Collectors.toList());
+		Long utilisateurId = utilisateurRepository.findByUsername("john").orElseThrow().getId();
+		int salles = salleIds.size();
+		jours = (RESERVATIONS + (long) salles * CRENEAUX_PAR_JOUR - 1) / ((long) salles * CRENEAUX_PAR_JOUR);
+		String tableauSalles = salleIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+
+		// Créneaux de 2h sans chevauchement : une salle, un jour, un créneau par ligne.
+		jdbcTemplate.update("INSERT INTO reservations (id, date_debut, heure_debut, heure_fin, type_evenement, "
+				+ "nombre_personnes, montant_total, statut, utilisateur_id, salle_id, created_at, updated_at) "
+				+ "SELECT ? + g, CURRENT_DATE - CAST(? AS int) + ((g / ?) % ?)::int, "
+				+ "TIME '08:00' + (g / (? * ?))::int * INTERVAL '2 hour', "
+				+ "TIME '09:45' + (g / (? * ?))::int * INTERVAL '2 hour', 'Benchmark', 10, 1000, "
+				+ "CASE WHEN g % 10 = 0 THEN 'CANCELLED' ELSE 'CONFIRMED' END, ?, "
+				+ "(ARRAY[" + tableauSalles + "])[1 + g % ?], now(), now() "
+				+ "FROM generate_series(0, ? - 1) g",
+				ID_OFFSET, jours / 2, salles, jours, salles, jours, salles, jours, utilisateurId, salles,
+				RESERVATIONS);
+		reservationIndex.recharger();
+	}
+
+	@AfterAll
+	void supprimerReservations() {
+		jdbcTemplate.update("DELETE FROM reservations WHERE id > ?", ID_OFFSET);
+		reservationIndex.recharger();
+	}
+
+	@Test
+	void compareIndexEtRequeteSql() {
+		Random random = new Random(42);
+		LocalDate aujourdhui = LocalDate.now();
+		long[] dureesSql = new long[VERIFICATIONS];
+		long[] dureesIndex = new long[VERIFICATIONS];
+
+		for (int i = 0; i < VERIFICATIONS; i++) {
+			Long salleId = salleIds.get(random.nextInt(salleIds.size()));
+			LocalDate debut = aujourdhui.plusDays(1 + random.nextInt((int) (jours / 2)));
+			LocalDate fin = debut.plusDays(random.nextInt(3));
+			LocalTime heureDebut = LocalTime.of(7 + random.nextInt(12), 15 * random.nextInt(4));
+			LocalTime heureFin = heureDebut.plusMinutes(30 + 15L * random.nextInt(8));
+
+			long t0 = System.nanoTime();
+			boolean sql = reservationRepository.existsConflictingReservation(salleId, debut, fin, heureDebut,
+					heureFin);
+			long t1 = System.nanoTime();
+			boolean index = reservationIndex.existeConflit(salleId, debut, fin, heureDebut, heureFin, null);
+			long t2 = System.nanoTime();
+
+			assertEquals(sql, index, "Résultat divergent pour la salle " + salleId + " le " + debut);
+			dureesSql[i] = t1 - t0;
+			dureesIndex[i] = t2 - t1;
+		}
+
+		System.out.printf("%d réservations, %d vérifications%n", RESERVATIONS, VERIFICATIONS);
+		System.out.printf("SQL   : moyenne %.1f µs, p99 %.1f µs%n", moyenne(dureesSql), p99(dureesSql));
+		System.out.printf("Index : moyenne %.1f µs, p99 %.1f µs%n", moyenne(dureesIndex), p99(dureesIndex));
+	}
+
+	private static double moyenne(long[] durees) {
+		return Arrays.stream(durees).average().orElse(0) / 1_000.0;
+	}
+
+	private static double p99(long[] durees) {
+		long[] tri = durees.clone();
+		Arrays.sort(tri);
+		return tri[(int) (tri.length * 0.99)] / 1_000.0;
+	}
+}
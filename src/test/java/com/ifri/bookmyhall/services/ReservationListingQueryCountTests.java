@@ -0,0 +1,119 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ifri.bookmyhall.dto.ReservationDTO;
+import com.ifri.bookmyhall.models.Salle;
+import com.ifri.bookmyhall.repositories.SalleRepository;
+import com.ifri.bookmyhall.repositories.UtilisateurRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Les listes de réservations s'exécutent en un nombre fixe de requêtes
+ * (page + comptage, ou page seule en mode tranche), quelle que soit la taille
+ * de la page.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReservationListingQueryCountTests {
+
+	private static final int RESERVATIONS = 60;
+	private static final long ID_OFFSET = 1_500_000_000L;
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private SalleRepository salleRepository;
+
+	@Autowired
+	private UtilisateurRepository utilisateurRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Statistics statistiques;
+	private Long utilisateurId;
+
+	@BeforeAll
+	void insererReservations() {
+		utilisateurId = utilisateurRepository.findByUsername("john").orElseThrow().getId();
+		List<Long> salleIds = salleRepository.findAll().stream().map(Salle::getId).toList();
+		String tableauSalles = salleIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+
+		// Un jour distinct par ligne, réparties sur toutes les salles.
+		jdbcTemplate.update("INSERT INTO reservations (id, date_debut, heure_debut, heure_fin, type_evenement, "
+				+ "nombre_personnes, montant_total, statut, utilisateur_id, salle_id, version, created_at, updated_at) "
+				+ "SELECT ? + g, CURRENT_DATE + 3650 + g, TIME '10:00', TIME '12:00', 'Comptage', 10, 1000, "
+				+ "'PENDING', ?, (ARRAY[" + tableauSalles + "])[1 + g % ?], 0, now(), now() "
+				+ "FROM generate_series(1, ?) g", ID_OFFSET, utilisateurId, salleIds.size(), RESERVATIONS);
+
+		statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@AfterAll
+	void supprimerReservations() {
+		jdbcTemplate.update("DELETE FROM reservations WHERE id > ? AND type_evenement = 'Comptage'", ID_OFFSET);
+	}
+
+	@Test
+	void toutesLesReservations() {
+		verifierRequetes(reservationService::getAllReservations);
+	}
+
+	@Test
+	void reservationsParStatut() {
+		verifierRequetes(pageable -> reservationService.getReservationsByStatut("PENDING", pageable));
+	}
+
+	@Test
+	void reservationsDUnUtilisateur() {
+		verifierRequetes(pageable -> reservationService.getReservationsByUtilisateur(utilisateurId, pageable));
+		verifierRequetes(pageable -> reservationService.getReservationsByUtilisateur(utilisateurId, "PENDING",
+				pageable));
+	}
+
+	@Test
+	void reservationsSansComptage() {
+		// Premier appel : initialise les totaux rafraîchis périodiquement (les totaux
+		// par statut viennent des compteurs du tableau de bord, chargés au démarrage).
+		reservationService.getReservationsSansComptage(null, PageRequest.of(0, 1));
+		verifierRequetes(pageable -> reservationService.getReservationsSansComptage(null, pageable), 1);
+		verifierRequetes(pageable -> reservationService.getReservationsSansComptage("PENDING", pageable), 1);
+	}
+
+	/** Une requête pour la page et une pour le comptage, pour 5 comme pour 50 lignes. */
+	private void verifierRequetes(Function<Pageable, Page<ReservationDTO>> liste) {
+		verifierRequetes(liste, 2);
+	}
+
+	private void verifierRequetes(Function<Pageable, Page<ReservationDTO>> liste, int requetes) {
+		for (int taille : new int[] { 5, 50 }) {
+			statistiques.clear();
+			Page<ReservationDTO> page = liste.apply(PageRequest.of(0, taille));
+			assertEquals(taille, page.getContent().size());
+			assertEquals(requetes, statistiques.getPrepareStatementCount(), "Requêtes pour une page de " + taille);
+		}
+	}
+}
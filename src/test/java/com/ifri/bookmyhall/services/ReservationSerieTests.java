@@ -0,0 +1,124 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ifri.bookmyhall.dto.ReservationDTO;
+import com.ifri.bookmyhall.dto.ReservationSerieDTO;
+import com.ifri.bookmyhall.dto.ResultatSerieDTO;
+import com.ifri.bookmyhall.models.Salle;
+import com.ifri.bookmyhall.repositories.SalleRepository;
+import com.ifri.bookmyhall.repositories.UtilisateurRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Une série est acceptée partiellement : les occurrences passées, en conflit
+ * ou retenues par un autre utilisateur sont rapportées une à une, et les
+ * créneaux existants sont lus en une seule requête sur toute la période.
+ */
+@SpringBootTest
+class ReservationSerieTests {
+
+	private static final LocalTime DEBUT = LocalTime.of(10, 0);
+	private static final LocalTime FIN = LocalTime.of(12, 0);
+	private static final String AUTRE = "serie-autre";
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private SlotHoldService slotHoldService;
+
+	@Autowired
+	private SalleRepository salleRepository;
+
+	@Autowired
+	private UtilisateurRepository utilisateurRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Long salleId;
+	private Long utilisateurId;
+	private final List<Long> reservationIds = new ArrayList<>();
+
+	@BeforeEach
+	void preparer() {
+		salleId = salleRepository.findAll().stream().filter(Salle::isReservable).findFirst().orElseThrow().getId();
+		utilisateurId = utilisateurRepository.findByUsername("john").orElseThrow().getId();
+	}
+
+	@AfterEach
+	void nettoyer() {
+		slotHoldService.liberer(AUTRE, salleId);
+		reservationIds.forEach(reservationService::deleteReservation);
+		reservationIds.clear();
+	}
+
+	@Test
+	void occurrencesRefuseesRapporteesUneAUne() {
+		LocalDate passee = LocalDate.now().minusDays(7);
+		LocalDate libre = LocalDate.now().plusYears(13);
+		LocalDate enConflit = libre.plusDays(7);
+		LocalDate retenue = libre.plusDays(14);
+		LocalDate derniere = libre.plusDays(21);
+
+		reservationIds.add(reservationService.createReservation(ReservationDTO.builder().salleId(salleId)
+				.utilisateurId(utilisateurId).dateDebut(enConflit).heureDebut(LocalTime.of(11, 0))
+				.heureFin(LocalTime.of(13, 0)).typeEvenement("Série").nombrePersonnes(1).build()).getId());
+		slotHoldService.retenir(AUTRE, salleId, retenue, null, DEBUT, FIN);
+
+		// La première date, passée, précède l'index mémoire : la période est lue en base.
+		Statistics statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		long lectures = lecturesCreneaux(statistiques);
+		ResultatSerieDTO resultat = reservationService.createReservationsSerie(
+				serie(List.of(passee, libre, enConflit, retenue, derniere)));
+		resultat.getCreees().forEach(r -> reservationIds.add(r.getId()));
+
+		assertEquals(1, lecturesCreneaux(statistiques) - lectures);
+		assertEquals(List.of(libre, derniere), resultat.getCreees().stream().map(ReservationDTO::getDateDebut).toList());
+		assertEquals(Map.of(passee, "Date passée", enConflit, "Conflit de créneau", retenue,
+				"Créneau en cours de réservation"), resultat.getRefusees());
+	}
+
+	@Test
+	void nombreOccurrencesBorne() {
+		LocalDate premiere = LocalDate.now().plusYears(13).plusMonths(6);
+		List<LocalDate> dates = new ArrayList<>();
+		for (int i = 0; i <= ReservationSerieDTO.OCCURRENCES_MAX; i++)
+			dates.add(premiere.plusDays(i));
+
+		assertThrows(IllegalArgumentException.class, () -> reservationService.createReservationsSerie(serie(dates)));
+		assertEquals(ReservationSerieDTO.OCCURRENCES_MAX,
+				serie(dates.subList(0, ReservationSerieDTO.OCCURRENCES_MAX)).getDatesOccurrences().size());
+	}
+
+	private ReservationSerieDTO serie(List<LocalDate> dates) {
+		return ReservationSerieDTO.builder().dates(new ArrayList<>(dates)).heureDebut(DEBUT).heureFin(FIN)
+				.typeEvenement("Série").nombrePersonnes(1).utilisateurId(utilisateurId).salleId(salleId).build();
+	}
+
+	/** Exécutions de la requête des créneaux actifs d'une salle sur une période. */
+	private static long lecturesCreneaux(Statistics statistiques) {
+		return Arrays.stream(statistiques.getQueries())
+				.filter(q -> q.contains("CreneauReservation") && q.contains("<= :dateFin"))
+				.mapToLong(q -> statistiques.getQueryStatistics(q).getExecutionCount())
+				.sum();
+	}
+}
@@ -0,0 +1,69 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ifri.bookmyhall.dto.ReservationDTO;
+import com.ifri.bookmyhall.dto.ResumeUtilisateurDTO;
+import com.ifri.bookmyhall.models.Reservation.StatutReservation;
+import com.ifri.bookmyhall.repositories.SalleRepository;
+import com.ifri.bookmyhall.repositories.UtilisateurRepository;
+
+/**
+ * Le résumé utilisateur concorde avec la base et son cache est invalidé par
+ * les écritures de l'utilisateur.
+ */
+@SpringBootTest
+class ResumeUtilisateurTests {
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private UtilisateurRepository utilisateurRepository;
+
+	@Autowired
+	private SalleRepository salleRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void resumeInvalideParLesEcritures() {
+		Long utilisateurId = utilisateurRepository.findByUsername("john").orElseThrow().getId();
+		ResumeUtilisateurDTO resume = reservationService.getResumeUtilisateur(utilisateurId);
+		verifierComptes(utilisateurId, resume);
+		assertTrue(resume.recentes().size() <= 5);
+		assertSame(resume, reservationService.getResumeUtilisateur(utilisateurId));
+
+		Long reservationId = reservationService.createReservation(ReservationDTO.builder()
+				.salleId(salleRepository.findAll().get(0).getId()).utilisateurId(utilisateurId)
+				.dateDebut(LocalDate.now().plusYears(9)).heureDebut(LocalTime.of(10, 0)).heureFin(LocalTime.of(12, 0))
+				.typeEvenement("Résumé").nombrePersonnes(1).build()).getId();
+		ResumeUtilisateurDTO apres = reservationService.getResumeUtilisateur(utilisateurId);
+		assertNotEquals(resume, apres);
+		verifierComptes(utilisateurId, apres);
+		assertEquals(resume.total() + 1, apres.total());
+		assertEquals(reservationId, apres.recentes().get(0).getId());
+
+		reservationService.deleteReservation(reservationId);
+		verifierComptes(utilisateurId, reservationService.getResumeUtilisateur(utilisateurId));
+	}
+
+	private void verifierComptes(Long utilisateurId, ResumeUtilisateurDTO resume) {
+		for (StatutReservation statut : StatutReservation.values())
+			assertEquals(jdbcTemplate.queryForObject(
+					"SELECT COUNT(*) FROM reservations WHERE utilisateur_id = ? AND statut = ?", Long.class,
+					utilisateurId, statut.name()), resume.parStatut().get(statut));
+	}
+}
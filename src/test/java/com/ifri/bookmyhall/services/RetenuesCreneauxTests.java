@@ -0,0 +1,149 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import com.ifri.bookmyhall.dto.ReservationDTO;
+import com.ifri.bookmyhall.dto.SalleDTO;
+import com.ifri.bookmyhall.exceptions.ResourceNotFoundException;
+import com.ifri.bookmyhall.models.Salle;
+import com.ifri.bookmyhall.repositories.SalleRepository;
+import com.ifri.bookmyhall.repositories.UtilisateurRepository;
+
+/**
+ * Une retenue de créneau est validée comme une réservation, le nombre de
+ * salles retenues par utilisateur est borné et une salle retenue n'apparaît
+ * pas libre aux autres utilisateurs.
+ */
+@SpringBootTest
+class RetenuesCreneauxTests {
+
+	private static final LocalTime DEBUT = LocalTime.of(10, 0);
+	private static final LocalTime FIN = LocalTime.of(12, 0);
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private SlotHoldService slotHoldService;
+
+	@Autowired
+	private SalleService salleService;
+
+	@Autowired
+	private SalleRepository salleRepository;
+
+	@Autowired
+	private UtilisateurRepository utilisateurRepository;
+
+	@Test
+	void creneauxInvalidesRefuses() {
+		String utilisateur = utilisateur();
+		Long salleId = salles().get(0);
+		LocalDate jour = LocalDate.now().plusYears(11);
+
+		assertThrows(ResourceNotFoundException.class,
+				() -> reservationService.retenirCreneau(utilisateur, -1L, jour, null, DEBUT, FIN));
+		assertThrows(IllegalArgumentException.class, () -> reservationService.retenirCreneau(utilisateur, salleId,
+				LocalDate.now(), null, DEBUT, FIN));
+		assertThrows(IllegalArgumentException.class, () -> reservationService.retenirCreneau(utilisateur, salleId,
+				jour, jour.plusDays(ReservationDTO.DUREE_MAX_JOURS), LocalTime.MIN, LocalTime.of(23, 59)));
+
+		Long reservationId = reservationService.createReservation(ReservationDTO.builder().salleId(salleId)
+				.utilisateurId(utilisateurRepository.findByUsername("john").orElseThrow().getId())
+				.dateDebut(jour).heureDebut(DEBUT).heureFin(FIN).typeEvenement("Retenue").nombrePersonnes(1)
+				.build()).getId();
+		try {
+			assertThrows(IllegalStateException.class, () -> reservationService.retenirCreneau(utilisateur, salleId,
+					jour.minusDays(1), jour, LocalTime.of(11, 0), LocalTime.of(13, 0)));
+			reservationService.retenirCreneau(utilisateur, salleId, jour, null, FIN, LocalTime.of(14, 0));
+		} finally {
+			slotHoldService.liberer(utilisateur, salleId);
+			reservationService.deleteReservation(reservationId);
+		}
+	}
+
+	@Test
+	void retenuesBorneesParUtilisateur() {
+		String utilisateur = utilisateur();
+		List<Long> salleIds = salles();
+		LocalDate jour = LocalDate.now().plusYears(11).plusMonths(1);
+		try {
+			for (Long salleId : salleIds.subList(0, 3))
+				reservationService.retenirCreneau(utilisateur, salleId, jour, null, DEBUT, FIN);
+			assertThrows(IllegalStateException.class,
+					() -> reservationService.retenirCreneau(utilisateur, salleIds.get(3), jour, null, DEBUT, FIN));
+
+			// Remplacer une retenue existante ne compte pas en plus.
+			reservationService.retenirCreneau(utilisateur, salleIds.get(0), jour.plusDays(1), null, DEBUT, FIN);
+			assertEquals(1, slotHoldService.creneauxRetenus(salleIds.get(0), jour, jour.plusDays(1)).size());
+
+			slotHoldService.liberer(utilisateur, salleIds.get(0));
+			reservationService.retenirCreneau(utilisateur, salleIds.get(3), jour, null, DEBUT, FIN);
+		} finally {
+			salleIds.forEach(salleId -> slotHoldService.liberer(utilisateur, salleId));
+		}
+	}
+
+	@Test
+	void retenueRenouveleeRemplaceSonExpiration() {
+		String utilisateur = utilisateur();
+		Long salleId = salles().get(0);
+		LocalDate jour = LocalDate.now().plusYears(11).plusMonths(3);
+		int enAttente = slotHoldService.expirationsEnAttente();
+		try {
+			for (int i = 0; i < 50; i++)
+				reservationService.retenirCreneau(utilisateur, salleId, jour, null, DEBUT, FIN);
+			assertEquals(enAttente + 1, slotHoldService.expirationsEnAttente());
+		} finally {
+			slotHoldService.liberer(utilisateur, salleId);
+		}
+		assertEquals(enAttente, slotHoldService.expirationsEnAttente());
+	}
+
+	@Test
+	void salleRetenueExclueDesRecherchesDesAutres() {
+		String utilisateur = utilisateur();
+		String marque = "retenue" + UUID.randomUUID().toString().substring(0, 8);
+		Long salleId = salleService.createSalle(SalleDTO.builder().nom("Salle " + marque).capacite(50)
+				.localisation("Cotonou, Tests").prixParJour(new BigDecimal("1000")).disponible(true).build(), null)
+				.getId();
+		LocalDate jour = LocalDate.now().plusYears(11).plusMonths(2);
+		try {
+			reservationService.retenirCreneau(utilisateur, salleId, jour, null, DEBUT, FIN);
+
+			assertEquals(List.of(), libres(marque, jour, DEBUT, FIN, "autre"));
+			assertEquals(List.of(), libres(marque, jour, null, null, null));
+			assertEquals(List.of(salleId), libres(marque, jour, DEBUT, FIN, utilisateur));
+			assertEquals(List.of(salleId), libres(marque, jour, FIN, LocalTime.of(14, 0), "autre"));
+			assertEquals(List.of(salleId), libres(marque, jour.plusDays(1), DEBUT, FIN, "autre"));
+		} finally {
+			slotHoldService.liberer(utilisateur, salleId);
+			salleService.deleteSalle(salleId);
+		}
+	}
+
+	private List<Long> libres(String texte, LocalDate jour, LocalTime debut, LocalTime fin, String utilisateur) {
+		return salleService.searchSallesLibres(texte, null, null, jour, null, debut, fin, utilisateur,
+				PageRequest.of(0, 9)).map(SalleDTO::getId).getContent();
+	}
+
+	private List<Long> salles() {
+		return salleRepository.findAll().stream().filter(Salle::isReservable).map(Salle::getId).limit(4).toList();
+	}
+
+	private static String utilisateur() {
+		return "retenue-" + UUID.randomUUID().toString().substring(0, 8);
+	}
+}
@@ -0,0 +1,130 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ifri.bookmyhall.dto.SalleDTO;
+import com.ifri.bookmyhall.models.Salle;
+import com.ifri.bookmyhall.repositories.SalleRepository;
+import com.ifri.bookmyhall.repositories.UtilisateurRepository;
+
+/**
+ * Compare le nombre de réservations par salle obtenu en chargeant la collection
+ * (ancienne conversion) et par la projection DTO des listes, sur des salles très
+ * réservées.
+ * Lancement : mvn test -Dbenchmark=true -Dtest=SalleCompteursBenchmarkTests
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SalleCompteursBenchmarkTests {
+
+	private static final int SALLES = 9;
+	private static final int RESERVATIONS_PAR_SALLE = Integer.getInteger("benchmark.reservations", 10_000);
+	private static final int ITERATIONS = 20;
+	private static final String TYPE = "Benchmark compteurs";
+
+	@Autowired
+	private SalleService salleService;
+
+	@Autowired
+	private SalleRepository salleRepository;
+
+	@Autowired
+	private UtilisateurRepository utilisateurRepository;
+
+	@Autowired
+	private ReservationIntervalIndex reservationIndex;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final List<Long> salleIds = new ArrayList<>();
+
+	@BeforeAll
+	void creerSalles() {
+		Long utilisateurId = utilisateurRepository.findByUsername("john").orElseThrow().getId();
+		for (int i = 0; i < SALLES; i++) {
+			Long salleId = salleRepository.save(Salle.builder()
+					.nom("Compteurs " + UUID.randomUUID().toString().substring(0, 8)).capacite(100)
+					.localisation("Cotonou, Benchmark").prixParJour(new BigDecimal("1000")).disponible(true).build())
+					.getId();
+			salleIds.add(salleId);
+			// Un jour par réservation : pas de chevauchement.
+			jdbcTemplate.update("INSERT INTO reservations (id, date_debut, heure_debut, heure_fin, type_evenement, "
+					+ "nombre_personnes, montant_total, statut, utilisateur_id, salle_id, version, created_at, "
+					+ "updated_at) SELECT nextval('reservation_seq'), CURRENT_DATE + 3650 + g, TIME '10:00', "
+					+ "TIME '12:00', ?, 10, 1000, 'CONFIRMED', ?, ?, 0, now(), now() FROM generate_series(1, ?) g",
+					TYPE, utilisateurId, salleId, RESERVATIONS_PAR_SALLE);
+		}
+	}
+
+	@AfterAll
+	void nettoyer() {
+		jdbcTemplate.update("DELETE FROM reservations WHERE type_evenement = ?", TYPE);
+		salleRepository.deleteAllById(salleIds);
+		reservationIndex.recharger();
+	}
+
+	@Test
+	void compareCollectionEtProjection() {
+		Pageable page = PageRequest.of(0, SALLES + 10, Sort.by("id"));
+		TransactionTemplate lecture = new TransactionTemplate(transactionManager);
+		lecture.setReadOnly(true);
+
+		Mesure collection = mesurer(() -> lecture.execute(status -> salleRepository.findAll(page)
+				.map(s -> (long) s.getReservations().size()).getContent()));
+		Mesure projection = mesurer(() -> salleService.getAllSalles(page).map(SalleDTO::getNombreReservations)
+				.getContent());
+
+		assertEquals(collection.nombres(), projection.nombres());
+		System.out.printf("%d salles x %d réservations, %d itérations%n", SALLES, RESERVATIONS_PAR_SALLE,
+				ITERATIONS);
+		System.out.printf("Collection chargée : %.1f ms/page, %.1f Mo alloués/page%n", collection.millis(),
+				collection.megaOctets());
+		System.out.printf("Projection DTO     : %.1f ms/page, %.1f Mo alloués/page%n", projection.millis(),
+				projection.megaOctets());
+	}
+
+	/** Exécute la liste ITERATIONS fois et mesure durée et allocations moyennes du thread. */
+	private Mesure mesurer(Supplier<List<Long>> liste) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		long thread = Thread.currentThread().threadId();
+		List<Long> nombres = liste.get();
+
+		long octets = threads.getThreadAllocatedBytes(thread);
+		long debut = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++)
+			liste.get();
+		double millis = (System.nanoTime() - debut) / 1e6 / ITERATIONS;
+		double megaOctets = (threads.getThreadAllocatedBytes(thread) - octets) / 1e6 / ITERATIONS;
+		return new Mesure(nombres, millis, megaOctets);
+	}
+
+	private record Mesure(List<Long> nombres, double millis, double megaOctets) {
+	}
+}
@@ -0,0 +1,113 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import com.ifri.bookmyhall.dto.ReservationDTO;
+import com.ifri.bookmyhall.dto.SalleDTO;
+import com.ifri.bookmyhall.repositories.UtilisateurRepository;
+
+/**
+ * La recherche des salles libres exclut celles qui ont une réservation active
+ * sur le créneau demandé : sans heures, le créneau couvre toute la journée, et
+ * sans date de fin, il se limite à la date de début.
+ */
+@SpringBootTest
+class SalleServiceTests {
+
+	private static final LocalTime DEBUT = LocalTime.of(10, 0);
+	private static final LocalTime FIN = LocalTime.of(12, 0);
+
+	@Autowired
+	private SalleService salleService;
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private UtilisateurRepository utilisateurRepository;
+
+	private String marque;
+	private final List<Long> salleIds = new ArrayList<>();
+	private final List<Long> reservationIds = new ArrayList<>();
+
+	@BeforeEach
+	void preparer() {
+		marque = "libre" + UUID.randomUUID().toString().substring(0, 8);
+	}
+
+	@AfterEach
+	void nettoyer() {
+		reservationIds.forEach(reservationService::deleteReservation);
+		salleIds.forEach(salleService::deleteSalle);
+	}
+
+	@Test
+	void sallesReserveesExclues() {
+		LocalDate jour = LocalDate.now().plusYears(15);
+		Long occupee = creerSalle();
+		Long voisine = creerSalle();
+		reserver(occupee, jour, DEBUT, FIN);
+		reserver(voisine, jour.plusDays(2), LocalTime.of(8, 0), LocalTime.of(9, 0));
+
+		// Chevauchement exclu, créneau adjacent accepté.
+		assertEquals(Set.of(voisine), libres(jour, null, LocalTime.of(11, 0), LocalTime.of(13, 0)));
+		assertEquals(Set.of(occupee, voisine), libres(jour, null, FIN, LocalTime.of(14, 0)));
+
+		// Sans heures, toute la journée est demandée.
+		assertEquals(Set.of(voisine), libres(jour, null, null, null));
+		assertEquals(Set.of(voisine), libres(jour, null, LocalTime.of(11, 0), null));
+		assertEquals(Set.of(occupee, voisine), libres(jour, null, null, DEBUT));
+
+		// Sans date de fin, seule la date de début est demandée.
+		assertEquals(Set.of(occupee, voisine), libres(jour.plusDays(1), null, null, null));
+		assertEquals(Set.of(occupee), libres(jour.plusDays(1), jour.plusDays(2), null, null));
+		assertEquals(Set.of(), libres(jour, jour.plusDays(2), null, null));
+	}
+
+	@Test
+	void creneauInvalideRefuse() {
+		LocalDate jour = LocalDate.now().plusYears(15);
+
+		assertThrows(IllegalArgumentException.class, () -> libres(jour, jour.minusDays(1), null, null));
+		assertThrows(IllegalArgumentException.class, () -> libres(jour, null, DEBUT, DEBUT));
+		assertThrows(IllegalArgumentException.class, () -> libres(jour, null, FIN, DEBUT));
+		assertThrows(IllegalArgumentException.class, () -> libres(jour, null, null, LocalTime.MIN));
+	}
+
+	private Set<Long> libres(LocalDate debut, LocalDate fin, LocalTime heureDebut, LocalTime heureFin) {
+		return Set.copyOf(salleService.searchSallesLibres(marque, null, null, debut, fin, heureDebut, heureFin, null,
+				PageRequest.of(0, 9)).map(SalleDTO::getId).getContent());
+	}
+
+	private Long creerSalle() {
+		Long id = salleService.createSalle(SalleDTO.builder()
+				.nom("Salle " + marque + " " + UUID.randomUUID().toString().substring(0, 8)).capacite(50)
+				.localisation("Cotonou, Tests").prixParJour(new BigDecimal("1000")).disponible(true).build(), null)
+				.getId();
+		salleIds.add(id);
+		return id;
+	}
+
+	private void reserver(Long salleId, LocalDate jour, LocalTime heureDebut, LocalTime heureFin) {
+		reservationIds.add(reservationService.createReservation(ReservationDTO.builder().salleId(salleId)
+				.utilisateurId(utilisateurRepository.findByUsername("john").orElseThrow().getId())
+				.dateDebut(jour).heureDebut(heureDebut).heureFin(heureFin).typeEvenement("Recherche")
+				.nombrePersonnes(1).build()).getId());
+	}
+}
@@ -0,0 +1,71 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ifri.bookmyhall.dto.ReservationDTO;
+import com.ifri.bookmyhall.dto.SalleDTO;
+import com.ifri.bookmyhall.dto.StatistiquesDTO;
+import com.ifri.bookmyhall.models.Reservation.StatutReservation;
+import com.ifri.bookmyhall.repositories.UtilisateurRepository;
+
+/**
+ * Les compteurs du tableau de bord suivent les écritures des services et
+ * restent égaux aux comptages en base.
+ */
+@SpringBootTest
+class StatistiquesTableauBordTests {
+
+	@Autowired
+	private StatistiquesTableauBord statistiques;
+
+	@Autowired
+	private SalleService salleService;
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private UtilisateurRepository utilisateurRepository;
+
+	@Test
+	void compteursMisAJourParLesEcritures() {
+		statistiques.recaler();
+		StatistiquesDTO initial = statistiques.instantane();
+
+		Long salleId = salleService.createSalle(SalleDTO.builder()
+				.nom("Statistiques " + UUID.randomUUID().toString().substring(0, 8)).capacite(50)
+				.localisation("Cotonou, Tests").prixParJour(new BigDecimal("1000")).disponible(true).build(), null)
+				.getId();
+		Long reservationId = reservationService.createReservation(ReservationDTO.builder().salleId(salleId)
+				.utilisateurId(utilisateurRepository.findByUsername("john").orElseThrow().getId())
+				.dateDebut(LocalDate.now().plusYears(6)).heureDebut(LocalTime.of(10, 0)).heureFin(LocalTime.of(12, 0))
+				.typeEvenement("Statistiques").nombrePersonnes(10).build()).getId();
+		reservationService.confirmerReservation(reservationId);
+		salleService.toggleDisponibilite(salleId, false);
+
+		StatistiquesDTO apres = statistiques.instantane();
+		assertEquals(initial.salles() + 1, apres.salles());
+		assertEquals(initial.sallesDisponibles(), apres.sallesDisponibles());
+		assertEquals(initial.reservations() + 1, apres.reservations());
+		assertEquals(initial.reservationsParStatut().get(StatutReservation.PENDING),
+				apres.reservationsParStatut().get(StatutReservation.PENDING));
+		assertEquals(initial.reservationsParStatut().get(StatutReservation.CONFIRMED) + 1,
+				apres.reservationsParStatut().get(StatutReservation.CONFIRMED));
+
+		statistiques.recaler();
+		assertEquals(apres, statistiques.instantane());
+
+		reservationService.deleteReservation(reservationId);
+		salleService.deleteSalle(salleId);
+		assertEquals(initial, statistiques.instantane());
+	}
+}
@@ -0,0 +1,103 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ifri.bookmyhall.dto.ReservationDTO;
+import com.ifri.bookmyhall.dto.SalleDTO;
+import com.ifri.bookmyhall.repositories.UtilisateurRepository;
+import com.ifri.bookmyhall.services.VersionCatalogue.Version;
+
+/**
+ * Les versions du catalogue avancent avec les écritures dont dépendent les
+ * pages de salles, et seulement avec elles.
+ */
+@SpringBootTest
+class VersionCatalogueTests {
+
+	@Autowired
+	private VersionCatalogue versions;
+
+	@Autowired
+	private SalleService salleService;
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private UtilisateurRepository utilisateurRepository;
+
+	@Test
+	void versionsSuiventLesEcritures() {
+		Long salleId = salleService.createSalle(SalleDTO.builder()
+				.nom("Version " + UUID.randomUUID().toString().substring(0, 8)).capacite(50)
+				.localisation("Cotonou, Tests").prixParJour(new BigDecimal("1000")).disponible(true).build(), null)
+				.getId();
+		Version catalogue = versions.catalogue();
+		Version disponibilites = versions.disponibilites();
+		Version salle = versions.salle(salleId);
+
+		Long reservationId = reservationService.createReservation(ReservationDTO.builder().salleId(salleId)
+				.utilisateurId(utilisateurRepository.findByUsername("john").orElseThrow().getId())
+				.dateDebut(LocalDate.now().plusYears(7)).heureDebut(LocalTime.of(10, 0)).heureFin(LocalTime.of(12, 0))
+				.typeEvenement("Version").nombrePersonnes(10).build()).getId();
+		assertEquals(catalogue, versions.catalogue());
+		assertNotEquals(disponibilites, versions.disponibilites());
+		assertNotEquals(salle, versions.salle(salleId));
+
+		salle = versions.salle(salleId);
+		reservationService.confirmerReservation(reservationId);
+		assertEquals(salle, versions.salle(salleId));
+
+		salleService.toggleDisponibilite(salleId, false);
+		assertNotEquals(catalogue, versions.catalogue());
+		assertNotEquals(salle, versions.salle(salleId));
+
+		reservationService.deleteReservation(reservationId);
+		salleService.deleteSalle(salleId);
+	}
+
+	@Test
+	void deplacementAvanceLesDeuxSalles() {
+		Long premiere = creerSalle();
+		Long seconde = creerSalle();
+		ReservationDTO reservation = reservationService.createReservation(ReservationDTO.builder().salleId(premiere)
+				.utilisateurId(utilisateurRepository.findByUsername("john").orElseThrow().getId())
+				.dateDebut(LocalDate.now().plusYears(7).plusMonths(2)).heureDebut(LocalTime.of(10, 0))
+				.heureFin(LocalTime.of(12, 0)).typeEvenement("Version").nombrePersonnes(10).build());
+		try {
+			Version avantPremiere = versions.salle(premiere);
+			Version avantSeconde = versions.salle(seconde);
+			reservation.setSalleId(seconde);
+			reservation = reservationService.updateReservation(reservation.getId(), reservation);
+			assertNotEquals(avantPremiere, versions.salle(premiere));
+			assertNotEquals(avantSeconde, versions.salle(seconde));
+
+			// Changement d'heures sur la même salle.
+			avantSeconde = versions.salle(seconde);
+			reservation.setHeureFin(LocalTime.of(13, 0));
+			reservationService.updateReservation(reservation.getId(), reservation);
+			assertNotEquals(avantSeconde, versions.salle(seconde));
+		} finally {
+			reservationService.deleteReservation(reservation.getId());
+			salleService.deleteSalle(premiere);
+			salleService.deleteSalle(seconde);
+		}
+	}
+
+	private Long creerSalle() {
+		return salleService.createSalle(SalleDTO.builder()
+				.nom("Version " + UUID.randomUUID().toString().substring(0, 8)).capacite(50)
+				.localisation("Cotonou, Tests").prixParJour(new BigDecimal("1000")).disponible(true).build(), null)
+				.getId();
+	}
+}
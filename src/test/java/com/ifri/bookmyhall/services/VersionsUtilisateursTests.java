@@ -0,0 +1,60 @@
+package com.ifri.bookmyhall.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ifri.bookmyhall.configs.UtilisateurPrincipal;
+import com.ifri.bookmyhall.dto.UtilisateurDTO;
+import com.ifri.bookmyhall.models.Role;
+
+/**
+ * Un principal chargé à la connexion reste à jour jusqu'à la prochaine
+ * écriture de l'utilisateur, puis est rechargé avec ses nouveaux droits.
+ */
+@SpringBootTest
+class VersionsUtilisateursTests {
+
+	@Autowired
+	private CustomUserDetailsService userDetailsService;
+
+	@Autowired
+	private UtilisateurService utilisateurService;
+
+	@Autowired
+	private VersionsUtilisateurs versions;
+
+	@Test
+	void principalPerimeApresEcriture() {
+		String username = "p" + UUID.randomUUID().toString().substring(0, 8);
+		UtilisateurDTO dto = new UtilisateurDTO();
+		dto.setNom("Principal");
+		dto.setPrenom("Test");
+		dto.setEmail(username + "@example.com");
+		dto.setUsername(username);
+		dto.setPassword("motdepasse");
+		Long id = utilisateurService.createUtilisateur(dto).getId();
+
+		UtilisateurPrincipal principal = (UtilisateurPrincipal) userDetailsService.loadUserByUsername(username);
+		assertEquals(id, principal.getId());
+		assertTrue(versions.estAJour(principal));
+
+		utilisateurService.changeRole(id, Role.ADMIN);
+		assertFalse(versions.estAJour(principal));
+		UtilisateurPrincipal recharge = versions.recharger(id).orElseThrow();
+		assertTrue(versions.estAJour(recharge));
+		assertEquals(Role.ADMIN, recharge.getRole());
+
+		utilisateurService.toggleActif(id, false);
+		assertFalse(versions.estAJour(recharge));
+		assertTrue(versions.recharger(id).isEmpty());
+
+		utilisateurService.deleteUtilisateur(id);
+	}
+}